@@ -0,0 +1,87 @@
+package io.github.cadenceoss.iwf.core;
+
+import io.github.cadenceoss.iwf.gen.models.EncodedObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the builtin encoders on a numeric-heavy state input.
+ * Run with: ./gradlew jmh -Pjmh.includes=ObjectEncoderBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ObjectEncoderBenchmark {
+
+    @Param({"JSON", "SMILE", "CBOR", "MESSAGE_PACK"})
+    public String encoding;
+
+    private ObjectEncoder encoder;
+    private Payload payload;
+    private EncodedObject encodedPayload;
+
+    @Setup
+    public void setup() {
+        encoder = newEncoder(encoding);
+        payload = Payload.sample();
+        encodedPayload = encoder.encode(payload);
+    }
+
+    static ObjectEncoder newEncoder(final String encoding) {
+        if (encoding.equals("JSON")) {
+            return new JacksonJsonObjectEncoder();
+        }
+        return new JacksonBinaryObjectEncoder(JacksonBinaryObjectEncoder.Format.valueOf(encoding));
+    }
+
+    @Benchmark
+    public EncodedObject encode() {
+        return encoder.encode(payload);
+    }
+
+    @Benchmark
+    public Payload decode() {
+        return encoder.decode(encodedPayload, Payload.class);
+    }
+
+    public static class Payload {
+        public String orderId;
+        public long createdAt;
+        public double[] prices;
+        public List<Long> quantities;
+        public Map<String, Integer> counters;
+
+        static Payload sample() {
+            final Payload payload = new Payload();
+            payload.orderId = "order-0123456789";
+            payload.createdAt = 1666000000000L;
+            payload.prices = new double[64];
+            payload.quantities = new ArrayList<>();
+            payload.counters = new HashMap<>();
+            for (int i = 0; i < 64; i++) {
+                payload.prices[i] = i * 1.25;
+                payload.quantities.add(1000L + i * 37L);
+                payload.counters.put("counter" + i, i * 1013);
+            }
+            return payload;
+        }
+    }
+}
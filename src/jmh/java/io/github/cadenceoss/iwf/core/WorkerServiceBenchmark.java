@@ -0,0 +1,173 @@
+package io.github.cadenceoss.iwf.core;
+
+import io.github.cadenceoss.iwf.core.attributes.QueryAttributeDef;
+import io.github.cadenceoss.iwf.core.attributes.QueryAttributesRW;
+import io.github.cadenceoss.iwf.core.attributes.SearchAttributeDef;
+import io.github.cadenceoss.iwf.core.attributes.SearchAttributeType;
+import io.github.cadenceoss.iwf.core.attributes.SearchAttributesRW;
+import io.github.cadenceoss.iwf.core.attributes.StateLocal;
+import io.github.cadenceoss.iwf.core.command.CommandRequest;
+import io.github.cadenceoss.iwf.core.command.CommandResults;
+import io.github.cadenceoss.iwf.core.command.InterStateChannel;
+import io.github.cadenceoss.iwf.core.command.SignalChannelDef;
+import io.github.cadenceoss.iwf.core.command.SignalCommand;
+import io.github.cadenceoss.iwf.core.command.TimerCommand;
+import io.github.cadenceoss.iwf.gen.models.KeyValue;
+import io.github.cadenceoss.iwf.gen.models.SearchAttribute;
+import io.github.cadenceoss.iwf.gen.models.SignalResult;
+import io.github.cadenceoss.iwf.gen.models.TimerResult;
+import io.github.cadenceoss.iwf.gen.models.WorkflowStateDecideRequest;
+import io.github.cadenceoss.iwf.gen.models.WorkflowStateDecideResponse;
+import io.github.cadenceoss.iwf.gen.models.WorkflowStateStartRequest;
+import io.github.cadenceoss.iwf.gen.models.WorkflowStateStartResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of handling start/decide requests in {@link WorkerService}.
+ * Run with the gc profiler(enabled in build.gradle) to see the bytes allocated per request: ./gradlew jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WorkerServiceBenchmark {
+
+    private static final String WORKFLOW_TYPE = "BenchmarkWorkflow";
+    private static final String STATE_ID = "S1";
+    private static final String QUERY_ATTRIBUTE = "qa1";
+    private static final String SEARCH_ATTRIBUTE = "sa1";
+    private static final String SIGNAL_CHANNEL = "signal1";
+
+    private WorkerService workerService;
+    private WorkflowStateStartRequest startRequest;
+    private WorkflowStateDecideRequest decideRequest;
+
+    @Setup
+    public void setup() {
+        final Registry registry = new Registry();
+        registry.addWorkflow(new BenchmarkWorkflow());
+        workerService = new WorkerService(registry, WorkerOptions.defaultOptions);
+
+        final ObjectEncoder encoder = new JacksonJsonObjectEncoder();
+        final io.github.cadenceoss.iwf.gen.models.Context context = new io.github.cadenceoss.iwf.gen.models.Context()
+                .workflowId("workflow-id")
+                .workflowRunId("run-id")
+                .stateExecutionId(STATE_ID + "-1")
+                .workflowStartedTimestamp(1L);
+        final List<KeyValue> queryAttributes = Arrays.asList(
+                new KeyValue().key(QUERY_ATTRIBUTE).value(encoder.encode("value")),
+                new KeyValue().key("qa2").value(encoder.encode("other value")));
+        startRequest = new WorkflowStateStartRequest()
+                .context(context)
+                .workflowType(WORKFLOW_TYPE)
+                .workflowStateId(STATE_ID)
+                .stateInput(encoder.encode(1))
+                .queryAttributes(queryAttributes)
+                .searchAttributes(Arrays.asList(new SearchAttribute()
+                        .key(SEARCH_ATTRIBUTE)
+                        .integerValue(1L)
+                        .valueType(SearchAttribute.ValueTypeEnum.INT)));
+        decideRequest = new WorkflowStateDecideRequest()
+                .context(context)
+                .workflowType(WORKFLOW_TYPE)
+                .workflowStateId(STATE_ID)
+                .stateInput(encoder.encode(1))
+                .queryAttributes(queryAttributes)
+                .stateLocalAttributes(Arrays.asList(new KeyValue().key("local").value(encoder.encode(1))))
+                .commandResults(new io.github.cadenceoss.iwf.gen.models.CommandResults()
+                        .signalResults(Arrays.asList(new SignalResult()
+                                .commandId("signal-cmd")
+                                .signalChannelName(SIGNAL_CHANNEL)
+                                .signalValue(encoder.encode("signal value"))
+                                .signalRequestStatus(SignalResult.SignalRequestStatusEnum.RECEIVED)))
+                        .timerResults(Arrays.asList(new TimerResult()
+                                .commandId("timer-cmd")
+                                .timerStatus(TimerResult.TimerStatusEnum.FIRED))));
+    }
+
+    @Benchmark
+    public WorkflowStateStartResponse start() {
+        return workerService.handleWorkflowStateStart(startRequest);
+    }
+
+    @Benchmark
+    public WorkflowStateDecideResponse decide() {
+        return workerService.handleWorkflowStateDecide(decideRequest);
+    }
+
+    public static class BenchmarkWorkflow implements Workflow {
+        @Override
+        public List<StateDef> getStates() {
+            return Arrays.asList(StateDef.startingState(new BenchmarkState()));
+        }
+
+        @Override
+        public List<QueryAttributeDef> getQueryAttributes() {
+            return Arrays.asList(
+                    QueryAttributeDef.create(String.class, QUERY_ATTRIBUTE),
+                    QueryAttributeDef.create(String.class, "qa2"));
+        }
+
+        @Override
+        public List<SearchAttributeDef> getSearchAttributes() {
+            return Arrays.asList(SearchAttributeDef.create(SearchAttributeType.INT_64, SEARCH_ATTRIBUTE));
+        }
+
+        @Override
+        public List<SignalChannelDef> getSignalChannels() {
+            return Arrays.asList(SignalChannelDef.create(String.class, SIGNAL_CHANNEL));
+        }
+
+        @Override
+        public String getWorkflowType() {
+            return WORKFLOW_TYPE;
+        }
+    }
+
+    public static class BenchmarkState implements WorkflowState<Integer> {
+        @Override
+        public String getStateId() {
+            return STATE_ID;
+        }
+
+        @Override
+        public Class<Integer> getInputType() {
+            return Integer.class;
+        }
+
+        @Override
+        public CommandRequest start(final Context context, final Integer input, final StateLocal stateLocals, final SearchAttributesRW searchAttributes, final QueryAttributesRW queryAttributes, final InterStateChannel interStateChannel) {
+            queryAttributes.get(QUERY_ATTRIBUTE, String.class);
+            stateLocals.setLocalAttribute("local", input);
+            searchAttributes.setInt64(SEARCH_ATTRIBUTE, input.longValue());
+            return CommandRequest.forAllCommandCompleted(
+                    SignalCommand.create("signal-cmd", SIGNAL_CHANNEL),
+                    TimerCommand.createByDuration("timer-cmd", Duration.ofSeconds(10)));
+        }
+
+        @Override
+        public StateDecision decide(final Context context, final Integer input, final CommandResults commandResults, final StateLocal stateLocals, final SearchAttributesRW searchAttributes, final QueryAttributesRW queryAttributes, final InterStateChannel interStateChannel) {
+            stateLocals.getLocalAttribute("local", Integer.class);
+            queryAttributes.set(QUERY_ATTRIBUTE, "new value");
+            return StateDecision.multiNextStates(
+                    StateMovement.create(STATE_ID, input + 1),
+                    StateMovement.create(STATE_ID, input + 2));
+        }
+    }
+}
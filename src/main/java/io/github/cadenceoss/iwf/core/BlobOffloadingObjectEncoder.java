@@ -0,0 +1,191 @@
+package io.github.cadenceoss.iwf.core;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.hash.Hashing;
+import io.github.cadenceoss.iwf.core.blob.BlobStore;
+import io.github.cadenceoss.iwf.core.worker.CacheMetrics;
+import io.github.cadenceoss.iwf.core.worker.ImmutableCacheMetrics;
+import io.github.cadenceoss.iwf.gen.models.EncodedObject;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An {@link ObjectEncoder} offloading the values encoded by another encoder into a {@link BlobStore} when they are larger
+ * than a threshold. Only the SHA-256 of the payload is sent to iWF server, with the encoding type
+ * "{delegate encoding type}+blob". Identical payloads are stored once, and recently used blobs are kept in memory.
+ * Smaller values keep the encoding type of the delegate and are decoded by the delegate.
+ * Every worker and client using this encoder must share the same blob store.
+ */
+public class BlobOffloadingObjectEncoder implements ObjectEncoder {
+    public static final int DEFAULT_THRESHOLD_BYTES = 64 * 1024;
+    public static final long DEFAULT_HOT_CACHE_MAX_BYTES = 64L * 1024 * 1024;
+
+    private static final String ENCODING_SUFFIX = "+blob";
+
+    private final ObjectEncoder delegate;
+    private final BlobStore blobStore;
+    private final int thresholdBytes;
+    private final String encodingType;
+
+    // blob key -> content of recently used blobs, bounded by the total size of the contents
+    private final Cache<String, byte[]> hotBlobs;
+
+    private final LongAdder offloadedCount = new LongAdder();
+    private final LongAdder offloadedBytes = new LongAdder();
+
+    public BlobOffloadingObjectEncoder(final ObjectEncoder delegate, final BlobStore blobStore) {
+        this(delegate, blobStore, DEFAULT_THRESHOLD_BYTES, DEFAULT_HOT_CACHE_MAX_BYTES);
+    }
+
+    /**
+     * @param thresholdBytes     values whose encoded data is smaller than this(in UTF-8 bytes) are not offloaded
+     * @param hotCacheMaxBytes   max total size of the blobs kept in memory, 0 to disable
+     */
+    public BlobOffloadingObjectEncoder(final ObjectEncoder delegate, final BlobStore blobStore,
+                                       final int thresholdBytes, final long hotCacheMaxBytes) {
+        if (thresholdBytes < 0 || hotCacheMaxBytes < 0) {
+            throw new IllegalArgumentException("thresholdBytes and hotCacheMaxBytes must not be negative");
+        }
+        this.delegate = delegate;
+        this.blobStore = blobStore;
+        this.thresholdBytes = thresholdBytes;
+        this.encodingType = delegate.getEncodingType() + ENCODING_SUFFIX;
+        this.hotBlobs = CacheBuilder.newBuilder()
+                .maximumWeight(hotCacheMaxBytes)
+                .<String, byte[]>weigher((key, data) -> data.length)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * @return the encoding type of the offloaded values. The values under the threshold have the encoding type of the delegate.
+     */
+    @Override
+    public String getEncodingType() {
+        return encodingType;
+    }
+
+    @Override
+    public void warmUp(final Collection<Class<?>> types) {
+        delegate.warmUp(types);
+    }
+
+    @Override
+    public EncodedObject encode(final Object object) {
+        final EncodedBytes encodedBytes = encodeToBytes(object);
+        if (encodedBytes == null) {
+            return null;
+        }
+        return new EncodedObject()
+                .encoding(encodedBytes.getEncoding())
+                .data(new String(encodedBytes.getData(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the UTF-8 bytes of the blob key with the offloaded encoding type, or the bytes of the delegate with its
+     * encoding type when the value is under the threshold
+     */
+    @Override
+    public EncodedBytes encodeToBytes(final Object object) {
+        final EncodedBytes encoded = delegate.encodeToBytes(object);
+        if (encoded == null) {
+            return null;
+        }
+        final byte[] data = encoded.getData();
+        if (data.length < thresholdBytes) {
+            return encoded;
+        }
+
+        final String key = keyOf(data);
+        if (hotBlobs.getIfPresent(key) == null) {
+            blobStore.put(key, data);
+            hotBlobs.put(key, data);
+        }
+        offloadedCount.increment();
+        offloadedBytes.add(data.length);
+        return new EncodedBytes(encodingType, key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public <T> T decode(final EncodedObject encodedObject, final Class<T> type) {
+        if (encodedObject == null) {
+            return null;
+        }
+        if (!encodingType.equals(encodedObject.getEncoding())) {
+            return delegate.decode(encodedObject, type);
+        }
+        if (encodedObject.getData() == null || encodedObject.getData().isEmpty()) {
+            throw new ObjectEncoderException("offloaded value has no blob key");
+        }
+        return delegate.decodeFromBytes(delegate.getEncodingType(), load(encodedObject.getData()), type);
+    }
+
+    @Override
+    public <T> T decodeFromBytes(final String encoding, final byte[] data, final Class<T> type) {
+        if (data == null) {
+            return null;
+        }
+        if (!encodingType.equals(encoding)) {
+            return delegate.decodeFromBytes(encoding, data, type);
+        }
+        return ObjectEncoder.super.decodeFromBytes(encoding, data, type);
+    }
+
+    @Override
+    public <T> T decodeFromStream(final String encoding, final InputStream data, final Class<T> type) {
+        if (!encodingType.equals(encoding)) {
+            return delegate.decodeFromStream(encoding, data, type);
+        }
+        return ObjectEncoder.super.decodeFromStream(encoding, data, type);
+    }
+
+    private byte[] load(final String key) {
+        final byte[] cached = hotBlobs.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        final byte[] data = blobStore.get(key);
+        if (data == null) {
+            throw new ObjectEncoderException("blob " + key + " is not found in the blob store");
+        }
+        if (!keyOf(data).equals(key)) {
+            throw new ObjectEncoderException("blob " + key + " is corrupted in the blob store");
+        }
+        hotBlobs.put(key, data);
+        return data;
+    }
+
+    private static String keyOf(final byte[] data) {
+        return Hashing.sha256().hashBytes(data).toString();
+    }
+
+    public ObjectEncoder getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * @return the number of values offloaded into the blob store, including the ones deduplicated
+     */
+    public long getOffloadedCount() {
+        return offloadedCount.sum();
+    }
+
+    public long getOffloadedBytes() {
+        return offloadedBytes.sum();
+    }
+
+    public CacheMetrics getHotCacheMetrics() {
+        final CacheStats stats = hotBlobs.stats();
+        return ImmutableCacheMetrics.builder()
+                .hitCount(stats.hitCount())
+                .missCount(stats.missCount())
+                .evictionCount(stats.evictionCount())
+                .size(hotBlobs.size())
+                .build();
+    }
+}
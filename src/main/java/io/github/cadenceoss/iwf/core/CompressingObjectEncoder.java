@@ -0,0 +1,177 @@
+package io.github.cadenceoss.iwf.core;
+
+import io.github.cadenceoss.iwf.gen.models.EncodedObject;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An {@link ObjectEncoder} compressing the values encoded by another encoder when they are larger than a threshold.
+ * Compressed values are tagged with the encoding type "{delegate encoding type}+{compressor name}", e.g.
+ * "BuiltinJacksonJson+gzip", and carry the compressed bytes as Base64. Smaller values keep the encoding type of the
+ * delegate, so both can be decoded by this encoder and existing values don't need to be migrated.
+ * When it's the primary of a {@link RoutingObjectEncoder}, register the delegate as a decode-only encoder as well.
+ */
+public class CompressingObjectEncoder implements ObjectEncoder {
+    public static final int DEFAULT_THRESHOLD_BYTES = 4096;
+
+    private static final String SEPARATOR = "+";
+
+    private final ObjectEncoder delegate;
+    private final Compressor compressor;
+    private final int thresholdBytes;
+    private final String encodingType;
+
+    // compressed encoding type -> compressor, including the ones only used for decoding
+    private final Map<String, Compressor> decompressors = new HashMap<>();
+
+    private final LongAdder compressedCount = new LongAdder();
+    private final LongAdder uncompressedCount = new LongAdder();
+    private final LongAdder originalBytes = new LongAdder();
+    private final LongAdder compressedBytes = new LongAdder();
+
+    public CompressingObjectEncoder(final ObjectEncoder delegate) {
+        this(delegate, DEFAULT_THRESHOLD_BYTES, new GzipCompressor());
+    }
+
+    public CompressingObjectEncoder(final ObjectEncoder delegate, final int thresholdBytes, final Compressor compressor,
+                                    final Compressor... decodeOnlyCompressors) {
+        this(delegate, thresholdBytes, compressor, Arrays.asList(decodeOnlyCompressors));
+    }
+
+    /**
+     * @param thresholdBytes        values whose encoded data is smaller than this(in UTF-8 bytes) are not compressed
+     * @param compressor            used to compress the values
+     * @param decodeOnlyCompressors previously used compressors, to keep decoding the values compressed by them
+     */
+    public CompressingObjectEncoder(final ObjectEncoder delegate, final int thresholdBytes, final Compressor compressor,
+                                    final Collection<? extends Compressor> decodeOnlyCompressors) {
+        if (thresholdBytes < 0) {
+            throw new IllegalArgumentException("thresholdBytes must not be negative");
+        }
+        this.delegate = delegate;
+        this.compressor = compressor;
+        this.thresholdBytes = thresholdBytes;
+        this.encodingType = getCompressedEncodingType(compressor);
+        decompressors.put(encodingType, compressor);
+        for (Compressor decodeOnly : decodeOnlyCompressors) {
+            decompressors.put(getCompressedEncodingType(decodeOnly), decodeOnly);
+        }
+    }
+
+    private String getCompressedEncodingType(final Compressor compressor) {
+        return delegate.getEncodingType() + SEPARATOR + compressor.getName();
+    }
+
+    /**
+     * @return the encoding type of the compressed values. The values under the threshold have the encoding type of the delegate.
+     */
+    @Override
+    public String getEncodingType() {
+        return encodingType;
+    }
+
+    @Override
+    public void warmUp(final Collection<Class<?>> types) {
+        delegate.warmUp(types);
+    }
+
+    @Override
+    public EncodedObject encode(final Object object) {
+        final EncodedBytes encodedBytes = encodeToBytes(object);
+        if (encodedBytes == null) {
+            return null;
+        }
+        return new EncodedObject()
+                .encoding(encodedBytes.getEncoding())
+                .data(new String(encodedBytes.getData(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the compressed bytes(as Base64) with the compressed encoding type, or the bytes of the delegate with its
+     * encoding type when the value is under the threshold or doesn't get smaller
+     */
+    @Override
+    public EncodedBytes encodeToBytes(final Object object) {
+        // work on the bytes of the delegate, so that large values are not built as a String before compressing
+        final EncodedBytes encoded = delegate.encodeToBytes(object);
+        if (encoded == null) {
+            return null;
+        }
+        final byte[] original = encoded.getData();
+        if (original.length >= thresholdBytes) {
+            final byte[] compressed = Base64.getEncoder().encode(compressor.compress(original));
+            if (compressed.length < original.length) {
+                compressedCount.increment();
+                originalBytes.add(original.length);
+                compressedBytes.add(compressed.length);
+                return new EncodedBytes(encodingType, compressed);
+            }
+        }
+        uncompressedCount.increment();
+        return encoded;
+    }
+
+    @Override
+    public <T> T decode(final EncodedObject encodedObject, final Class<T> type) {
+        if (encodedObject == null) {
+            return null;
+        }
+        final Compressor decompressor = decompressors.get(encodedObject.getEncoding());
+        if (decompressor == null) {
+            return delegate.decode(encodedObject, type);
+        }
+        if (encodedObject.getData() == null || encodedObject.getData().isEmpty()) {
+            return null;
+        }
+
+        final byte[] compressed;
+        try {
+            compressed = Base64.getDecoder().decode(encodedObject.getData());
+        } catch (IllegalArgumentException e) {
+            throw new ObjectEncoderException(e);
+        }
+        // the decompressed bytes are the UTF-8 data of the delegate, decode them without building the String
+        return delegate.decodeFromBytes(delegate.getEncodingType(), decompressor.decompress(compressed), type);
+    }
+
+    @Override
+    public <T> T decodeFromBytes(final String encoding, final byte[] data, final Class<T> type) {
+        if (data == null) {
+            return null;
+        }
+        final Compressor decompressor = decompressors.get(encoding);
+        if (decompressor == null) {
+            return delegate.decodeFromBytes(encoding, data, type);
+        }
+        if (data.length == 0) {
+            return null;
+        }
+
+        final byte[] compressed;
+        try {
+            compressed = Base64.getDecoder().decode(data);
+        } catch (IllegalArgumentException e) {
+            throw new ObjectEncoderException(e);
+        }
+        return delegate.decodeFromBytes(delegate.getEncodingType(), decompressor.decompress(compressed), type);
+    }
+
+    public ObjectEncoder getDelegate() {
+        return delegate;
+    }
+
+    public CompressionMetrics getMetrics() {
+        return ImmutableCompressionMetrics.builder()
+                .compressedCount(compressedCount.sum())
+                .uncompressedCount(uncompressedCount.sum())
+                .originalBytes(originalBytes.sum())
+                .compressedBytes(compressedBytes.sum())
+                .build();
+    }
+}
@@ -0,0 +1,29 @@
+package io.github.cadenceoss.iwf.core;
+
+import org.immutables.value.Value;
+
+/**
+ * A point-in-time snapshot of the counters of a {@link CompressingObjectEncoder}
+ */
+@Value.Immutable
+public abstract class CompressionMetrics {
+
+    // number of encoded values that are compressed
+    public abstract long getCompressedCount();
+
+    // number of encoded values that are left uncompressed, because of the threshold or not getting smaller
+    public abstract long getUncompressedCount();
+
+    // total size of the compressed values before compression
+    public abstract long getOriginalBytes();
+
+    // total size of the compressed values after compression, as carried in EncodedObject
+    public abstract long getCompressedBytes();
+
+    /**
+     * @return compressed size / original size of the compressed values, 1.0 if nothing is compressed yet
+     */
+    public double getCompressionRatio() {
+        return getOriginalBytes() == 0 ? 1.0 : (double) getCompressedBytes() / getOriginalBytes();
+    }
+}
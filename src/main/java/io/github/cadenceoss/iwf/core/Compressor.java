@@ -0,0 +1,16 @@
+package io.github.cadenceoss.iwf.core;
+
+/**
+ * Compression algorithm used by {@link CompressingObjectEncoder}, e.g. {@link GzipCompressor}.
+ * Other algorithms like LZ4 or Zstd can be plugged in by implementing this interface.
+ */
+public interface Compressor {
+    /**
+     * @return the name that is appended to the encoding type of the compressed values, it must not change once used
+     */
+    String getName();
+
+    byte[] compress(byte[] data);
+
+    byte[] decompress(byte[] data);
+}
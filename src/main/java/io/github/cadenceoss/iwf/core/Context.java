@@ -1,14 +1,43 @@
 package io.github.cadenceoss.iwf.core;
 
+import io.github.cadenceoss.iwf.core.worker.ParallelScope;
+import io.github.cadenceoss.iwf.core.worker.ParallelScopeOptions;
 import org.immutables.value.Value;
 
 @Value.Immutable
 public abstract class Context {
+    // attributes are parameters so that the worker can create it with ImmutableContext.of without a builder
+    @Value.Parameter
     public abstract Long getWorkflowStartTimestampSeconds();
 
+    @Value.Parameter
     public abstract String getStateExecutionId();
 
+    @Value.Parameter
     public abstract String getWorkflowRunId();
 
+    @Value.Parameter
     public abstract String getWorkflowId();
+
+    /**
+     * the time after which iwf-server stops waiting for the response of the state API. It's the deadline passed to
+     * {@link WorkerService}, or the arrival of the request plus {@link WorkerOptions#getStateApiTimeoutMillis()}, as
+     * iwf-server doesn't send it. {@link WorkerService#NO_DEADLINE} if neither is set, and a ParallelScope uses its
+     * default timeout then
+     */
+    @Value.Default
+    public long getRequestDeadlineEpochMillis() {
+        return WorkerService.NO_DEADLINE;
+    }
+
+    /**
+     * Open a scope to run subtasks of the state API in parallel, with the deadline of the request
+     */
+    public ParallelScope openParallelScope() {
+        return openParallelScope(ParallelScopeOptions.defaultOptions);
+    }
+
+    public ParallelScope openParallelScope(final ParallelScopeOptions options) {
+        return ParallelScope.open(getRequestDeadlineEpochMillis(), options);
+    }
 }
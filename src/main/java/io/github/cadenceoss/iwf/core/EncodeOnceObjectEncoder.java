@@ -0,0 +1,81 @@
+package io.github.cadenceoss.iwf.core;
+
+import io.github.cadenceoss.iwf.gen.models.EncodedObject;
+
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * An {@link ObjectEncoder} encoding the same object instance only once, and sharing the {@link EncodedObject} for all
+ * the other occurrences, e.g. the same input of the next states of {@link StateDecision#multiNextStates(StateMovement...)}.
+ * Objects are compared by identity, so it must only be used while the objects are not modified: it's created for
+ * encoding a single {@link StateDecision} of {@link WorkerService}, and is not thread-safe.
+ */
+public final class EncodeOnceObjectEncoder implements ObjectEncoder {
+    private final ObjectEncoder delegate;
+
+    // created on the second encode call, as most responses encode at most one object
+    private Map<Object, EncodedObject> encoded;
+    private Object firstObject;
+    private EncodedObject firstEncoded;
+
+    public EncodeOnceObjectEncoder(final ObjectEncoder delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public String getEncodingType() {
+        return delegate.getEncodingType();
+    }
+
+    @Override
+    public void warmUp(final Collection<Class<?>> types) {
+        delegate.warmUp(types);
+    }
+
+    @Override
+    public EncodedObject encode(final Object object) {
+        if (object == null) {
+            return delegate.encode(null);
+        }
+        if (firstObject == null) {
+            firstObject = object;
+            firstEncoded = delegate.encode(object);
+            return firstEncoded;
+        }
+        if (object == firstObject) {
+            return firstEncoded;
+        }
+        if (encoded == null) {
+            encoded = new IdentityHashMap<>();
+        }
+        EncodedObject encodedObject = encoded.get(object);
+        if (encodedObject == null) {
+            encodedObject = delegate.encode(object);
+            encoded.put(object, encodedObject);
+        }
+        return encodedObject;
+    }
+
+    @Override
+    public EncodedBytes encodeToBytes(final Object object) {
+        return delegate.encodeToBytes(object);
+    }
+
+    @Override
+    public <T> T decode(final EncodedObject encodedObject, final Class<T> type) {
+        return delegate.decode(encodedObject, type);
+    }
+
+    @Override
+    public <T> T decodeFromBytes(final String encoding, final byte[] data, final Class<T> type) {
+        return delegate.decodeFromBytes(encoding, data, type);
+    }
+
+    @Override
+    public <T> T decodeFromStream(final String encoding, final InputStream data, final Class<T> type) {
+        return delegate.decodeFromStream(encoding, data, type);
+    }
+}
@@ -0,0 +1,26 @@
+package io.github.cadenceoss.iwf.core;
+
+import io.github.cadenceoss.iwf.gen.models.EncodedObject;
+
+/**
+ * The encoding type and the UTF-8 bytes of the data of an {@link EncodedObject}, as returned by
+ * {@link ObjectEncoder#encodeToBytes(Object)}. Unlike the Immutables values, the data is not copied, so that large
+ * values are not copied again. It must not be modified.
+ */
+public final class EncodedBytes {
+    private final String encoding;
+    private final byte[] data;
+
+    public EncodedBytes(final String encoding, final byte[] data) {
+        this.encoding = encoding;
+        this.data = data;
+    }
+
+    public String getEncoding() {
+        return encoding;
+    }
+
+    public byte[] getData() {
+        return data;
+    }
+}
@@ -0,0 +1,60 @@
+package io.github.cadenceoss.iwf.core;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.deser.ResolvableDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+
+/**
+ * Base class of the deserializers generated for the classes annotated with {@link IwfDataType}. The generated
+ * subclasses resolve the deserializers of the non-primitive properties once in resolve, and set each property by name.
+ */
+public abstract class GeneratedJsonDeserializer<T> extends StdDeserializer<T> implements ResolvableDeserializer {
+
+    protected GeneratedJsonDeserializer(final Class<T> type) {
+        super(type);
+    }
+
+    protected abstract T newInstance();
+
+    /**
+     * @return false if the property is unknown, which is then handled like the builtin mapper does
+     */
+    protected abstract boolean readProperty(JsonParser p, DeserializationContext ctxt, T value, String name) throws IOException;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T deserialize(final JsonParser p, final DeserializationContext ctxt) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            token = p.nextToken();
+        } else if (token != JsonToken.FIELD_NAME && token != JsonToken.END_OBJECT) {
+            return (T) ctxt.handleUnexpectedToken(handledType(), p);
+        }
+
+        final T value = newInstance();
+        for (; token == JsonToken.FIELD_NAME; token = p.nextToken()) {
+            final String name = p.getCurrentName();
+            p.nextToken();
+            if (!readProperty(p, ctxt, value, name)) {
+                handleUnknownProperty(p, ctxt, value, name);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * read a non-primitive property with its resolved deserializer, which also decides the value of JSON null
+     */
+    protected static Object readValue(final JsonParser p, final DeserializationContext ctxt,
+                                      final JsonDeserializer<Object> deserializer) throws IOException {
+        if (p.currentToken() == JsonToken.VALUE_NULL) {
+            return deserializer.getNullValue(ctxt);
+        }
+        return deserializer.deserialize(p, ctxt);
+    }
+}
@@ -0,0 +1,40 @@
+package io.github.cadenceoss.iwf.core;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+public class GzipCompressor implements Compressor {
+    @Override
+    public String getName() {
+        return "gzip";
+    }
+
+    @Override
+    public byte[] compress(final byte[] data) {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new ObjectEncoderException(e);
+        }
+        return out.toByteArray();
+    }
+
+    @Override
+    public byte[] decompress(final byte[] data) {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 4);
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            final byte[] buffer = new byte[8192];
+            int read;
+            while ((read = gzip.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+        } catch (IOException e) {
+            throw new ObjectEncoderException(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,26 @@
+package io.github.cadenceoss.iwf.core;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a class used as a state input, signal value, inter-state channel value, attribute or record event, so that its
+ * JSON serializer and deserializer are generated at compile time instead of being built by Jackson with reflection,
+ * e.g. for GraalVM native images. With the annotation processor enabled, a class named IwfGeneratedSerializers is
+ * generated into the common package of all the annotated classes(or the package set by -Aiwf.serializersPackage=...),
+ * whose module is registered with new JacksonJsonObjectEncoder(IwfGeneratedSerializers.newModule()).
+ * The generated code reads and writes the same JSON as the builtin mapper: the non-static, non-transient fields of the
+ * class and its superclasses, by their field names. Fields are accessed through their getters and setters if they
+ * exist, otherwise directly, so private fields need both.
+ * The annotated class must be a non-abstract, non-generic class with a no-arg constructor that is visible from its
+ * package, without Jackson annotations and without getters or setters of properties that have no field, otherwise the
+ * compilation fails.
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface IwfDataType {
+}
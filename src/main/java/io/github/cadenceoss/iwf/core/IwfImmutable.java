@@ -0,0 +1,17 @@
+package io.github.cadenceoss.iwf.core;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a class whose instances are never modified after being decoded, so that {@link MemoizingObjectEncoder} can
+ * return the same decoded instance for identical payloads.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface IwfImmutable {
+}
@@ -0,0 +1,20 @@
+package io.github.cadenceoss.iwf.core;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a {@link Workflow} implementation to be registered by the generated workflow registry.
+ * With the annotation processor enabled(annotationProcessor 'io.github.cadence-oss:iwf-java-sdk'), a class named
+ * IwfGeneratedRegistry is generated into the common package of all the annotated workflows, which can be used as
+ * IwfGeneratedRegistry.newRegistry() instead of calling {@link Registry#addWorkflow(Workflow)} for each workflow.
+ * The annotated class must be a public, non-abstract class with a public no-arg constructor, otherwise the compilation fails.
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface IwfWorkflow {
+}
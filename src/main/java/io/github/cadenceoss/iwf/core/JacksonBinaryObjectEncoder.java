@@ -0,0 +1,179 @@
+package io.github.cadenceoss.iwf.core;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import io.github.cadenceoss.iwf.gen.models.EncodedObject;
+import org.msgpack.jackson.dataformat.MessagePackMapper;
+
+import java.io.IOException;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An {@link ObjectEncoder} writing objects in a binary format of Jackson. It uses the same mapper configuration as
+ * {@link JacksonJsonObjectEncoder}, so the same classes can be encoded. As {@link EncodedObject} carries the data as
+ * a string, the bytes are encoded as Base64.
+ * It saves CPU rather than size: encoding and decoding are faster than JSON, but Base64 adds a third to the binary
+ * payload, which often makes it larger than the JSON of the same value. Only payloads dominated by large numbers
+ * come out smaller. Base64 data also compresses worse than JSON, so to reduce the size of large payloads use
+ * {@link CompressingObjectEncoder} with {@link JacksonJsonObjectEncoder} instead.
+ * To switch existing workflows from JSON, wrap it in a {@link RoutingObjectEncoder} with {@link JacksonJsonObjectEncoder}
+ * so that the values written as JSON can still be decoded.
+ */
+public class JacksonBinaryObjectEncoder implements ObjectEncoder {
+
+    public enum Format {
+        SMILE("BuiltinJacksonSmile"),
+        CBOR("BuiltinJacksonCbor"),
+        MESSAGE_PACK("BuiltinJacksonMessagePack");
+
+        private final String encodingType;
+
+        Format(final String encodingType) {
+            this.encodingType = encodingType;
+        }
+
+        public String getEncodingType() {
+            return encodingType;
+        }
+
+        private ObjectMapper newMapper() {
+            switch (this) {
+                case SMILE:
+                    return new SmileMapper();
+                case CBOR:
+                    return new CBORMapper();
+                case MESSAGE_PACK:
+                    return new MessagePackMapper();
+                default:
+                    throw new IllegalStateException("unknown format " + this);
+            }
+        }
+    }
+
+    private final ObjectMapper mapper;
+    private final String encodingType;
+
+    private final Map<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+    private final Map<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+
+    public JacksonBinaryObjectEncoder(final Format format) {
+        this(JacksonJsonObjectEncoder.configureBuiltinMapper(format.newMapper()), format.getEncodingType());
+    }
+
+    /**
+     * @param mapper a mapper of a binary format, e.g. SmileMapper
+     */
+    public JacksonBinaryObjectEncoder(final ObjectMapper mapper, final String encodingType) {
+        this.mapper = mapper;
+        this.encodingType = encodingType;
+    }
+
+    @Override
+    public void warmUp(final Collection<Class<?>> types) {
+        for (Class<?> type : types) {
+            try {
+                readers.computeIfAbsent(type, mapper::readerFor);
+                writers.computeIfAbsent(type, mapper::writerFor);
+            } catch (RuntimeException e) {
+                // left to fail on the actual use of the type with the original error
+            }
+        }
+    }
+
+    @Override
+    public String getEncodingType() {
+        return encodingType;
+    }
+
+    @Override
+    public EncodedObject encode(final Object object) {
+        if (object == null) {
+            return null;
+        }
+
+        try {
+            final byte[] data = writerFor(object).writeValueAsBytes(object);
+            return new EncodedObject()
+                    .encoding(getEncodingType())
+                    .data(Base64.getEncoder().encodeToString(data));
+        } catch (JsonProcessingException e) {
+            throw new ObjectEncoderException(e);
+        }
+    }
+
+    // the bytes of the data are the Base64 of the binary format, which is ASCII
+    @Override
+    public EncodedBytes encodeToBytes(final Object object) {
+        if (object == null) {
+            return null;
+        }
+
+        try {
+            return new EncodedBytes(getEncodingType(), Base64.getEncoder().encode(writerFor(object).writeValueAsBytes(object)));
+        } catch (JsonProcessingException e) {
+            throw new ObjectEncoderException(e);
+        }
+    }
+
+    @Override
+    public <T> T decode(final EncodedObject encodedObject, final Class<T> type) {
+        if (encodedObject == null) {
+            return null;
+        }
+
+        checkEncoding(encodedObject.getEncoding());
+        final String data = encodedObject.getData();
+        if (data == null || data.isEmpty()) {
+            return null;
+        }
+
+        try {
+            return readValue(Base64.getDecoder().decode(data), type);
+        } catch (IllegalArgumentException e) {
+            throw new ObjectEncoderException(e);
+        }
+    }
+
+    @Override
+    public <T> T decodeFromBytes(final String encoding, final byte[] data, final Class<T> type) {
+        if (data == null) {
+            return null;
+        }
+
+        checkEncoding(encoding);
+        if (data.length == 0) {
+            return null;
+        }
+
+        try {
+            return readValue(Base64.getDecoder().decode(data), type);
+        } catch (IllegalArgumentException e) {
+            throw new ObjectEncoderException(e);
+        }
+    }
+
+    private void checkEncoding(final String encoding) {
+        if (!encoding.equals(this.encodingType)) {
+            throw new ObjectEncoderException("not supported encoding type for this encoder " + encoding);
+        }
+    }
+
+    private <T> T readValue(final byte[] bytes, final Class<T> type) {
+        try {
+            return readers.computeIfAbsent(type, mapper::readerFor).readValue(bytes);
+        } catch (IOException e) {
+            throw new ObjectEncoderException(e);
+        }
+    }
+
+    private ObjectWriter writerFor(final Object object) {
+        return writers.computeIfAbsent(object.getClass(), mapper::writerFor);
+    }
+}
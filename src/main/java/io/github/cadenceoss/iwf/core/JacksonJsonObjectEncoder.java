@@ -23,23 +23,73 @@ package io.github.cadenceoss.iwf.core;
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
 import com.fasterxml.jackson.annotation.PropertyAccessor;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.Module;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import io.github.cadenceoss.iwf.gen.models.EncodedObject;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class JacksonJsonObjectEncoder implements ObjectEncoder {
 
+  public static final String DEFAULT_ENCODING_TYPE = "BuiltinJacksonJson";
+
+  private static final String BLACKBIRD_MODULE_CLASS = "com.fasterxml.jackson.module.blackbird.BlackbirdModule";
+
   private final ObjectMapper mapper;
   private final String encodingType;
 
+  // readers and writers resolve the (de)serializers once, instead of looking them up on every call
+  private final Map<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+  private final Map<Class<?>, ObjectReader> classReaders = new ConcurrentHashMap<>();
+  private final Map<JavaType, ObjectReader> readers = new ConcurrentHashMap<>();
+
   public JacksonJsonObjectEncoder() {
-    mapper = new ObjectMapper();
+    this(false);
+  }
+
+  /**
+   * @param useBytecodeAccessors register the Jackson Blackbird module, which generates accessors for the properties
+   *                             instead of using reflection. It requires com.fasterxml.jackson.module:jackson-module-blackbird
+   *                             in the classpath.
+   */
+  public JacksonJsonObjectEncoder(final boolean useBytecodeAccessors) {
+    mapper = configureBuiltinMapper(new ObjectMapper());
+    if (useBytecodeAccessors) {
+      registerBlackbirdModule(mapper);
+    }
+    encodingType = DEFAULT_ENCODING_TYPE;
+  }
+
+  /**
+   * @param modules registered on top of the builtin configuration, e.g. IwfGeneratedSerializers.newModule() with the
+   *                serializers generated for the classes annotated with {@link IwfDataType}
+   */
+  public JacksonJsonObjectEncoder(final Module... modules) {
+    mapper = configureBuiltinMapper(new ObjectMapper());
+    mapper.registerModules(modules);
+    encodingType = DEFAULT_ENCODING_TYPE;
+  }
+
+  public JacksonJsonObjectEncoder(ObjectMapper mapper, String encodingType) {
+    this.mapper = mapper;
+    this.encodingType = encodingType;
+  }
+
+  // also used by the other builtin Jackson encoders so that they all read and write the same shape of objects
+  static ObjectMapper configureBuiltinMapper(final ObjectMapper mapper) {
     // preserve the original value of timezone coming from the server in Payload
     // without adjusting to the host timezone
     // may be important if the replay is happening on a host in another timezone
@@ -48,12 +98,31 @@ public class JacksonJsonObjectEncoder implements ObjectEncoder {
     mapper.registerModule(new JavaTimeModule());
     mapper.registerModule(new Jdk8Module());
     mapper.setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
-    encodingType = "BuiltinJacksonJson";
+    return mapper;
   }
 
-  public JacksonJsonObjectEncoder(ObjectMapper mapper, String encodingType) {
-    this.mapper = mapper;
-    this.encodingType = encodingType;
+  // loaded by reflection so that the module is an optional dependency
+  static void registerBlackbirdModule(final ObjectMapper mapper) {
+    try {
+      mapper.registerModule((Module) Class.forName(BLACKBIRD_MODULE_CLASS).getDeclaredConstructor().newInstance());
+    } catch (ReflectiveOperationException e) {
+      throw new ObjectEncoderException("failed to load " + BLACKBIRD_MODULE_CLASS + ", is jackson-module-blackbird in the classpath? " + e);
+    }
+  }
+
+  /**
+   * Resolve the readers and writers of the types, which also resolves their (de)serializers eagerly
+   */
+  @Override
+  public void warmUp(Collection<Class<?>> types) {
+    for (Class<?> type : types) {
+      try {
+        classReaders.computeIfAbsent(type, mapper::readerFor);
+        writers.computeIfAbsent(type, mapper::writerFor);
+      } catch (RuntimeException e) {
+        // left to fail on the actual use of the type with the original error
+      }
+    }
   }
 
   @Override
@@ -68,7 +137,7 @@ public class JacksonJsonObjectEncoder implements ObjectEncoder {
     }
 
     try {
-      String data = mapper.writeValueAsString(object);
+      String data = writers.computeIfAbsent(object.getClass(), mapper::writerFor).writeValueAsString(object);
       return new EncodedObject()
               .encoding(getEncodingType())
               .data(data);
@@ -77,15 +146,82 @@ public class JacksonJsonObjectEncoder implements ObjectEncoder {
     }
   }
 
+  @Override
+  public EncodedBytes encodeToBytes(Object object) {
+    if (object == null) {
+      return null;
+    }
+
+    try {
+      return new EncodedBytes(getEncodingType(), writers.computeIfAbsent(object.getClass(), mapper::writerFor).writeValueAsBytes(object));
+    } catch (JsonProcessingException e) {
+      throw new ObjectEncoderException(e);
+    }
+  }
+
+  @Override
+  public <T> T decodeFromBytes(String encoding, byte[] data, Class<T> type) {
+    if (data == null) {
+      return null;
+    }
+
+    checkEncoding(encoding);
+    if (data.length == 0) {
+      return null;
+    }
+
+    try {
+      return classReaders.computeIfAbsent(type, mapper::readerFor).readValue(data);
+    } catch (IOException e) {
+      throw new ObjectEncoderException(e);
+    }
+  }
+
+  @Override
+  public <T> T decodeFromStream(String encoding, InputStream data, Class<T> type) {
+    checkEncoding(encoding);
+    try {
+      // empty data is decoded as null like in decode, instead of failing in Jackson
+      final PushbackInputStream in = new PushbackInputStream(data, 1);
+      final int first = in.read();
+      if (first == -1) {
+        return null;
+      }
+      in.unread(first);
+      return classReaders.computeIfAbsent(type, mapper::readerFor).readValue(in);
+    } catch (IOException e) {
+      throw new ObjectEncoderException(e);
+    }
+  }
+
+  private void checkEncoding(String encoding) {
+    if (!encoding.equals(this.encodingType)) {
+      throw new ObjectEncoderException("not supported encoding type for this encoder " + encoding);
+    }
+  }
+
   @Override
   public <T> T decode(EncodedObject encodedObject, Class<T> type) {
+    return readValue(encodedObject, classReaders.computeIfAbsent(type, mapper::readerFor));
+  }
+
+  /**
+   * Decode into a generic type, e.g. new TypeReference&lt;List&lt;MyObject&gt;&gt;() {}
+   */
+  public <T> T decode(EncodedObject encodedObject, TypeReference<T> typeReference) {
+    return decode(encodedObject, mapper.constructType(typeReference));
+  }
+
+  public <T> T decode(EncodedObject encodedObject, JavaType type) {
+    return readValue(encodedObject, readers.computeIfAbsent(type, mapper::readerFor));
+  }
+
+  private <T> T readValue(EncodedObject encodedObject, ObjectReader reader) {
     if (encodedObject == null) {
       return null;
     }
 
-    if (!encodedObject.getEncoding().equals(this.encodingType)) {
-      throw new ObjectEncoderException("not supported encoding type for this encoder " + encodedObject.getEncoding());
-    }
+    checkEncoding(encodedObject.getEncoding());
 
     String data = encodedObject.getData();
     if (data == null || data.isEmpty()) {
@@ -93,9 +229,7 @@ public class JacksonJsonObjectEncoder implements ObjectEncoder {
     }
 
     try {
-      @SuppressWarnings("deprecation")
-      JavaType reference = mapper.getTypeFactory().constructType(type, type);
-      return mapper.readValue(data, reference);
+      return reader.readValue(data);
     } catch (IOException e) {
       throw new ObjectEncoderException(e);
     }
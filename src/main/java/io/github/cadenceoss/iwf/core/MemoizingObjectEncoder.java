@@ -0,0 +1,160 @@
+package io.github.cadenceoss.iwf.core;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import io.github.cadenceoss.iwf.core.worker.CacheMetrics;
+import io.github.cadenceoss.iwf.core.worker.ImmutableCacheMetrics;
+import io.github.cadenceoss.iwf.gen.models.EncodedObject;
+import org.immutables.value.Value;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * An {@link ObjectEncoder} decoding identical payloads of immutable types only once per process.
+ * Decoded values are cached by (encoding type, SHA-256 of the data, type) when the type is annotated with
+ * {@link IwfImmutable} or is one of the configured immutable types; the same instance is then returned to every
+ * caller, so it must never be modified. The cache is bounded by the total size of the encoded data of its entries.
+ * Other types are decoded by the delegate every time.
+ */
+public class MemoizingObjectEncoder implements ObjectEncoder {
+    public static final long DEFAULT_MAX_WEIGHT_BYTES = 64L * 1024 * 1024;
+
+    private final ObjectEncoder delegate;
+    private final Set<Class<?>> immutableTypes;
+    private final Cache<DecodedValueKey, Object> decodedValues;
+
+    private final ClassValue<Boolean> memoizable = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(final Class<?> type) {
+            return type.isAnnotationPresent(IwfImmutable.class) || immutableTypes.contains(type);
+        }
+    };
+
+    public MemoizingObjectEncoder(final ObjectEncoder delegate) {
+        this(delegate, DEFAULT_MAX_WEIGHT_BYTES);
+    }
+
+    /**
+     * @param maxWeightBytes max total size of the encoded data of the cached values
+     * @param immutableTypes types to memoize in addition to the ones annotated with {@link IwfImmutable},
+     *                       e.g. classes from other libraries that can't be annotated
+     */
+    public MemoizingObjectEncoder(final ObjectEncoder delegate, final long maxWeightBytes, final Class<?>... immutableTypes) {
+        this(delegate, maxWeightBytes, Arrays.asList(immutableTypes));
+    }
+
+    public MemoizingObjectEncoder(final ObjectEncoder delegate, final long maxWeightBytes, final Collection<Class<?>> immutableTypes) {
+        this.delegate = delegate;
+        this.immutableTypes = Collections.unmodifiableSet(new HashSet<>(immutableTypes));
+        this.decodedValues = CacheBuilder.newBuilder()
+                .maximumWeight(maxWeightBytes)
+                .<DecodedValueKey, Object>weigher((key, value) -> key.getWeight())
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public String getEncodingType() {
+        return delegate.getEncodingType();
+    }
+
+    @Override
+    public void warmUp(final Collection<Class<?>> types) {
+        delegate.warmUp(types);
+    }
+
+    @Override
+    public EncodedObject encode(final Object object) {
+        return delegate.encode(object);
+    }
+
+    @Override
+    public EncodedBytes encodeToBytes(final Object object) {
+        return delegate.encodeToBytes(object);
+    }
+
+    @Override
+    public <T> T decode(final EncodedObject encodedObject, final Class<T> type) {
+        if (encodedObject == null || encodedObject.getData() == null || encodedObject.getData().isEmpty()
+                || !memoizable.get(type)) {
+            return delegate.decode(encodedObject, type);
+        }
+        final String data = encodedObject.getData();
+        final DecodedValueKey key = ImmutableDecodedValueKey.of(
+                encodedObject.getEncoding(), Hashing.sha256().hashString(data, StandardCharsets.UTF_8), type, data.length());
+        return getOrDecode(key, type, () -> delegate.decode(encodedObject, type));
+    }
+
+    @Override
+    public <T> T decodeFromBytes(final String encoding, final byte[] data, final Class<T> type) {
+        if (data == null || data.length == 0 || !memoizable.get(type)) {
+            return delegate.decodeFromBytes(encoding, data, type);
+        }
+        final DecodedValueKey key = ImmutableDecodedValueKey.of(encoding, Hashing.sha256().hashBytes(data), type, data.length);
+        return getOrDecode(key, type, () -> delegate.decodeFromBytes(encoding, data, type));
+    }
+
+    @Override
+    public <T> T decodeFromStream(final String encoding, final InputStream data, final Class<T> type) {
+        if (!memoizable.get(type)) {
+            return delegate.decodeFromStream(encoding, data, type);
+        }
+        // the whole payload is needed for the hash
+        return ObjectEncoder.super.decodeFromStream(encoding, data, type);
+    }
+
+    private <T> T getOrDecode(final DecodedValueKey key, final Class<T> type, final Supplier<T> decoder) {
+        final Object cached = decodedValues.getIfPresent(key);
+        if (cached != null) {
+            return type.cast(cached);
+        }
+        final T value = decoder.get();
+        if (value != null) {
+            decodedValues.put(key, value);
+        }
+        return value;
+    }
+
+    public ObjectEncoder getDelegate() {
+        return delegate;
+    }
+
+    public CacheMetrics getMetrics() {
+        final CacheStats stats = decodedValues.stats();
+        return ImmutableCacheMetrics.builder()
+                .hitCount(stats.hitCount())
+                .missCount(stats.missCount())
+                .evictionCount(stats.evictionCount())
+                .size(decodedValues.size())
+                .build();
+    }
+
+    @Value.Immutable
+    abstract static class DecodedValueKey {
+
+        @Value.Parameter
+        abstract String getEncoding();
+
+        @Value.Parameter
+        abstract HashCode getContentHash();
+
+        @Value.Parameter
+        abstract Class<?> getType();
+
+        // the size of the encoded data, which only bounds the cache
+        @Value.Parameter
+        @Value.Auxiliary
+        abstract int getWeight();
+    }
+}
@@ -21,6 +21,12 @@ package io.github.cadenceoss.iwf.core;
 
 import io.github.cadenceoss.iwf.gen.models.EncodedObject;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+
 public interface ObjectEncoder {
     /**
      * Each {@link ObjectEncoder} has an Encoding Type that it handles.
@@ -45,4 +51,78 @@ public interface ObjectEncoder {
      * @return decoded Java object
      */
     <T> T decode(EncodedObject encodedObject, Class<T> type);
+
+    /**
+     * Prepare for encoding and decoding the types up front, e.g. resolving their serializers, so that the first
+     * requests don't pay for it. It's called by {@link WorkerService} with all the types of the registered workflows.
+     * Types that can't be prepared should be skipped, so that they fail on their actual use instead.
+     *
+     * @param types Java classes that will be encoded and decoded
+     */
+    default void warmUp(Collection<Class<?>> types) {
+    }
+
+    /**
+     * Encode a Java object into the UTF-8 bytes of the data of the {@link EncodedObject} that {@link #encode(Object)}
+     * returns, along with its encoding type. Encoders can override it to write the bytes directly, without building the
+     * String for large values. Wrapping encoders may return another encoding type than {@link #getEncodingType()}, so
+     * the bytes must be decoded with the returned encoding type.
+     *
+     * @param object Java object to convert
+     * @return encoding type and UTF-8 bytes of the encoded data
+     */
+    default EncodedBytes encodeToBytes(Object object) {
+        final EncodedObject encodedObject = encode(object);
+        if (encodedObject == null || encodedObject.getData() == null) {
+            return null;
+        }
+        return new EncodedBytes(encodedObject.getEncoding(), encodedObject.getData().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode the UTF-8 bytes of the data of an encoded object into a Java object with input type.
+     * Encoders can override it to read the bytes directly, without building the String for large values.
+     *
+     * @param encoding encoding type of the encoded object
+     * @param data     UTF-8 bytes of the data of the encoded object
+     * @param type     Java class to decode into
+     * @param <T>      Java class to decode into
+     * @return decoded Java object
+     */
+    default <T> T decodeFromBytes(String encoding, byte[] data, Class<T> type) {
+        if (data == null) {
+            return null;
+        }
+        return decode(new EncodedObject()
+                        .encoding(encoding)
+                        .data(new String(data, StandardCharsets.UTF_8)),
+                type);
+    }
+
+    /**
+     * Same as {@link #decodeFromBytes(String, byte[], Class)}, decoding the result of {@link #encodeToBytes(Object)}.
+     */
+    default <T> T decodeFromBytes(EncodedBytes encodedBytes, Class<T> type) {
+        if (encodedBytes == null) {
+            return null;
+        }
+        return decodeFromBytes(encodedBytes.getEncoding(), encodedBytes.getData(), type);
+    }
+
+    /**
+     * Same as {@link #decodeFromBytes(String, byte[], Class)}, reading the data from a stream. The caller is responsible for closing the stream.
+     */
+    default <T> T decodeFromStream(String encoding, InputStream data, Class<T> type) {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[8192];
+        try {
+            int read;
+            while ((read = data.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+        } catch (IOException e) {
+            throw new ObjectEncoderException(e);
+        }
+        return decodeFromBytes(encoding, out.toByteArray(), type);
+    }
 }
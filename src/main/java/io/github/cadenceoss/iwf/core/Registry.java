@@ -1,177 +1,175 @@
 package io.github.cadenceoss.iwf.core;
 
-import io.github.cadenceoss.iwf.core.attributes.QueryAttributeDef;
-import io.github.cadenceoss.iwf.core.attributes.SearchAttributeDef;
 import io.github.cadenceoss.iwf.core.attributes.SearchAttributeType;
-import io.github.cadenceoss.iwf.core.command.InterStateChannelDef;
-import io.github.cadenceoss.iwf.core.command.SignalChannelDef;
 
-import java.util.HashMap;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
-
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the registered workflows as an immutable {@link RegistrySnapshot}.
+ * Every change publishes a new snapshot with a new version by an atomic swap, so workflows can be added or updated
+ * while the worker is serving requests: readers never lock, and a request keeps using the snapshot it started with.
+ * The last published snapshots are retained so that a bad deployment can be rolled back with {@link #rollback(long)}.
+ */
 public class Registry {
-    private final Map<String, Workflow> workflowStore = new HashMap<>();
-    // (workflow type, stateId)-> StateDef
-    private final Map<String, StateDef> workflowStateStore = new HashMap<>();
-    private final Map<String, Map<String, Class<?>>> signalTypeStore = new HashMap<>();
-
-    private final Map<String, Map<String, Class<?>>> interstateChannelTypeStore = new HashMap<>();
-    private final Map<String, Map<String, Class<?>>> queryAttributeTypeStore = new HashMap<>();
+    public static final int DEFAULT_MAX_RETAINED_VERSIONS = 10;
 
-    private final Map<String, Map<String, SearchAttributeType>> searchAttributeTypeStore = new HashMap<>();
+    private final AtomicReference<RegistrySnapshot> current = new AtomicReference<>(RegistrySnapshot.EMPTY);
 
-    private static final String DELIMITER = "_";
+    // writes are serialized by synchronized methods, newest first
+    private final Deque<RegistrySnapshot> retained = new ArrayDeque<>();
+    private final int maxRetainedVersions;
+    private long lastVersion;
 
-    public void addWorkflow(final Workflow wf) {
-        registerWorkflow(wf);
-        registerWorkflowState(wf);
-        registerWorkflowSignal(wf);
-        registerWorkflowInterstateChannel(wf);
-        registerWorkflowQueryAttributes(wf);
-        registerWorkflowSearchAttributes(wf);
+    public Registry() {
+        this(DEFAULT_MAX_RETAINED_VERSIONS);
     }
 
-    public static String getWorkflowType(final Workflow wf) {
-        if (wf.getWorkflowType().isEmpty()) {
-            return wf.getClass().getSimpleName();
+    public Registry(final int maxRetainedVersions) {
+        if (maxRetainedVersions < 1) {
+            throw new IllegalArgumentException("maxRetainedVersions must be positive");
         }
-        return wf.getWorkflowType();
+        this.maxRetainedVersions = maxRetainedVersions;
     }
 
-    private void registerWorkflow(final Workflow wf) {
-        String workflowType = getWorkflowType(wf);
-
-        if (workflowStore.containsKey(workflowType)) {
-            throw new WorkflowDefinitionException(String.format("Workflow type %s already exists", workflowType));
-        }
-        workflowStore.put(workflowType, wf);
+    public void addWorkflow(final Workflow wf) {
+        addWorkflows(wf);
     }
 
-    private void registerWorkflowState(final Workflow wf) {
-        String workflowType = getWorkflowType(wf);
-        if(wf.getStates() == null || wf.getStates().size() == 0){
-            throw new WorkflowDefinitionException(String.format("Workflow type %s must contain at least one state", workflowType));
-        }
-        for (StateDef stateDef: wf.getStates()) {
-            String key = getStateDefKey(workflowType, stateDef.getWorkflowState().getStateId());
-            if (workflowStateStore.containsKey(key)) {
-                throw new WorkflowDefinitionException(String.format("Workflow state definition %s already exists", key));
-            } else {
-                workflowStateStore.put(key, stateDef);
+    /**
+     * Adds the workflows in a single new version
+     *
+     * @return the version of the published snapshot
+     * @throws WorkflowDefinitionException if any of the workflow types already exists or is invalid, nothing is published then
+     */
+    public synchronized long addWorkflows(final Workflow... workflows) {
+        final RegistrySnapshot snapshot = current.get();
+        for (Workflow wf : workflows) {
+            final String workflowType = getWorkflowType(wf);
+            if (snapshot.getWorkflowTypeRecord(workflowType) != null) {
+                throw new WorkflowDefinitionException(String.format("Workflow type %s already exists", workflowType));
             }
         }
+        return publish(Arrays.asList(workflows));
     }
 
-    private void registerWorkflowSignal(final Workflow wf) {
-        String workflowType = getWorkflowType(wf);
-        if (wf.getSignalChannels() == null || wf.getSignalChannels().isEmpty()) {
-            signalTypeStore.put(workflowType, new HashMap<>());
-            return;
-        }
-
-        for (SignalChannelDef signalChannelDef : wf.getSignalChannels()) {
-            Map<String, Class<?>> signalNameToTypeMap =
-                    signalTypeStore.computeIfAbsent(workflowType, s -> new HashMap<>());
-            if (signalNameToTypeMap.containsKey(signalChannelDef.getSignalChannelName())) {
-                throw new WorkflowDefinitionException(
-                        String.format("Signal channel name  %s already exists", signalChannelDef.getSignalChannelName()));
+    /**
+     * Adds the new workflow types and replaces the definitions of the existing ones, in a single new version.
+     * Workflow executions that are running will use the new definitions for their following states.
+     *
+     * @return the version of the published snapshot
+     * @throws WorkflowDefinitionException if any of the workflows is invalid, nothing is published then
+     */
+    public synchronized long publish(final Collection<? extends Workflow> workflows) {
+        final RegistrySnapshot snapshot = current.get();
+        final List<WorkflowTypeRecord> records = new ArrayList<>(snapshot.getWorkflowTypeRecords());
+        final Set<String> published = new HashSet<>();
+        for (Workflow wf : workflows) {
+            final String workflowType = getWorkflowType(wf);
+            if (!published.add(workflowType)) {
+                throw new WorkflowDefinitionException(String.format("Workflow type %s already exists", workflowType));
+            }
+            final WorkflowTypeRecord existing = snapshot.getWorkflowTypeRecord(workflowType);
+            if (existing == null) {
+                records.add(new WorkflowTypeRecord(records.size(), wf));
+            } else {
+                // keep the index so that the workflow type has the same index across versions
+                records.set(existing.getIndex(), new WorkflowTypeRecord(existing.getIndex(), wf));
             }
-            signalNameToTypeMap.put(signalChannelDef.getSignalChannelName(), signalChannelDef.getSignalValueType());
         }
+        return swap(new RegistrySnapshot(++lastVersion, records));
     }
 
-    private void registerWorkflowInterstateChannel(final Workflow wf) {
-        String workflowType = getWorkflowType(wf);
-        if (wf.getInterStateChannels() == null || wf.getInterStateChannels().isEmpty()) {
-            interstateChannelTypeStore.put(workflowType, new HashMap<>());
-            return;
-        }
-
-        for (InterStateChannelDef interstateChannelDef : wf.getInterStateChannels()) {
-            Map<String, Class<?>> nameToTypeMap =
-                    interstateChannelTypeStore.computeIfAbsent(workflowType, s -> new HashMap<>());
-            if (nameToTypeMap.containsKey(interstateChannelDef.getChannelName())) {
-                throw new WorkflowDefinitionException(
-                        String.format("InterStateChannel name  %s already exists", interstateChannelDef.getChannelName()));
+    /**
+     * Makes a retained snapshot the current one again. The rolled back versions remain retained and can be restored
+     * by another rollback, until they are evicted by newer versions.
+     *
+     * @throws IllegalArgumentException if the version is not retained
+     */
+    public synchronized void rollback(final long version) {
+        for (RegistrySnapshot snapshot : retained) {
+            if (snapshot.getVersion() == version) {
+                current.set(snapshot);
+                return;
             }
-            nameToTypeMap.put(interstateChannelDef.getChannelName(), interstateChannelDef.getValueType());
         }
+        throw new IllegalArgumentException(String.format("Registry version %d is not retained, retained versions: %s", version, getRetainedVersions()));
     }
 
-    private void registerWorkflowQueryAttributes(final Workflow wf) {
-        String workflowType = getWorkflowType(wf);
-        if (wf.getQueryAttributes() == null || wf.getQueryAttributes().isEmpty()) {
-            queryAttributeTypeStore.put(workflowType, new HashMap<>());
-            return;
+    /**
+     * @return the retained versions that can be rolled back to, newest first
+     */
+    public synchronized List<Long> getRetainedVersions() {
+        final List<Long> versions = new ArrayList<>(retained.size());
+        for (RegistrySnapshot snapshot : retained) {
+            versions.add(snapshot.getVersion());
         }
+        return versions;
+    }
 
-        for (QueryAttributeDef queryAttributeDef : wf.getQueryAttributes()) {
-            Map<String, Class<?>> queryAttributeKeyToTypeMap =
-                    queryAttributeTypeStore.computeIfAbsent(workflowType, s -> new HashMap<>());
-            if (queryAttributeKeyToTypeMap.containsKey(queryAttributeDef.getQueryAttributeKey())) {
-                throw new WorkflowDefinitionException(
-                        String.format(
-                                "Query attribute key %s already exists",
-                                queryAttributeDef.getQueryAttributeKey())
-                );
-            }
-            queryAttributeKeyToTypeMap.put(
-                    queryAttributeDef.getQueryAttributeKey(),
-                    queryAttributeDef.getQueryAttributeType()
-            );
+    private long swap(final RegistrySnapshot snapshot) {
+        retained.addFirst(snapshot);
+        while (retained.size() > maxRetainedVersions) {
+            retained.removeLast();
         }
+        current.set(snapshot);
+        return snapshot.getVersion();
     }
 
-    private void registerWorkflowSearchAttributes(final Workflow wf) {
-        String workflowType = getWorkflowType(wf);
-        if (wf.getSearchAttributes() == null || wf.getSearchAttributes().isEmpty()) {
-            searchAttributeTypeStore.put(workflowType, new HashMap<>());
-            return;
+    public static String getWorkflowType(final Workflow wf) {
+        if (wf.getWorkflowType().isEmpty()) {
+            return wf.getClass().getSimpleName();
         }
+        return wf.getWorkflowType();
+    }
 
-        for (SearchAttributeDef searchAttributeDef : wf.getSearchAttributes()) {
-            Map<String, SearchAttributeType> searchAttributeKeyToTypeMap =
-                    searchAttributeTypeStore.computeIfAbsent(workflowType, s -> new HashMap<>());
+    /**
+     * @return the current snapshot of the registered workflows. It's immutable, so a request should get it once
+     * and use it for all the lookups to have a consistent view even when a new version is published meanwhile.
+     */
+    public RegistrySnapshot getSnapshot() {
+        return current.get();
+    }
 
-            if (searchAttributeKeyToTypeMap.containsKey(searchAttributeDef.getSearchAttributeKey())) {
-                throw new WorkflowDefinitionException(
-                        String.format(
-                                "Search attribute key %s already exists",
-                                searchAttributeDef.getSearchAttributeKey())
-                );
-            }
-            searchAttributeKeyToTypeMap.put(
-                    searchAttributeDef.getSearchAttributeKey(),
-                    searchAttributeDef.getSearchAttributeType()
-            );
-        }
+    public long getVersion() {
+        return current.get().getVersion();
     }
 
     public Workflow getWorkflow(final String workflowType) {
-        return workflowStore.get(workflowType);
+        final WorkflowTypeRecord record = current.get().getWorkflowTypeRecord(workflowType);
+        return record == null ? null : record.getWorkflow();
     }
 
     public StateDef getWorkflowState(final String workflowType, final String stateId) {
-        return workflowStateStore.get(getStateDefKey(workflowType, stateId));
+        final WorkflowTypeRecord record = current.get().getWorkflowTypeRecord(workflowType);
+        return record == null ? null : record.getState(stateId);
     }
 
     public Map<String, Class<?>> getSignalChannelNameToSignalTypeMap(final String workflowType) {
-        return signalTypeStore.get(workflowType);
+        final WorkflowTypeRecord record = current.get().getWorkflowTypeRecord(workflowType);
+        return record == null ? null : record.getSignalChannelNameToSignalTypeMap();
     }
 
     public Map<String, Class<?>> getInterStateChannelNameToTypeMap(final String workflowType) {
-        return interstateChannelTypeStore.get(workflowType);
+        final WorkflowTypeRecord record = current.get().getWorkflowTypeRecord(workflowType);
+        return record == null ? null : record.getInterStateChannelNameToTypeMap();
     }
 
     public Map<String, Class<?>> getQueryAttributeKeyToTypeMap(final String workflowType) {
-        return queryAttributeTypeStore.get(workflowType);
+        final WorkflowTypeRecord record = current.get().getWorkflowTypeRecord(workflowType);
+        return record == null ? null : record.getQueryAttributeKeyToTypeMap();
     }
 
     public Map<String, SearchAttributeType> getSearchAttributeKeyToTypeMap(final String workflowType) {
-        return searchAttributeTypeStore.get(workflowType);
-    }
-
-    private String getStateDefKey(final String workflowType, final String stateId) {
-        return workflowType + DELIMITER + stateId;
+        final WorkflowTypeRecord record = current.get().getWorkflowTypeRecord(workflowType);
+        return record == null ? null : record.getSearchAttributeKeyToTypeMap();
     }
 }
@@ -0,0 +1,87 @@
+package io.github.cadenceoss.iwf.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A frozen, read-optimized view of the registered workflows.
+ * Workflow types are interned to dense indices, and all the metadata of a workflow type is fetched by a single lookup
+ * of its {@link WorkflowTypeRecord}.
+ * Each snapshot published by {@link Registry} has a unique version, which can be used to roll back to it.
+ */
+public final class RegistrySnapshot {
+    public static final RegistrySnapshot EMPTY = new RegistrySnapshot(0, Collections.emptyList());
+
+    private final long version;
+    private final WorkflowTypeRecord[] records;
+    private final Map<String, WorkflowTypeRecord> recordsByType;
+
+    // records must be ordered by their indices
+    RegistrySnapshot(final long version, final List<WorkflowTypeRecord> records) {
+        this.version = version;
+        this.records = records.toArray(new WorkflowTypeRecord[0]);
+        this.recordsByType = new HashMap<>(records.size() * 2);
+        for (int i = 0; i < this.records.length; i++) {
+            if (this.records[i].getIndex() != i) {
+                throw new IllegalArgumentException("workflow type record index must be dense, expected " + i + " but was " + this.records[i].getIndex());
+            }
+            recordsByType.put(this.records[i].getWorkflowType(), this.records[i]);
+        }
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return the record of the workflow type, or null if it's not registered
+     */
+    public WorkflowTypeRecord getWorkflowTypeRecord(final String workflowType) {
+        return recordsByType.get(workflowType);
+    }
+
+    public WorkflowTypeRecord getWorkflowTypeRecord(final int index) {
+        return records[index];
+    }
+
+    /**
+     * @return the dense index of the workflow type in [0, size()), or {@link WorkflowTypeRecord#NOT_FOUND}
+     */
+    public int getWorkflowTypeIndex(final String workflowType) {
+        final WorkflowTypeRecord record = recordsByType.get(workflowType);
+        return record == null ? WorkflowTypeRecord.NOT_FOUND : record.getIndex();
+    }
+
+    public int size() {
+        return records.length;
+    }
+
+    List<WorkflowTypeRecord> getWorkflowTypeRecords() {
+        return Arrays.asList(records);
+    }
+
+    /**
+     * @return all the Java classes encoded by {@link ObjectEncoder} for the registered workflow types
+     */
+    public Set<Class<?>> getDataTypes() {
+        final Set<Class<?>> dataTypes = new LinkedHashSet<>();
+        for (WorkflowTypeRecord record : records) {
+            dataTypes.addAll(record.getDataTypes());
+        }
+        return dataTypes;
+    }
+
+    public List<String> getWorkflowTypes() {
+        final List<String> workflowTypes = new ArrayList<>(records.length);
+        for (WorkflowTypeRecord record : records) {
+            workflowTypes.add(record.getWorkflowType());
+        }
+        return workflowTypes;
+    }
+}
@@ -0,0 +1,141 @@
+package io.github.cadenceoss.iwf.core;
+
+import io.github.cadenceoss.iwf.gen.models.EncodedObject;
+
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An {@link ObjectEncoder} to migrate between encodings without breaking running workflows.
+ * It encodes with the primary encoder, and decodes with any of the registered encoders by the encoding type of the
+ * {@link EncodedObject}. So the values encoded by the previous encoder can still be decoded after switching the primary.
+ * The usage of each encoder is counted, to find out when an old encoding is no longer in use.
+ */
+public class RoutingObjectEncoder implements ObjectEncoder {
+    private final ObjectEncoder primary;
+
+    // encoding type -> encoder, including the primary
+    private final Map<String, ObjectEncoder> encoders;
+
+    private final Map<String, Usage> usages;
+
+    public RoutingObjectEncoder(final ObjectEncoder primary, final ObjectEncoder... decodeOnlyEncoders) {
+        this(primary, Arrays.asList(decodeOnlyEncoders));
+    }
+
+    public RoutingObjectEncoder(final ObjectEncoder primary, final Collection<? extends ObjectEncoder> decodeOnlyEncoders) {
+        this.primary = primary;
+        final Map<String, ObjectEncoder> encoders = new LinkedHashMap<>();
+        encoders.put(primary.getEncodingType(), primary);
+        for (ObjectEncoder encoder : decodeOnlyEncoders) {
+            if (encoders.containsKey(encoder.getEncodingType())) {
+                throw new IllegalArgumentException("Encoding type " + encoder.getEncodingType() + " is registered more than once");
+            }
+            encoders.put(encoder.getEncodingType(), encoder);
+        }
+        this.encoders = Collections.unmodifiableMap(encoders);
+        final Map<String, Usage> usages = new LinkedHashMap<>();
+        for (String encodingType : encoders.keySet()) {
+            usages.put(encodingType, new Usage());
+        }
+        this.usages = Collections.unmodifiableMap(usages);
+    }
+
+    @Override
+    public String getEncodingType() {
+        return primary.getEncodingType();
+    }
+
+    @Override
+    public void warmUp(final Collection<Class<?>> types) {
+        for (ObjectEncoder encoder : encoders.values()) {
+            encoder.warmUp(types);
+        }
+    }
+
+    @Override
+    public EncodedObject encode(final Object object) {
+        final EncodedObject encodedObject = primary.encode(object);
+        if (encodedObject != null) {
+            usages.get(primary.getEncodingType()).encodes.increment();
+        }
+        return encodedObject;
+    }
+
+    @Override
+    public EncodedBytes encodeToBytes(final Object object) {
+        final EncodedBytes encodedBytes = primary.encodeToBytes(object);
+        if (encodedBytes != null) {
+            usages.get(primary.getEncodingType()).encodes.increment();
+        }
+        return encodedBytes;
+    }
+
+    @Override
+    public <T> T decode(final EncodedObject encodedObject, final Class<T> type) {
+        if (encodedObject == null) {
+            return null;
+        }
+        return route(encodedObject.getEncoding()).decode(encodedObject, type);
+    }
+
+    @Override
+    public <T> T decodeFromBytes(final String encoding, final byte[] data, final Class<T> type) {
+        if (data == null) {
+            return null;
+        }
+        return route(encoding).decodeFromBytes(encoding, data, type);
+    }
+
+    @Override
+    public <T> T decodeFromStream(final String encoding, final InputStream data, final Class<T> type) {
+        return route(encoding).decodeFromStream(encoding, data, type);
+    }
+
+    private ObjectEncoder route(final String encoding) {
+        final ObjectEncoder encoder = encoders.get(encoding);
+        if (encoder == null) {
+            throw new ObjectEncoderException(String.format("not supported encoding type %s, supported encoding types are %s",
+                    encoding, encoders.keySet()));
+        }
+        usages.get(encoder.getEncodingType()).decodes.increment();
+        return encoder;
+    }
+
+    public ObjectEncoder getPrimary() {
+        return primary;
+    }
+
+    /**
+     * @return all the registered encoders by encoding type, including the primary
+     */
+    public Map<String, ObjectEncoder> getEncoders() {
+        return encoders;
+    }
+
+    /**
+     * @return the number of values encoded with the encoding type since this encoder was created
+     */
+    public long getEncodeCount(final String encodingType) {
+        final Usage usage = usages.get(encodingType);
+        return usage == null ? 0 : usage.encodes.sum();
+    }
+
+    /**
+     * @return the number of values decoded with the encoding type since this encoder was created
+     */
+    public long getDecodeCount(final String encodingType) {
+        final Usage usage = usages.get(encodingType);
+        return usage == null ? 0 : usage.decodes.sum();
+    }
+
+    private static class Usage {
+        private final LongAdder encodes = new LongAdder();
+        private final LongAdder decodes = new LongAdder();
+    }
+}
@@ -16,6 +16,15 @@ public abstract class StateMovement {
     private final static String FORCE_FAILING_WORKFLOW_STATE_ID = "_SYS_FORCE_FAILING_WORKFLOW";
     public static final StateMovement FORCE_FAILING_WORKFLOW_MOVEMENT = ImmutableStateMovement.builder().stateId(FORCE_FAILING_WORKFLOW_STATE_ID).build();
 
+    /**
+     * @return true if this movement completes or fails the workflow instead of moving to a state
+     */
+    public boolean isClosingWorkflow() {
+        return GRACEFUL_COMPLETING_WORKFLOW_STATE_ID.equals(getStateId())
+                || FORCE_COMPLETING_WORKFLOW_STATE_ID.equals(getStateId())
+                || FORCE_FAILING_WORKFLOW_STATE_ID.equals(getStateId());
+    }
+
     public static StateMovement gracefulCompleteWorkflow(final Object output) {
         return ImmutableStateMovement.builder().stateId(GRACEFUL_COMPLETING_WORKFLOW_STATE_ID)
                 .nextStateInput(output)
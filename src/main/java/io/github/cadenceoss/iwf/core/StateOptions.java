@@ -7,6 +7,8 @@ import io.github.cadenceoss.iwf.core.command.CommandCarryOverType;
 import io.github.cadenceoss.iwf.core.command.CommandRequest;
 import org.immutables.value.Value;
 
+import java.util.Optional;
+
 @Value.Immutable
 public abstract class StateOptions {
 
@@ -28,4 +30,21 @@ public abstract class StateOptions {
      * default to true
      */
     public abstract AttributeLoadingPolicy getSearchAttributesLoadingPolicy();
+
+    /**
+     * the priority of executing start/decide of this state when the worker enables scheduling in {@link WorkerOptions}.
+     * Higher value runs first. Default to the priority of the workflow type in the scheduler options
+     */
+    public abstract Optional<Integer> getExecutionPriority();
+
+    /**
+     * whether this state can be executed by the worker right after the decide of the previous state, in the same request,
+     * when local chaining is enabled in {@link WorkerOptions} and the previous state moves to this state only.
+     * The start of the state must return {@link CommandRequest#empty}, and the state locals are only kept from start to
+     * decide of the state, as they are not returned to the server. Default to false
+     */
+    @Value.Default
+    public boolean getLocalChainingEnabled() {
+        return false;
+    }
 }
@@ -1,12 +1,79 @@
 package io.github.cadenceoss.iwf.core;
 
+import io.github.cadenceoss.iwf.core.worker.AdmissionControlOptions;
+import io.github.cadenceoss.iwf.core.worker.IdempotencyCacheOptions;
+import io.github.cadenceoss.iwf.core.worker.LocalActivityExecutor;
+import io.github.cadenceoss.iwf.core.worker.LocalChainingOptions;
+import io.github.cadenceoss.iwf.core.worker.RecordEventOptions;
+import io.github.cadenceoss.iwf.core.worker.SchedulerOptions;
+import io.github.cadenceoss.iwf.core.worker.StateInputCacheOptions;
+import io.github.cadenceoss.iwf.core.worker.WorkflowAttributeCacheOptions;
 import org.immutables.value.Value;
 
+import java.util.Optional;
+
 @Value.Immutable
 public abstract class WorkerOptions {
 
     public abstract ObjectEncoder getObjectEncoder();
 
+    /**
+     * enable admission control(bulkheads per workflow type/state, load shedding) for {@link WorkerService}
+     * default to empty which means every request is executed right away
+     */
+    public abstract Optional<AdmissionControlOptions> getAdmissionControlOptions();
+
+    /**
+     * enable priority and deadline aware scheduling of state executions in {@link WorkerService}
+     * default to empty which means every admitted request is executed right away
+     */
+    public abstract Optional<SchedulerOptions> getSchedulerOptions();
+
+    /**
+     * enable caching the responses of start/decide by stateExecutionId so that retried requests are not executed again
+     * default to empty which means every request executes the state API
+     */
+    public abstract Optional<IdempotencyCacheOptions> getIdempotencyCacheOptions();
+
+    /**
+     * enable reusing the state input decoded in start for decide of the same state execution
+     * default to empty which means the state input is decoded in both start and decide
+     */
+    public abstract Optional<StateInputCacheOptions> getStateInputCacheOptions();
+
+    /**
+     * enable reusing decoded query attributes and state locals across the states of the same workflow execution
+     * default to empty which means attributes are decoded from scratch in every request
+     */
+    public abstract Optional<WorkflowAttributeCacheOptions> getWorkflowAttributeCacheOptions();
+
+    /**
+     * enable executing the states that opt in with {@link StateOptions#getLocalChainingEnabled()} in the same request
+     * as the decide of the previous state
+     * default to empty which means every state is executed by a request from the server
+     */
+    public abstract Optional<LocalChainingOptions> getLocalChainingOptions();
+
+    /**
+     * the executor that the states use to schedule local activities, so that the activities are only started after
+     * the state API returns successfully
+     * default to empty which means no state schedules local activities
+     */
+    public abstract Optional<LocalActivityExecutor> getLocalActivityExecutor();
+
+    /**
+     * the sampling and size limits of the events recorded by StateLocal#recordEvent, per workflow type
+     * default to empty which means every event is recorded as it is
+     */
+    public abstract Optional<RecordEventOptions> getRecordEventOptions();
+
+    /**
+     * the start/decide API timeout of iwf-server, which sets the deadline of the requests passed to {@link WorkerService}
+     * without one, counting from the time they arrive, as iwf-server doesn't send the deadline
+     * default to empty which means these requests have no deadline, see {@link Context#getRequestDeadlineEpochMillis()}
+     */
+    public abstract Optional<Long> getStateApiTimeoutMillis();
+
     // use this when running with docker-compose of iWF server
     public static final WorkerOptions defaultOptions = minimum(new JacksonJsonObjectEncoder());
 
@@ -0,0 +1,17 @@
+package io.github.cadenceoss.iwf.core;
+
+// This indicates the worker rejected a request to protect itself. It's safe for the iwf-server to retry the request
+// after getRetryAfterMillis, so the HTTP layer should turn it into a retryable response(e.g. 503 with Retry-After)
+public class WorkerOverloadedException extends RuntimeException {
+
+    private final long retryAfterMillis;
+
+    public WorkerOverloadedException(final String message, final long retryAfterMillis) {
+        super(message);
+        this.retryAfterMillis = retryAfterMillis;
+    }
+
+    public long getRetryAfterMillis() {
+        return retryAfterMillis;
+    }
+}
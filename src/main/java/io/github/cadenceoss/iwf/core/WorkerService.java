@@ -1,14 +1,31 @@
 package io.github.cadenceoss.iwf.core;
 
 import io.github.cadenceoss.iwf.core.attributes.QueryAttributesRWImpl;
+import io.github.cadenceoss.iwf.core.attributes.RecordEventEncoder;
 import io.github.cadenceoss.iwf.core.attributes.SearchAttributeRWImpl;
 import io.github.cadenceoss.iwf.core.attributes.StateLocalImpl;
+import io.github.cadenceoss.iwf.core.command.BaseCommand;
 import io.github.cadenceoss.iwf.core.command.CommandRequest;
+import io.github.cadenceoss.iwf.core.command.CommandResults;
+import io.github.cadenceoss.iwf.core.command.ImmutableCommandResults;
 import io.github.cadenceoss.iwf.core.command.InterStateChannelCommand;
 import io.github.cadenceoss.iwf.core.command.InterStateChannelImpl;
 import io.github.cadenceoss.iwf.core.mapper.CommandRequestMapper;
 import io.github.cadenceoss.iwf.core.mapper.CommandResultsMapper;
 import io.github.cadenceoss.iwf.core.mapper.StateDecisionMapper;
+import io.github.cadenceoss.iwf.core.worker.AdmissionControlMetrics;
+import io.github.cadenceoss.iwf.core.worker.AdmissionController;
+import io.github.cadenceoss.iwf.core.worker.CacheMetrics;
+import io.github.cadenceoss.iwf.core.worker.IdempotencyCache;
+import io.github.cadenceoss.iwf.core.worker.LocalActivityExecutor;
+import io.github.cadenceoss.iwf.core.worker.LocalChainingOptions;
+import io.github.cadenceoss.iwf.core.worker.RecordEventLimiter;
+import io.github.cadenceoss.iwf.core.worker.RecordEventMetrics;
+import io.github.cadenceoss.iwf.core.worker.RequestSizes;
+import io.github.cadenceoss.iwf.core.worker.SchedulerOptions;
+import io.github.cadenceoss.iwf.core.worker.StateExecutionScheduler;
+import io.github.cadenceoss.iwf.core.worker.StateInputCache;
+import io.github.cadenceoss.iwf.core.worker.WorkflowAttributeCache;
 import io.github.cadenceoss.iwf.gen.models.EncodedObject;
 import io.github.cadenceoss.iwf.gen.models.InterStateChannelPublishing;
 import io.github.cadenceoss.iwf.gen.models.KeyValue;
@@ -19,38 +36,239 @@ import io.github.cadenceoss.iwf.gen.models.WorkflowStateStartRequest;
 import io.github.cadenceoss.iwf.gen.models.WorkflowStateStartResponse;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Optional;
+import java.util.function.LongSupplier;
 
 public class WorkerService {
     private final Registry registry;
 
     private final WorkerOptions workerOptions;
 
+    private final AdmissionController admissionController;
+
+    private final StateExecutionScheduler scheduler;
+
+    private final IdempotencyCache idempotencyCache;
+
+    private final StateInputCache stateInputCache;
+
+    private final WorkflowAttributeCache workflowAttributeCache;
+
+    private final LocalChainingOptions localChainingOptions;
+
+    private final LocalActivityExecutor localActivityExecutor;
+
+    private final RecordEventLimiter recordEventLimiter;
+
+    // the command results of the states executed by local chaining, as they don't request any command
+    private static final CommandResults NO_COMMAND_RESULTS = ImmutableCommandResults.builder().build();
+
+    // indicates the caller doesn't know the deadline of the request
+    public static final long NO_DEADLINE = 0;
+
     public WorkerService(Registry registry, WorkerOptions workerOptions) {
         this.registry = registry;
         this.workerOptions = workerOptions;
+        this.admissionController = workerOptions.getAdmissionControlOptions()
+                .map(AdmissionController::new)
+                .orElse(null);
+        this.scheduler = workerOptions.getSchedulerOptions()
+                .map(StateExecutionScheduler::new)
+                .orElse(null);
+        this.idempotencyCache = workerOptions.getIdempotencyCacheOptions()
+                .map(IdempotencyCache::new)
+                .orElse(null);
+        this.stateInputCache = workerOptions.getStateInputCacheOptions()
+                .map(StateInputCache::new)
+                .orElse(null);
+        this.workflowAttributeCache = workerOptions.getWorkflowAttributeCacheOptions()
+                .map(WorkflowAttributeCache::new)
+                .orElse(null);
+        this.localChainingOptions = workerOptions.getLocalChainingOptions().orElse(null);
+        this.localActivityExecutor = workerOptions.getLocalActivityExecutor().orElse(null);
+        this.recordEventLimiter = workerOptions.getRecordEventOptions()
+                .map(RecordEventLimiter::new)
+                .orElse(null);
+        // workflows published to the registry later are prepared on their first use
+        workerOptions.getObjectEncoder().warmUp(registry.getSnapshot().getDataTypes());
     }
 
     public WorkflowStateStartResponse handleWorkflowStateStart(final WorkflowStateStartRequest req) {
-        StateDef state = registry.getWorkflowState(req.getWorkflowType(), req.getWorkflowStateId());
+        return handleWorkflowStateStart(req, NO_DEADLINE);
+    }
+
+    /**
+     * @param requestDeadlineEpochMillis the time after which iwf-server stops waiting for the response, or {@link #NO_DEADLINE}
+     *                                   to count {@link WorkerOptions#getStateApiTimeoutMillis()} from now
+     * @throws WorkerOverloadedException if admission control or scheduling is enabled and the request is rejected
+     */
+    public WorkflowStateStartResponse handleWorkflowStateStart(final WorkflowStateStartRequest req, final long requestDeadlineEpochMillis) {
+        final long deadlineEpochMillis = getDeadline(requestDeadlineEpochMillis);
+        if (idempotencyCache == null) {
+            return admitAndHandleWorkflowStateStart(req, deadlineEpochMillis);
+        }
+        return idempotencyCache.getOrExecute(
+                req.getContext().getWorkflowId(),
+                req.getContext().getWorkflowRunId(),
+                req.getContext().getStateExecutionId(),
+                IdempotencyCache.Phase.START,
+                () -> admitAndHandleWorkflowStateStart(req, deadlineEpochMillis));
+    }
+
+    private WorkflowStateStartResponse admitAndHandleWorkflowStateStart(final WorkflowStateStartRequest req, final long deadlineEpochMillis) {
+        final WorkflowTypeRecord workflow = getWorkflowTypeRecord(req.getWorkflowType());
+        final StateDef state = getState(workflow, req.getWorkflowStateId());
+        try (AdmissionController.Permit ignored = admit(req.getWorkflowType(), req.getWorkflowStateId(), () -> RequestSizes.estimate(req));
+             StateExecutionScheduler.Slot ignored2 = schedule(workflow, state, deadlineEpochMillis)) {
+            if (localActivityExecutor == null) {
+                return doHandleWorkflowStateStart(req, workflow, state, deadlineEpochMillis);
+            }
+            return localActivityExecutor.executeStateApi(() -> doHandleWorkflowStateStart(req, workflow, state, deadlineEpochMillis));
+        }
+    }
+
+    public WorkflowStateDecideResponse handleWorkflowStateDecide(final WorkflowStateDecideRequest req) {
+        return handleWorkflowStateDecide(req, NO_DEADLINE);
+    }
+
+    /**
+     * @param requestDeadlineEpochMillis the time after which iwf-server stops waiting for the response, or {@link #NO_DEADLINE}
+     *                                   to count {@link WorkerOptions#getStateApiTimeoutMillis()} from now
+     * @throws WorkerOverloadedException if admission control or scheduling is enabled and the request is rejected
+     */
+    public WorkflowStateDecideResponse handleWorkflowStateDecide(final WorkflowStateDecideRequest req, final long requestDeadlineEpochMillis) {
+        final long deadlineEpochMillis = getDeadline(requestDeadlineEpochMillis);
+        if (idempotencyCache == null) {
+            return admitAndHandleWorkflowStateDecide(req, deadlineEpochMillis);
+        }
+        return idempotencyCache.getOrExecute(
+                req.getContext().getWorkflowId(),
+                req.getContext().getWorkflowRunId(),
+                req.getContext().getStateExecutionId(),
+                IdempotencyCache.Phase.DECIDE,
+                () -> admitAndHandleWorkflowStateDecide(req, deadlineEpochMillis));
+    }
+
+    private WorkflowStateDecideResponse admitAndHandleWorkflowStateDecide(final WorkflowStateDecideRequest req, final long deadlineEpochMillis) {
+        final WorkflowTypeRecord workflow = getWorkflowTypeRecord(req.getWorkflowType());
+        final StateDef state = getState(workflow, req.getWorkflowStateId());
+        try (AdmissionController.Permit ignored = admit(req.getWorkflowType(), req.getWorkflowStateId(), () -> RequestSizes.estimate(req));
+             StateExecutionScheduler.Slot ignored2 = schedule(workflow, state, deadlineEpochMillis)) {
+            if (localActivityExecutor == null) {
+                return doHandleWorkflowStateDecide(req, workflow, state, deadlineEpochMillis);
+            }
+            return localActivityExecutor.executeStateApi(() -> doHandleWorkflowStateDecide(req, workflow, state, deadlineEpochMillis));
+        }
+    }
+
+    // counts the configured state API timeout from the arrival of the request when the caller doesn't know the deadline
+    private long getDeadline(final long requestDeadlineEpochMillis) {
+        if (requestDeadlineEpochMillis != NO_DEADLINE || !workerOptions.getStateApiTimeoutMillis().isPresent()) {
+            return requestDeadlineEpochMillis;
+        }
+        return System.currentTimeMillis() + workerOptions.getStateApiTimeoutMillis().get();
+    }
+
+    private WorkflowTypeRecord getWorkflowTypeRecord(final String workflowType) {
+        final WorkflowTypeRecord workflow = registry.getSnapshot().getWorkflowTypeRecord(workflowType);
+        if (workflow == null) {
+            throw new WorkflowDefinitionException(String.format("Workflow type %s is not registered", workflowType));
+        }
+        return workflow;
+    }
+
+    private StateDef getState(final WorkflowTypeRecord workflow, final String stateId) {
+        final StateDef state = workflow.getState(stateId);
+        if (state == null) {
+            throw new WorkflowDefinitionException(String.format("Workflow state %s is not registered in workflow type %s", stateId, workflow.getWorkflowType()));
+        }
+        return state;
+    }
+
+    /**
+     * @return the metrics of the bulkheads, or empty if admission control is not enabled in {@link WorkerOptions}
+     */
+    public Optional<AdmissionControlMetrics> getAdmissionControlMetrics() {
+        return Optional.ofNullable(admissionController).map(AdmissionController::getMetrics);
+    }
+
+    /**
+     * @return the metrics of the idempotency cache, or empty if it's not enabled in {@link WorkerOptions}
+     */
+    public Optional<CacheMetrics> getIdempotencyCacheMetrics() {
+        return Optional.ofNullable(idempotencyCache).map(IdempotencyCache::getMetrics);
+    }
+
+    /**
+     * @return the metrics of the state input cache, or empty if it's not enabled in {@link WorkerOptions}
+     */
+    public Optional<CacheMetrics> getStateInputCacheMetrics() {
+        return Optional.ofNullable(stateInputCache).map(StateInputCache::getMetrics);
+    }
+
+    /**
+     * @return the metrics of the workflow attribute cache, or empty if it's not enabled in {@link WorkerOptions}
+     */
+    public Optional<CacheMetrics> getWorkflowAttributeCacheMetrics() {
+        return Optional.ofNullable(workflowAttributeCache).map(WorkflowAttributeCache::getMetrics);
+    }
+
+    /**
+     * @return the counters of the recorded and dropped events, or empty if record event options are not set in {@link WorkerOptions}
+     */
+    public Optional<RecordEventMetrics> getRecordEventMetrics() {
+        return Optional.ofNullable(recordEventLimiter).map(RecordEventLimiter::getMetrics);
+    }
+
+    // returning null will skip admission control in try-with-resources
+    private AdmissionController.Permit admit(final String workflowType, final String stateId, final LongSupplier requestSize) {
+        if (admissionController == null) {
+            return null;
+        }
+        return admissionController.admit(workflowType, stateId, requestSize.getAsLong());
+    }
+
+    // returning null will skip scheduling in try-with-resources
+    private StateExecutionScheduler.Slot schedule(final WorkflowTypeRecord workflow, final StateDef state, final long deadlineEpochMillis) {
+        if (scheduler == null) {
+            return null;
+        }
+        final long deadline = deadlineEpochMillis == NO_DEADLINE ?
+                System.currentTimeMillis() + workerOptions.getSchedulerOptions().get().getDefaultRequestDeadlineMillis() :
+                deadlineEpochMillis;
+        return scheduler.acquire(getExecutionPriority(workflow, state), deadline);
+    }
+
+    private int getExecutionPriority(final WorkflowTypeRecord workflow, final StateDef state) {
+        final SchedulerOptions schedulerOptions = workerOptions.getSchedulerOptions().get();
+        final int workflowTypePriority = schedulerOptions.getWorkflowTypePriorities()
+                .getOrDefault(workflow.getWorkflowType(), schedulerOptions.getDefaultPriority());
+        return workflow.getStateOptions(state.getWorkflowState().getStateId()).getExecutionPriority().orElse(workflowTypePriority);
+    }
+
+    private WorkflowStateStartResponse doHandleWorkflowStateStart(
+            final WorkflowStateStartRequest req, final WorkflowTypeRecord workflow, final StateDef state,
+            final long deadlineEpochMillis) {
         final EncodedObject stateInput = req.getStateInput();
-        final Object input = workerOptions.getObjectEncoder().decode(stateInput, state.getWorkflowState().getInputType());
+        final Class<?> inputType = state.getWorkflowState().getInputType();
+        final Object input = stateInputCache == null ?
+                workerOptions.getObjectEncoder().decode(stateInput, inputType) :
+                stateInputCache.decodeForStart(req.getContext().getWorkflowId(), req.getContext().getWorkflowRunId(),
+                        req.getContext().getStateExecutionId(), stateInput, inputType,
+                        () -> workerOptions.getObjectEncoder().decode(stateInput, inputType));
         final QueryAttributesRWImpl queryAttributesRW =
-                createQueryAttributesRW(req.getWorkflowType(), req.getQueryAttributes());
-        final Context context = ImmutableContext.builder()
-                .workflowId(req.getContext().getWorkflowId())
-                .workflowRunId(req.getContext().getWorkflowRunId())
-                .workflowStartTimestampSeconds(req.getContext().getWorkflowStartedTimestamp())
-                .stateExecutionId(req.getContext().getStateExecutionId())
-                .build();
-        final StateLocalImpl stateLocals = new StateLocalImpl(toMap(null), workerOptions.getObjectEncoder());
+                createQueryAttributesRW(workflow, req.getContext(), req.getQueryAttributes());
+        final Context context = toContext(req.getContext(), deadlineEpochMillis);
+        final StateLocalImpl stateLocals = createStateLocals(req.getContext(), null, createRecordEventEncoder(workflow));
         final SearchAttributeRWImpl searchAttributeRW = new SearchAttributeRWImpl(
-                registry.getSearchAttributeKeyToTypeMap(req.getWorkflowType()), req.getSearchAttributes());
+                workflow.getSearchAttributeKeyToTypeMap(), req.getSearchAttributes());
         final InterStateChannelImpl interStateChannel = new InterStateChannelImpl(
-                registry.getInterStateChannelNameToTypeMap(req.getWorkflowType()), workerOptions.getObjectEncoder());
+                workflow.getInterStateChannelNameToTypeMap(), workflow.getInterStateChannelNameToDefMap(),
+                workerOptions.getObjectEncoder());
 
         CommandRequest commandRequest = state.getWorkflowState().start(
                 context,
@@ -60,14 +278,14 @@ public class WorkerService {
                 queryAttributesRW,
                 interStateChannel);
 
-        commandRequest.getCommands().forEach(cmd -> {
+        for (BaseCommand cmd : commandRequest.getCommands()) {
             if (cmd instanceof InterStateChannelCommand) {
                 final String name = ((InterStateChannelCommand) cmd).getChannelName();
-                if (interStateChannel.getToPublish().containsKey(name)) {
+                if (interStateChannel.isPublished(name)) {
                     throw new WorkflowDefinitionException("it's not allowed to publish and wait for the same interstate channel - " + name);
                 }
             }
-        });
+        }
 
         return new WorkflowStateStartResponse()
                 .commandRequest(CommandRequestMapper.toGenerated(commandRequest))
@@ -80,77 +298,241 @@ public class WorkerService {
                 .publishToInterStateChannel(toInterStateChannelPublishing(interStateChannel.getToPublish()));
     }
 
-    public WorkflowStateDecideResponse handleWorkflowStateDecide(final WorkflowStateDecideRequest req) {
-        StateDef state = registry.getWorkflowState(req.getWorkflowType(), req.getWorkflowStateId());
+    private WorkflowStateDecideResponse doHandleWorkflowStateDecide(
+            final WorkflowStateDecideRequest req, final WorkflowTypeRecord workflow, final StateDef state,
+            final long deadlineEpochMillis) {
         final Object input;
         final EncodedObject stateInput = req.getStateInput();
-        input = workerOptions.getObjectEncoder().decode(stateInput, state.getWorkflowState().getInputType());
+        final Class<?> inputType = state.getWorkflowState().getInputType();
+        input = stateInputCache == null ?
+                workerOptions.getObjectEncoder().decode(stateInput, inputType) :
+                stateInputCache.decodeForDecide(req.getContext().getWorkflowId(), req.getContext().getWorkflowRunId(),
+                        req.getContext().getStateExecutionId(), stateInput, inputType,
+                        () -> workerOptions.getObjectEncoder().decode(stateInput, inputType));
         final QueryAttributesRWImpl queryAttributesRW =
-                createQueryAttributesRW(req.getWorkflowType(), req.getQueryAttributes());
-
-        final Context context = ImmutableContext.builder()
-                .workflowId(req.getContext().getWorkflowId())
-                .workflowRunId(req.getContext().getWorkflowRunId())
-                .workflowStartTimestampSeconds(req.getContext().getWorkflowStartedTimestamp())
-                .stateExecutionId(req.getContext().getStateExecutionId())
-                .build();
-        final StateLocalImpl stateLocals = new StateLocalImpl(toMap(req.getStateLocalAttributes()), workerOptions.getObjectEncoder());
+                createQueryAttributesRW(workflow, req.getContext(), req.getQueryAttributes());
+
+        final Context context = toContext(req.getContext(), deadlineEpochMillis);
+        // shared with the locally chained states, so that they count against the same budget
+        final RecordEventEncoder recordEventEncoder = createRecordEventEncoder(workflow);
+        final StateLocalImpl stateLocals = createStateLocals(req.getContext(), req.getStateLocalAttributes(), recordEventEncoder);
         final SearchAttributeRWImpl searchAttributeRW = new SearchAttributeRWImpl(
-                registry.getSearchAttributeKeyToTypeMap(req.getWorkflowType()), req.getSearchAttributes());
+                workflow.getSearchAttributeKeyToTypeMap(), req.getSearchAttributes());
         final InterStateChannelImpl interStateChannel = new InterStateChannelImpl(
-                registry.getInterStateChannelNameToTypeMap(req.getWorkflowType()), workerOptions.getObjectEncoder());
+                workflow.getInterStateChannelNameToTypeMap(), workflow.getInterStateChannelNameToDefMap(),
+                workerOptions.getObjectEncoder());
 
         StateDecision stateDecision = state.getWorkflowState().decide(
                 context,
                 input,
                 CommandResultsMapper.fromGenerated(
                         req.getCommandResults(),
-                        registry.getSignalChannelNameToSignalTypeMap(req.getWorkflowType()),
-                        registry.getInterStateChannelNameToTypeMap(req.getWorkflowType()),
+                        workflow.getSignalChannelNameToSignalTypeMap(),
+                        workflow.getInterStateChannelNameToTypeMap(),
                         workerOptions.getObjectEncoder()),
                 stateLocals,
                 searchAttributeRW,
                 queryAttributesRW,
                 interStateChannel);
 
+        List<KeyValue> recordEvents = stateLocals.getRecordEvents();
+        if (localChainingOptions != null) {
+            final List<KeyValue> chainedRecordEvents = new ArrayList<>();
+            stateDecision = executeLocallyChainedStates(context, workflow, stateDecision,
+                    searchAttributeRW, queryAttributesRW, interStateChannel, recordEventEncoder, chainedRecordEvents);
+            if (!chainedRecordEvents.isEmpty()) {
+                chainedRecordEvents.addAll(0, recordEvents);
+                recordEvents = chainedRecordEvents;
+            }
+        }
+
+        evictClosingWorkflowAttributes(req.getContext(), stateDecision);
+
         return new WorkflowStateDecideResponse()
-                .stateDecision(StateDecisionMapper.toGenerated(stateDecision, workerOptions.getObjectEncoder()))
+                // encodes the same input instance of the next states once
+                .stateDecision(StateDecisionMapper.toGenerated(stateDecision,
+                        new EncodeOnceObjectEncoder(workerOptions.getObjectEncoder())))
                 .upsertQueryAttributes(queryAttributesRW.getUpsertQueryAttributes())
                 .upsertStateLocalAttributes(stateLocals.getUpsertStateLocalAttributes())
-                .recordEvents(stateLocals.getRecordEvents())
+                .recordEvents(recordEvents)
                 .upsertSearchAttributes(createUpsertSearchAttributes(
                         searchAttributeRW.getUpsertToServerInt64AttributeMap(),
                         searchAttributeRW.getUpsertToServerKeywordAttributeMap()))
                 .publishToInterStateChannel(toInterStateChannelPublishing(interStateChannel.getToPublish()));
     }
 
+    /**
+     * Execute the states enabled for local chaining while the decision moves to exactly one of them, sharing the
+     * search attributes, query attributes and inter-state channel of the request, so that their upserts are returned
+     * together. The record events of the chained states are prefixed with their local state execution id. Their state
+     * locals are kept from start to decide of each state and are not returned, as no other state execution reads them.
+     *
+     * @return the decision of the last executed state
+     */
+    private StateDecision executeLocallyChainedStates(
+            final Context requestContext,
+            final WorkflowTypeRecord workflow,
+            StateDecision stateDecision,
+            final SearchAttributeRWImpl searchAttributeRW,
+            final QueryAttributesRWImpl queryAttributesRW,
+            final InterStateChannelImpl interStateChannel,
+            final RecordEventEncoder recordEventEncoder,
+            final List<KeyValue> recordEvents) {
+        for (int chainLength = 1; chainLength <= localChainingOptions.getMaxChainLength(); chainLength++) {
+            final StateDef next = getLocallyChainedState(workflow, stateDecision);
+            if (next == null) {
+                return stateDecision;
+            }
+            final WorkflowState nextState = next.getWorkflowState();
+            final String stateExecutionId = String.format("%s/%s-%d",
+                    requestContext.getStateExecutionId(), nextState.getStateId(), chainLength);
+            final Context context = ImmutableContext.copyOf(requestContext).withStateExecutionId(stateExecutionId);
+            final Object input = toLocalStateInput(
+                    stateDecision.getNextStates().get(0).getNextStateInput().orElse(null), nextState.getInputType());
+            final StateLocalImpl stateLocals = new StateLocalImpl(new HashMap<>(), workerOptions.getObjectEncoder(),
+                    (key, encodedObject, type) -> workerOptions.getObjectEncoder().decode(encodedObject, type),
+                    recordEventEncoder);
+
+            final CommandRequest commandRequest = nextState.start(
+                    context,
+                    input,
+                    stateLocals,
+                    searchAttributeRW,
+                    queryAttributesRW,
+                    interStateChannel);
+            if (!commandRequest.getCommands().isEmpty()) {
+                throw new WorkflowDefinitionException(String.format(
+                        "Workflow state %s is enabled for local chaining and must not request commands", nextState.getStateId()));
+            }
+            stateDecision = nextState.decide(
+                    context,
+                    input,
+                    NO_COMMAND_RESULTS,
+                    stateLocals,
+                    searchAttributeRW,
+                    queryAttributesRW,
+                    interStateChannel);
+
+            for (KeyValue recordEvent : stateLocals.getRecordEvents()) {
+                recordEvents.add(new KeyValue()
+                        .key(stateExecutionId + ":" + recordEvent.getKey())
+                        .value(recordEvent.getValue()));
+            }
+        }
+        return stateDecision;
+    }
+
+    // returns null if the decision doesn't move to exactly one state enabled for local chaining
+    private StateDef getLocallyChainedState(final WorkflowTypeRecord workflow, final StateDecision stateDecision) {
+        if (stateDecision.getNextStates().size() != 1) {
+            return null;
+        }
+        final StateMovement movement = stateDecision.getNextStates().get(0);
+        if (movement.isClosingWorkflow()) {
+            return null;
+        }
+        final StateDef state = getState(workflow, movement.getStateId());
+        return workflow.getStateOptions(movement.getStateId()).getLocalChainingEnabled() ? state : null;
+    }
+
+    // the input is passed as it is when it's already of the input type, like decoding it would in the next request
+    private Object toLocalStateInput(final Object input, final Class<?> inputType) {
+        if (input == null || inputType.isInstance(input)) {
+            return input;
+        }
+        final ObjectEncoder objectEncoder = workerOptions.getObjectEncoder();
+        return objectEncoder.decode(objectEncoder.encode(input), inputType);
+    }
+
+    private Context toContext(final io.github.cadenceoss.iwf.gen.models.Context context, final long deadlineEpochMillis) {
+        return ImmutableContext.of(
+                context.getWorkflowStartedTimestamp(),
+                context.getStateExecutionId(),
+                context.getWorkflowRunId(),
+                context.getWorkflowId())
+                .withRequestDeadlineEpochMillis(deadlineEpochMillis);
+    }
+
     private List<InterStateChannelPublishing> toInterStateChannelPublishing(final Map<String, List<EncodedObject>> toPublish) {
-        List<InterStateChannelPublishing> results = new ArrayList<>();
-        toPublish.forEach((cname, list) -> {
-            list.forEach(val -> {
-                final InterStateChannelPublishing pub = new InterStateChannelPublishing()
-                        .channelName(cname)
-                        .value(val);
-                results.add(pub);
-
-            });
-        });
+        if (toPublish.isEmpty()) {
+            return Collections.emptyList();
+        }
+        int size = 0;
+        for (List<EncodedObject> values : toPublish.values()) {
+            size += values.size();
+        }
+        final List<InterStateChannelPublishing> results = new ArrayList<>(size);
+        for (Map.Entry<String, List<EncodedObject>> entry : toPublish.entrySet()) {
+            for (EncodedObject value : entry.getValue()) {
+                results.add(new InterStateChannelPublishing()
+                        .channelName(entry.getKey())
+                        .value(value));
+            }
+        }
         return results;
     }
 
-    private QueryAttributesRWImpl createQueryAttributesRW(String workflowType, List<KeyValue> keyValues) {
+    private QueryAttributesRWImpl createQueryAttributesRW(
+            final WorkflowTypeRecord workflow,
+            final io.github.cadenceoss.iwf.gen.models.Context context,
+            final List<KeyValue> keyValues) {
         final Map<String, EncodedObject> map = toMap(keyValues);
-        return new QueryAttributesRWImpl(registry.getQueryAttributeKeyToTypeMap(workflowType), map, workerOptions.getObjectEncoder());
+        if (workflowAttributeCache == null) {
+            return new QueryAttributesRWImpl(workflow.getQueryAttributeKeyToTypeMap(), map, workerOptions.getObjectEncoder());
+        }
+        return new QueryAttributesRWImpl(workflow.getQueryAttributeKeyToTypeMap(), map, workerOptions.getObjectEncoder(),
+                workflowAttributeCache.decoderFor(context.getWorkflowId(), context.getWorkflowRunId(),
+                        WorkflowAttributeCache.AttributeType.QUERY_ATTRIBUTE, workerOptions.getObjectEncoder()));
+    }
+
+    private StateLocalImpl createStateLocals(
+            final io.github.cadenceoss.iwf.gen.models.Context context,
+            final List<KeyValue> keyValues,
+            final RecordEventEncoder recordEventEncoder) {
+        final Map<String, EncodedObject> map = toMap(keyValues);
+        if (workflowAttributeCache == null) {
+            return new StateLocalImpl(map, workerOptions.getObjectEncoder(),
+                    (key, encodedObject, type) -> workerOptions.getObjectEncoder().decode(encodedObject, type),
+                    recordEventEncoder);
+        }
+        return new StateLocalImpl(map, workerOptions.getObjectEncoder(),
+                workflowAttributeCache.decoderFor(context.getWorkflowId(), context.getWorkflowRunId(),
+                        WorkflowAttributeCache.AttributeType.STATE_LOCAL, workerOptions.getObjectEncoder()),
+                recordEventEncoder);
+    }
+
+    // one per start or decide request, as the per-request budget of the policy is kept in it
+    private RecordEventEncoder createRecordEventEncoder(final WorkflowTypeRecord workflow) {
+        if (recordEventLimiter == null) {
+            return (key, eventData) -> workerOptions.getObjectEncoder().encode(eventData);
+        }
+        return recordEventLimiter.encoderFor(workflow.getWorkflowType(), workerOptions.getObjectEncoder());
+    }
+
+    private void evictClosingWorkflowAttributes(
+            final io.github.cadenceoss.iwf.gen.models.Context context,
+            final StateDecision stateDecision) {
+        if (workflowAttributeCache == null) {
+            return;
+        }
+        for (StateMovement movement : stateDecision.getNextStates()) {
+            if (movement.isClosingWorkflow()) {
+                workflowAttributeCache.evict(context.getWorkflowId(), context.getWorkflowRunId());
+                return;
+            }
+        }
     }
 
     private Map<String, EncodedObject> toMap(final List<KeyValue> keyValues) {
-        final Map<String, EncodedObject> map;
         if (keyValues == null || keyValues.isEmpty()) {
-            map = new HashMap<>();
-        } else {
-            map = keyValues.stream()
-                    .filter(keyValue -> keyValue.getValue() != null)
-                    .collect(Collectors.toMap(KeyValue::getKey, KeyValue::getValue));
+            return new HashMap<>();
+        }
+        // presized so that the map never rehashes, and leave room for the attributes set by the state
+        final Map<String, EncodedObject> map = new HashMap<>(keyValues.size() * 2);
+        for (KeyValue keyValue : keyValues) {
+            if (keyValue.getValue() != null) {
+                map.put(keyValue.getKey(), keyValue.getValue());
+            }
         }
         return map;
     }
@@ -158,21 +540,23 @@ public class WorkerService {
     private List<SearchAttribute> createUpsertSearchAttributes(
             final Map<String, Long> upsertToServerInt64AttributeMap,
             final Map<String, String> upsertToServerKeywordAttributeMap) {
-        List<SearchAttribute> sas = new ArrayList<>();
-        upsertToServerKeywordAttributeMap.forEach((key, sa) -> {
-            final SearchAttribute attr = new SearchAttribute()
-                    .key(key)
-                    .stringValue(sa)
-                    .valueType(SearchAttribute.ValueTypeEnum.KEYWORD);
-            sas.add(attr);
-        });
-        upsertToServerInt64AttributeMap.forEach((key, sa) -> {
-            final SearchAttribute attr = new SearchAttribute()
-                    .key(key)
-                    .integerValue(sa)
-                    .valueType(SearchAttribute.ValueTypeEnum.INT);
-            sas.add(attr);
-        });
+        if (upsertToServerInt64AttributeMap.isEmpty() && upsertToServerKeywordAttributeMap.isEmpty()) {
+            return Collections.emptyList();
+        }
+        final List<SearchAttribute> sas = new ArrayList<>(
+                upsertToServerInt64AttributeMap.size() + upsertToServerKeywordAttributeMap.size());
+        for (Map.Entry<String, String> entry : upsertToServerKeywordAttributeMap.entrySet()) {
+            sas.add(new SearchAttribute()
+                    .key(entry.getKey())
+                    .stringValue(entry.getValue())
+                    .valueType(SearchAttribute.ValueTypeEnum.KEYWORD));
+        }
+        for (Map.Entry<String, Long> entry : upsertToServerInt64AttributeMap.entrySet()) {
+            sas.add(new SearchAttribute()
+                    .key(entry.getKey())
+                    .integerValue(entry.getValue())
+                    .valueType(SearchAttribute.ValueTypeEnum.INT));
+        }
         return sas;
     }
 }
@@ -0,0 +1,201 @@
+package io.github.cadenceoss.iwf.core;
+
+import io.github.cadenceoss.iwf.core.attributes.QueryAttributeDef;
+import io.github.cadenceoss.iwf.core.attributes.SearchAttributeDef;
+import io.github.cadenceoss.iwf.core.attributes.SearchAttributeType;
+import io.github.cadenceoss.iwf.core.command.InterStateChannelDef;
+import io.github.cadenceoss.iwf.core.command.SignalChannelDef;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * All the metadata of a registered workflow type, validated and frozen at registration.
+ * States are interned to dense indices, so that they can be kept in arrays indexed by {@link #getStateIndex(String)}.
+ */
+public final class WorkflowTypeRecord {
+    // indicates the state or workflow type is not registered
+    public static final int NOT_FOUND = -1;
+
+    private final int index;
+    private final String workflowType;
+    private final Workflow workflow;
+    private final StateDef[] states;
+    // resolved once, as WorkflowState#getStateOptions may build new options on every call
+    private final StateOptions[] stateOptions;
+    private final Map<String, Integer> stateIndices;
+    private final Map<String, Class<?>> signalChannelNameToSignalTypeMap;
+    private final Map<String, Class<?>> interStateChannelNameToTypeMap;
+    private final Map<String, InterStateChannelDef> interStateChannelNameToDefMap;
+    private final Map<String, Class<?>> queryAttributeKeyToTypeMap;
+    private final Map<String, SearchAttributeType> searchAttributeKeyToTypeMap;
+    private final Set<Class<?>> dataTypes;
+
+    WorkflowTypeRecord(final int index, final Workflow wf) {
+        this.index = index;
+        this.workflowType = Registry.getWorkflowType(wf);
+        this.workflow = wf;
+
+        final List<StateDef> stateDefs = wf.getStates();
+        if (stateDefs == null || stateDefs.size() == 0) {
+            throw new WorkflowDefinitionException(String.format("Workflow type %s must contain at least one state", workflowType));
+        }
+        this.states = new StateDef[stateDefs.size()];
+        this.stateOptions = new StateOptions[stateDefs.size()];
+        final Map<String, Integer> stateIndices = new HashMap<>(stateDefs.size() * 2);
+        for (StateDef stateDef : stateDefs) {
+            final String stateId = stateDef.getWorkflowState().getStateId();
+            if (stateIndices.containsKey(stateId)) {
+                throw new WorkflowDefinitionException(String.format("Workflow state definition %s_%s already exists", workflowType, stateId));
+            }
+            states[stateIndices.size()] = stateDef;
+            stateOptions[stateIndices.size()] = stateDef.getWorkflowState().getStateOptions();
+            stateIndices.put(stateId, stateIndices.size());
+        }
+        this.stateIndices = Collections.unmodifiableMap(stateIndices);
+
+        final Map<String, Class<?>> signalTypes = new HashMap<>();
+        if (wf.getSignalChannels() != null) {
+            for (SignalChannelDef signalChannelDef : wf.getSignalChannels()) {
+                if (signalTypes.containsKey(signalChannelDef.getSignalChannelName())) {
+                    throw new WorkflowDefinitionException(
+                            String.format("Signal channel name  %s already exists", signalChannelDef.getSignalChannelName()));
+                }
+                signalTypes.put(signalChannelDef.getSignalChannelName(), signalChannelDef.getSignalValueType());
+            }
+        }
+        this.signalChannelNameToSignalTypeMap = Collections.unmodifiableMap(signalTypes);
+
+        final Map<String, Class<?>> interStateChannelTypes = new HashMap<>();
+        final Map<String, InterStateChannelDef> interStateChannelDefs = new HashMap<>();
+        if (wf.getInterStateChannels() != null) {
+            for (InterStateChannelDef interstateChannelDef : wf.getInterStateChannels()) {
+                if (interStateChannelTypes.containsKey(interstateChannelDef.getChannelName())) {
+                    throw new WorkflowDefinitionException(
+                            String.format("InterStateChannel name  %s already exists", interstateChannelDef.getChannelName()));
+                }
+                interStateChannelTypes.put(interstateChannelDef.getChannelName(), interstateChannelDef.getValueType());
+                interStateChannelDefs.put(interstateChannelDef.getChannelName(), interstateChannelDef);
+            }
+        }
+        this.interStateChannelNameToTypeMap = Collections.unmodifiableMap(interStateChannelTypes);
+        this.interStateChannelNameToDefMap = Collections.unmodifiableMap(interStateChannelDefs);
+
+        final Map<String, Class<?>> queryAttributeTypes = new HashMap<>();
+        if (wf.getQueryAttributes() != null) {
+            for (QueryAttributeDef queryAttributeDef : wf.getQueryAttributes()) {
+                if (queryAttributeTypes.containsKey(queryAttributeDef.getQueryAttributeKey())) {
+                    throw new WorkflowDefinitionException(
+                            String.format("Query attribute key %s already exists", queryAttributeDef.getQueryAttributeKey()));
+                }
+                queryAttributeTypes.put(queryAttributeDef.getQueryAttributeKey(), queryAttributeDef.getQueryAttributeType());
+            }
+        }
+        this.queryAttributeKeyToTypeMap = Collections.unmodifiableMap(queryAttributeTypes);
+
+        final Map<String, SearchAttributeType> searchAttributeTypes = new HashMap<>();
+        if (wf.getSearchAttributes() != null) {
+            for (SearchAttributeDef searchAttributeDef : wf.getSearchAttributes()) {
+                if (searchAttributeTypes.containsKey(searchAttributeDef.getSearchAttributeKey())) {
+                    throw new WorkflowDefinitionException(
+                            String.format("Search attribute key %s already exists", searchAttributeDef.getSearchAttributeKey()));
+                }
+                searchAttributeTypes.put(searchAttributeDef.getSearchAttributeKey(), searchAttributeDef.getSearchAttributeType());
+            }
+        }
+        this.searchAttributeKeyToTypeMap = Collections.unmodifiableMap(searchAttributeTypes);
+
+        final Set<Class<?>> dataTypes = new LinkedHashSet<>();
+        for (StateDef stateDef : states) {
+            dataTypes.add(stateDef.getWorkflowState().getInputType());
+        }
+        dataTypes.addAll(signalTypes.values());
+        dataTypes.addAll(interStateChannelTypes.values());
+        dataTypes.addAll(queryAttributeTypes.values());
+        dataTypes.remove(null);
+        this.dataTypes = Collections.unmodifiableSet(dataTypes);
+    }
+
+    /**
+     * @return the dense index of the workflow type in the {@link RegistrySnapshot} it's registered in
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    public String getWorkflowType() {
+        return workflowType;
+    }
+
+    public Workflow getWorkflow() {
+        return workflow;
+    }
+
+    public int getStateCount() {
+        return states.length;
+    }
+
+    /**
+     * @return the dense index of the state in [0, getStateCount()), or {@link #NOT_FOUND}
+     */
+    public int getStateIndex(final String stateId) {
+        final Integer stateIndex = stateIndices.get(stateId);
+        return stateIndex == null ? NOT_FOUND : stateIndex;
+    }
+
+    public StateDef getState(final int stateIndex) {
+        return states[stateIndex];
+    }
+
+    /**
+     * @return the state definition, or null if the state is not registered
+     */
+    public StateDef getState(final String stateId) {
+        final Integer stateIndex = stateIndices.get(stateId);
+        return stateIndex == null ? null : states[stateIndex];
+    }
+
+    public StateOptions getStateOptions(final int stateIndex) {
+        return stateOptions[stateIndex];
+    }
+
+    /**
+     * @return the options of the state, or null if the state is not registered
+     */
+    public StateOptions getStateOptions(final String stateId) {
+        final Integer stateIndex = stateIndices.get(stateId);
+        return stateIndex == null ? null : stateOptions[stateIndex];
+    }
+
+    public Map<String, Class<?>> getSignalChannelNameToSignalTypeMap() {
+        return signalChannelNameToSignalTypeMap;
+    }
+
+    public Map<String, Class<?>> getInterStateChannelNameToTypeMap() {
+        return interStateChannelNameToTypeMap;
+    }
+
+    public Map<String, InterStateChannelDef> getInterStateChannelNameToDefMap() {
+        return interStateChannelNameToDefMap;
+    }
+
+    public Map<String, Class<?>> getQueryAttributeKeyToTypeMap() {
+        return queryAttributeKeyToTypeMap;
+    }
+
+    public Map<String, SearchAttributeType> getSearchAttributeKeyToTypeMap() {
+        return searchAttributeKeyToTypeMap;
+    }
+
+    /**
+     * @return all the Java classes encoded by {@link ObjectEncoder} for this workflow type: state inputs, signal values,
+     * inter-state channel values and query attributes
+     */
+    public Set<Class<?>> getDataTypes() {
+        return dataTypes;
+    }
+}
@@ -0,0 +1,11 @@
+package io.github.cadenceoss.iwf.core.attributes;
+
+import io.github.cadenceoss.iwf.gen.models.EncodedObject;
+
+/**
+ * Decodes the value of an attribute. The key lets the worker reuse values decoded for earlier states of the same workflow.
+ */
+public interface AttributeDecoder {
+
+    Object decode(String key, EncodedObject encodedObject, Class<?> type);
+}
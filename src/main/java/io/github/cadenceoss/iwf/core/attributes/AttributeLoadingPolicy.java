@@ -11,5 +11,7 @@ public abstract class AttributeLoadingPolicy {
 
     public abstract List<String> getAttributeKeys();
 
-    public static final AttributeLoadingPolicy LoadAllWithoutLocking = ImmutableAttributeLoadingPolicy.builder().build();
+    public static final AttributeLoadingPolicy LoadAllWithoutLocking = ImmutableAttributeLoadingPolicy.builder()
+            .attributeLoadingType(AttributeLoadingType.LOAD_ALL_WITHOUT_LOCKING)
+            .build();
 }
@@ -0,0 +1,25 @@
+package io.github.cadenceoss.iwf.core.attributes;
+
+import io.github.cadenceoss.iwf.gen.models.EncodedObject;
+import io.github.cadenceoss.iwf.gen.models.KeyValue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+class KeyValues {
+
+    static List<KeyValue> toKeyValues(final Map<String, EncodedObject> map) {
+        if (map == null || map.isEmpty()) {
+            return Collections.emptyList();
+        }
+        final List<KeyValue> keyValues = new ArrayList<>(map.size());
+        for (Map.Entry<String, EncodedObject> entry : map.entrySet()) {
+            keyValues.add(new KeyValue()
+                    .key(entry.getKey())
+                    .value(entry.getValue()));
+        }
+        return keyValues;
+    }
+}
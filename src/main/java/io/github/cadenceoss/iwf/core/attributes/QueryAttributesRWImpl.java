@@ -7,22 +7,32 @@ import io.github.cadenceoss.iwf.gen.models.KeyValue;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 public class QueryAttributesRWImpl implements QueryAttributesRW{
     private final Map<String, Class<?>> queryAttributeNameToTypeMap;
     private final Map<String, EncodedObject> queryAttributeNameToEncodedObjectMap;
-    private final Map<String, EncodedObject> upsertQueryAttributesToReturnToServer;
+    // most states don't write query attributes, so it's only allocated on the first write
+    private Map<String, EncodedObject> upsertQueryAttributesToReturnToServer;
     private final ObjectEncoder objectEncoder;
+    private final AttributeDecoder attributeDecoder;
 
     public QueryAttributesRWImpl(
             final Map<String, Class<?>> queryAttributeNameToTypeMap,
             final Map<String, EncodedObject> queryAttributeNameToValueMap,
             final ObjectEncoder objectEncoder) {
+        this(queryAttributeNameToTypeMap, queryAttributeNameToValueMap, objectEncoder,
+                (key, encodedObject, type) -> objectEncoder.decode(encodedObject, type));
+    }
+
+    public QueryAttributesRWImpl(
+            final Map<String, Class<?>> queryAttributeNameToTypeMap,
+            final Map<String, EncodedObject> queryAttributeNameToValueMap,
+            final ObjectEncoder objectEncoder,
+            final AttributeDecoder attributeDecoder) {
         this.queryAttributeNameToTypeMap = queryAttributeNameToTypeMap;
         this.queryAttributeNameToEncodedObjectMap = queryAttributeNameToValueMap;
-        this.upsertQueryAttributesToReturnToServer = new HashMap<>();
         this.objectEncoder = objectEncoder;
+        this.attributeDecoder = attributeDecoder;
     }
 
     @Override
@@ -44,7 +54,7 @@ public class QueryAttributesRWImpl implements QueryAttributesRW{
         }
 
         return type.cast(
-                objectEncoder.decode(queryAttributeNameToEncodedObjectMap.get(key), registeredType));
+                attributeDecoder.decode(key, queryAttributeNameToEncodedObjectMap.get(key), registeredType));
     }
 
     @Override
@@ -58,16 +68,15 @@ public class QueryAttributesRWImpl implements QueryAttributesRW{
             throw new IllegalArgumentException(String.format("Input is not an instance of class %s", registeredType.getName()));
         }
 
-        this.queryAttributeNameToEncodedObjectMap.put(key, objectEncoder.encode(value));
-        this.upsertQueryAttributesToReturnToServer.put(key, objectEncoder.encode(value));
+        final EncodedObject encodedObject = objectEncoder.encode(value);
+        this.queryAttributeNameToEncodedObjectMap.put(key, encodedObject);
+        if (upsertQueryAttributesToReturnToServer == null) {
+            upsertQueryAttributesToReturnToServer = new HashMap<>();
+        }
+        this.upsertQueryAttributesToReturnToServer.put(key, encodedObject);
     }
 
     public List<KeyValue> getUpsertQueryAttributes() {
-        return upsertQueryAttributesToReturnToServer.entrySet().stream()
-                .map(stringEncodedObjectEntry ->
-                        new KeyValue()
-                                .key(stringEncodedObjectEntry.getKey())
-                                .value(stringEncodedObjectEntry.getValue()))
-                .collect(Collectors.toList());
+        return KeyValues.toKeyValues(upsertQueryAttributesToReturnToServer);
     }
 }
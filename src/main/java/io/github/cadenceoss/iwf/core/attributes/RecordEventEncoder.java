@@ -0,0 +1,13 @@
+package io.github.cadenceoss.iwf.core.attributes;
+
+import io.github.cadenceoss.iwf.gen.models.EncodedObject;
+
+/**
+ * Encodes the data of an event recorded by {@link StateLocal#recordEvent}. Returning null for non-null event data drops the
+ * event, which lets the worker sample events and bound their size. Null event data must be encoded by the ObjectEncoder,
+ * so that it's recorded the same way with or without a RecordEventPolicy.
+ */
+public interface RecordEventEncoder {
+
+    EncodedObject encode(String key, Object eventData);
+}
@@ -3,6 +3,7 @@ package io.github.cadenceoss.iwf.core.attributes;
 import io.github.cadenceoss.iwf.core.WorkflowDefinitionException;
 import io.github.cadenceoss.iwf.gen.models.SearchAttribute;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -11,21 +12,21 @@ public class SearchAttributeRWImpl implements SearchAttributesRW {
 
     private final Map<String, SearchAttributeType> keyToTypeMap;
     private final Map<String, Long> int64AttributeMap;
-    private final Map<String, Long> upsertToServerInt64AttributeMap;
+    // most states don't write search attributes, so the upsert maps are only allocated on the first write
+    private Map<String, Long> upsertToServerInt64AttributeMap = Collections.emptyMap();
     private final Map<String, String> keywordAttributeMap;
-    private final Map<String, String> upsertToServerKeywordAttributeMap;
+    private Map<String, String> upsertToServerKeywordAttributeMap = Collections.emptyMap();
 
     public SearchAttributeRWImpl(final Map<String, SearchAttributeType> keyToTypeMap,
                                  final List<SearchAttribute> searchAttributeMap
     ) {
         this.keyToTypeMap = keyToTypeMap;
-        int64AttributeMap = new HashMap<>();
-        upsertToServerInt64AttributeMap = new HashMap<>();
-        keywordAttributeMap = new HashMap<>();
-        upsertToServerKeywordAttributeMap = new HashMap<>();
+        // presized to the number of registered keys so that the maps never rehash
+        int64AttributeMap = new HashMap<>(keyToTypeMap.size() * 2);
+        keywordAttributeMap = new HashMap<>(keyToTypeMap.size() * 2);
 
         if (searchAttributeMap != null) {
-            searchAttributeMap.forEach((sa) -> {
+            for (SearchAttribute sa : searchAttributeMap) {
                 final SearchAttributeType type = keyToTypeMap.get(sa.getKey());
                 if (type == SearchAttributeType.KEYWORD) {
                     keywordAttributeMap.put(sa.getKey(), sa.getStringValue());
@@ -33,7 +34,7 @@ public class SearchAttributeRWImpl implements SearchAttributesRW {
                 if (type == SearchAttributeType.INT_64) {
                     int64AttributeMap.put(sa.getKey(), sa.getIntegerValue());
                 }
-            });
+            }
         }
     }
 
@@ -49,6 +50,9 @@ public class SearchAttributeRWImpl implements SearchAttributesRW {
                     "key %s is not defined as int64", key));
         }
         int64AttributeMap.put(key, value);
+        if (upsertToServerInt64AttributeMap.isEmpty()) {
+            upsertToServerInt64AttributeMap = new HashMap<>();
+        }
         upsertToServerInt64AttributeMap.put(key, value);
     }
 
@@ -64,6 +68,9 @@ public class SearchAttributeRWImpl implements SearchAttributesRW {
                     "key %s is not defined as keyword", key));
         }
         keywordAttributeMap.put(key, value);
+        if (upsertToServerKeywordAttributeMap.isEmpty()) {
+            upsertToServerKeywordAttributeMap = new HashMap<>();
+        }
         upsertToServerKeywordAttributeMap.put(key, value);
     }
 
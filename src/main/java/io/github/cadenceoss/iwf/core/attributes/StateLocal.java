@@ -5,6 +5,8 @@ public interface StateLocal {
      * set a local attribute. The scope of the attribute is only within the execution of this state.
      * Usually it's for passing from State Start API to State Decide API
      * User code must make sure using the same type for both get & set
+     * In a state executed by local chaining, the attribute is kept in memory from start to decide of the state only,
+     * and is not returned to the server
      *
      * @param key
      * @param value
@@ -6,64 +6,91 @@ import io.github.cadenceoss.iwf.gen.models.EncodedObject;
 import io.github.cadenceoss.iwf.gen.models.KeyValue;
 
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 public class StateLocalImpl implements StateLocal {
 
-    private final Map<String, EncodedObject> recordEvents;
+    // most states don't record events or write state locals, so they are only allocated on the first write
+    private Map<String, EncodedObject> recordEvents;
+    // keys of the events dropped by the RecordEventEncoder
+    private Set<String> droppedRecordEventKeys;
     private final Map<String, EncodedObject> attributeNameToEncodedObjectMap;
-    private final Map<String, EncodedObject> upsertAttributesToReturnToServer;
+    private Map<String, EncodedObject> upsertAttributesToReturnToServer;
     private final ObjectEncoder objectEncoder;
+    private final AttributeDecoder attributeDecoder;
+    private final RecordEventEncoder recordEventEncoder;
 
     public StateLocalImpl(final Map<String, EncodedObject> attributeNameToEncodedObjectMap,
                           final ObjectEncoder objectEncoder) {
+        this(attributeNameToEncodedObjectMap, objectEncoder,
+                (key, encodedObject, type) -> objectEncoder.decode(encodedObject, type));
+    }
+
+    public StateLocalImpl(final Map<String, EncodedObject> attributeNameToEncodedObjectMap,
+                          final ObjectEncoder objectEncoder,
+                          final AttributeDecoder attributeDecoder) {
+        this(attributeNameToEncodedObjectMap, objectEncoder, attributeDecoder,
+                (key, eventData) -> objectEncoder.encode(eventData));
+    }
+
+    public StateLocalImpl(final Map<String, EncodedObject> attributeNameToEncodedObjectMap,
+                          final ObjectEncoder objectEncoder,
+                          final AttributeDecoder attributeDecoder,
+                          final RecordEventEncoder recordEventEncoder) {
         this.objectEncoder = objectEncoder;
+        this.attributeDecoder = attributeDecoder;
+        this.recordEventEncoder = recordEventEncoder;
         this.attributeNameToEncodedObjectMap = attributeNameToEncodedObjectMap;
-        upsertAttributesToReturnToServer = new HashMap<>();
-        recordEvents = new HashMap<>();
     }
 
     @Override
     public void setLocalAttribute(final String key, final Object value) {
         final EncodedObject encodedData = objectEncoder.encode(value);
         attributeNameToEncodedObjectMap.put(key, encodedData);
+        if (upsertAttributesToReturnToServer == null) {
+            upsertAttributesToReturnToServer = new HashMap<>();
+        }
         upsertAttributesToReturnToServer.put(key, encodedData);
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public <T> T getLocalAttribute(final String key, final Class<T> type) {
         final EncodedObject encodedData = this.attributeNameToEncodedObjectMap.get(key);
         if (encodedData == null) {
             return null;
         }
-        return objectEncoder.decode(encodedData, type);
+        return (T) attributeDecoder.decode(key, encodedData, type);
     }
 
     @Override
     public void recordEvent(final String key, final Object eventData) {
-        if (recordEvents.containsKey(key)) {
+        if (recordEvents == null) {
+            recordEvents = new HashMap<>();
+        }
+        // recording a dropped event again still fails, so that it doesn't depend on the sampling
+        if (recordEvents.containsKey(key) || (droppedRecordEventKeys != null && droppedRecordEventKeys.contains(key))) {
             throw new WorkflowDefinitionException("cannot record the same event for more than once");
         }
-        recordEvents.put(key, objectEncoder.encode(eventData));
+        final EncodedObject encodedData = recordEventEncoder.encode(key, eventData);
+        if (encodedData == null && eventData != null) {
+            if (droppedRecordEventKeys == null) {
+                droppedRecordEventKeys = new HashSet<>();
+            }
+            droppedRecordEventKeys.add(key);
+            return;
+        }
+        recordEvents.put(key, encodedData);
     }
 
     public List<KeyValue> getUpsertStateLocalAttributes() {
-        return upsertAttributesToReturnToServer.entrySet().stream()
-                .map(stringEncodedObjectEntry ->
-                        new KeyValue()
-                                .key(stringEncodedObjectEntry.getKey())
-                                .value(stringEncodedObjectEntry.getValue()))
-                .collect(Collectors.toList());
+        return KeyValues.toKeyValues(upsertAttributesToReturnToServer);
     }
 
     public List<KeyValue> getRecordEvents() {
-        return recordEvents.entrySet().stream()
-                .map(stringEncodedObjectEntry ->
-                        new KeyValue()
-                                .key(stringEncodedObjectEntry.getKey())
-                                .value(stringEncodedObjectEntry.getValue()))
-                .collect(Collectors.toList());
+        return KeyValues.toKeyValues(recordEvents);
     }
 }
@@ -0,0 +1,21 @@
+package io.github.cadenceoss.iwf.core.blob;
+
+/**
+ * A content-addressed store of payloads offloaded by {@link io.github.cadenceoss.iwf.core.BlobOffloadingObjectEncoder}.
+ * Keys are derived from the content, so a key is always written with the same bytes, and writing an existing key again
+ * can be skipped. The store must be reachable from every worker and client that decodes the offloaded payloads.
+ * Implementations are provided by {@link BlobStoreProvider} and loaded by {@link BlobStores}.
+ */
+public interface BlobStore {
+    /**
+     * store the data under the key if it doesn't exist yet
+     */
+    void put(String key, byte[] data);
+
+    /**
+     * @return the data stored under the key, or null if it doesn't exist
+     */
+    byte[] get(String key);
+
+    boolean contains(String key);
+}
@@ -0,0 +1,16 @@
+package io.github.cadenceoss.iwf.core.blob;
+
+import java.util.Map;
+
+/**
+ * Service provider of a {@link BlobStore} implementation, registered in
+ * META-INF/services/io.github.cadenceoss.iwf.core.blob.BlobStoreProvider
+ */
+public interface BlobStoreProvider {
+    /**
+     * @return the name to select the implementation in {@link BlobStores#create(String, Map)}
+     */
+    String getName();
+
+    BlobStore create(Map<String, String> config);
+}
@@ -0,0 +1,27 @@
+package io.github.cadenceoss.iwf.core.blob;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+
+public class BlobStores {
+    private BlobStores() {
+    }
+
+    /**
+     * create a blob store by the name of its {@link BlobStoreProvider}, e.g. "filesystem"
+     *
+     * @throws IllegalArgumentException if there is no provider with the name in the classpath
+     */
+    public static BlobStore create(final String name, final Map<String, String> config) {
+        final List<String> names = new ArrayList<>();
+        for (BlobStoreProvider provider : ServiceLoader.load(BlobStoreProvider.class)) {
+            if (provider.getName().equals(name)) {
+                return provider.create(config);
+            }
+            names.add(provider.getName());
+        }
+        throw new IllegalArgumentException(String.format("no BlobStoreProvider named %s, available providers: %s", name, names));
+    }
+}
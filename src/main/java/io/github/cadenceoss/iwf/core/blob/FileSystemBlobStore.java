@@ -0,0 +1,73 @@
+package io.github.cadenceoss.iwf.core.blob;
+
+import io.github.cadenceoss.iwf.core.ObjectEncoderException;
+
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Stores each blob as a file named by its key under a root directory, sharded by the first two characters of the key.
+ * For more than one worker or client, the root directory must be on a shared file system.
+ */
+public class FileSystemBlobStore implements BlobStore {
+    private final Path root;
+
+    public FileSystemBlobStore(final Path root) {
+        this.root = root;
+        try {
+            Files.createDirectories(root);
+        } catch (IOException e) {
+            throw new ObjectEncoderException(e);
+        }
+    }
+
+    @Override
+    public void put(final String key, final byte[] data) {
+        final Path path = pathOf(key);
+        if (Files.exists(path)) {
+            return;
+        }
+        try {
+            Files.createDirectories(path.getParent());
+            // write to a temp file and move, so that readers never see a partially written blob
+            final Path temp = Files.createTempFile(path.getParent(), key, ".tmp");
+            try {
+                Files.write(temp, data);
+                Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                // written by another writer meanwhile, with the same content
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            throw new ObjectEncoderException(e);
+        }
+    }
+
+    @Override
+    public byte[] get(final String key) {
+        try {
+            return Files.readAllBytes(pathOf(key));
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            throw new ObjectEncoderException(e);
+        }
+    }
+
+    @Override
+    public boolean contains(final String key) {
+        return Files.exists(pathOf(key));
+    }
+
+    private Path pathOf(final String key) {
+        if (key.length() < 3 || !key.matches("[0-9a-zA-Z_-]+")) {
+            throw new ObjectEncoderException("invalid blob key " + key);
+        }
+        return root.resolve(key.substring(0, 2)).resolve(key);
+    }
+}
@@ -0,0 +1,26 @@
+package io.github.cadenceoss.iwf.core.blob;
+
+import java.nio.file.Paths;
+import java.util.Map;
+
+/**
+ * Provides {@link FileSystemBlobStore} by the name "filesystem", with the root directory in the config "directory"
+ */
+public class FileSystemBlobStoreProvider implements BlobStoreProvider {
+    public static final String NAME = "filesystem";
+    public static final String DIRECTORY_CONFIG = "directory";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public BlobStore create(final Map<String, String> config) {
+        final String directory = config.get(DIRECTORY_CONFIG);
+        if (directory == null) {
+            throw new IllegalArgumentException("missing config " + DIRECTORY_CONFIG + " for " + NAME + " blob store");
+        }
+        return new FileSystemBlobStore(Paths.get(directory));
+    }
+}
@@ -3,9 +3,16 @@ package io.github.cadenceoss.iwf.core.command;
 import org.immutables.value.Value;
 
 import java.util.List;
+import java.util.Objects;
 
 /**
  * This is the container of all requested commands' results/statuses
+ * The results passed to {@link io.github.cadenceoss.iwf.core.WorkflowState#decide} decode the signal and
+ * inter-state channel values on first access, so a state only pays for decoding the values it reads. Hence a value
+ * that fails to decode, or of a signal or inter-state channel not registered in the workflow, fails the access inside
+ * decide(with ObjectEncoderException or WorkflowDefinitionException), not the request before decide is called.
+ * equals, hashCode and toString are defined here rather than generated, so that those results are equal to the
+ * {@link ImmutableCommandResults} with the same results.
  */
 @Value.Immutable
 public abstract class CommandResults {
@@ -18,28 +25,114 @@ public abstract class CommandResults {
 
     public abstract List<InterStateChannelCommandResult> getAllInterStateChannelCommandResult();
 
-    // below are helpers
+    // below are helpers. When more than one command has the same commandId, the ById ones return the first of them
+
+    @SuppressWarnings("unchecked")
     public <T> T getActivityOutputByIndex(int idx) {
-        throw new RuntimeException("TODO");
+        return (T) getActivityCommandResultByIndex(idx).getOutput();
     }
 
+    @SuppressWarnings("unchecked")
     public <T> T getActivityOutputById(String commandId) {
-        throw new RuntimeException("TODO");
+        final LongRunningActivityCommandResult result = getActivityCommandResultById(commandId);
+        return result == null ? null : (T) result.getOutput();
     }
 
     public LongRunningActivityCommandResult getActivityCommandResultByIndex(int idx) {
-        throw new RuntimeException("TODO");
+        return getAllLongRunningActivityCommandResults().get(idx);
     }
 
+    /**
+     * @return the result of the command, or null if there is no activity command with the commandId
+     */
     public LongRunningActivityCommandResult getActivityCommandResultById(String commandId) {
-        throw new RuntimeException("TODO");
+        for (LongRunningActivityCommandResult result : getAllLongRunningActivityCommandResults()) {
+            if (commandId.equals(result.getActivityCommandId())) {
+                return result;
+            }
+        }
+        return null;
     }
 
+    @SuppressWarnings("unchecked")
     public <T> T getSignalValueByIndex(int idx) {
-        throw new RuntimeException("TODO");
+        return (T) getAllSignalCommandResults().get(idx).getSignalValue().orElse(null);
     }
 
+    @SuppressWarnings("unchecked")
     public <T> T getSignalValueById(String commandId) {
-        throw new RuntimeException("TODO");
+        final SignalCommandResult result = getSignalCommandResultById(commandId);
+        return result == null ? null : (T) result.getSignalValue().orElse(null);
+    }
+
+    /**
+     * @return the result of the command, or null if there is no signal command with the commandId
+     */
+    public SignalCommandResult getSignalCommandResultById(String commandId) {
+        for (SignalCommandResult result : getAllSignalCommandResults()) {
+            if (commandId.equals(result.getCommandId())) {
+                return result;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the result of the command, or null if there is no timer command with the commandId
+     */
+    public TimerCommandResult getTimerCommandResultById(String commandId) {
+        for (TimerCommandResult result : getAllTimerCommandResults()) {
+            if (commandId.equals(result.getCommandId())) {
+                return result;
+            }
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T getInterStateChannelValueById(String commandId) {
+        final InterStateChannelCommandResult result = getInterStateChannelCommandResultById(commandId);
+        return result == null ? null : (T) result.getValue().orElse(null);
+    }
+
+    /**
+     * @return the result of the command, or null if there is no inter-state channel command with the commandId
+     */
+    public InterStateChannelCommandResult getInterStateChannelCommandResultById(String commandId) {
+        for (InterStateChannelCommandResult result : getAllInterStateChannelCommandResult()) {
+            if (commandId.equals(result.getCommandId())) {
+                return result;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CommandResults)) {
+            return false;
+        }
+        final CommandResults that = (CommandResults) o;
+        return getAllLongRunningActivityCommandResults().equals(that.getAllLongRunningActivityCommandResults())
+                && getAllSignalCommandResults().equals(that.getAllSignalCommandResults())
+                && getAllTimerCommandResults().equals(that.getAllTimerCommandResults())
+                && getAllInterStateChannelCommandResult().equals(that.getAllInterStateChannelCommandResult());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(getAllLongRunningActivityCommandResults(), getAllSignalCommandResults(),
+                getAllTimerCommandResults(), getAllInterStateChannelCommandResult());
+    }
+
+    @Override
+    public String toString() {
+        return "CommandResults{allLongRunningActivityCommandResults=" + getAllLongRunningActivityCommandResults()
+                + ", allSignalCommandResults=" + getAllSignalCommandResults()
+                + ", allTimerCommandResults=" + getAllTimerCommandResults()
+                + ", allInterStateChannelCommandResult=" + getAllInterStateChannelCommandResult() + "}";
     }
 }
@@ -1,8 +1,26 @@
 package io.github.cadenceoss.iwf.core.command;
 
+import java.util.Collection;
+
 public interface InterStateChannel {
 
+    /**
+     * Publish a value to the channel. The value is encoded when it's published, so later changes to it are not sent.
+     * For a channel defined with {@link InterStateChannelDef#keepLatest} or {@link InterStateChannelDef#merging}, the
+     * latest or merged value is encoded after the state API returns instead, so it must not be changed after publishing.
+     */
     void publish(String channelName, Object value);
+
+    /**
+     * Publish the values to the channel in order, same as calling {@link #publish(String, Object)} for each of them.
+     * Define the channel with {@link InterStateChannelDef#keepLatest} or {@link InterStateChannelDef#merging} to send
+     * a single value to the server instead.
+     */
+    default void publishAll(String channelName, Collection<?> values) {
+        for (Object value : values) {
+            publish(channelName, value);
+        }
+    }
 }
 
 
@@ -3,8 +3,13 @@ package io.github.cadenceoss.iwf.core.command;
 import io.github.cadenceoss.iwf.gen.models.InterStateChannelResult;
 import org.immutables.value.Value;
 
+import java.util.Objects;
 import java.util.Optional;
 
+/**
+ * equals, hashCode and toString are defined here rather than generated, so that the results decoding the value lazily
+ * are equal to the {@link ImmutableInterStateChannelCommandResult} with the same attributes
+ */
 @Value.Immutable
 public abstract class InterStateChannelCommandResult {
 
@@ -15,4 +20,32 @@ public abstract class InterStateChannelCommandResult {
     public abstract Optional<Object> getValue();
 
     public abstract InterStateChannelResult.RequestStatusEnum getRequestStatusEnum();
-}
\ No newline at end of file
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof InterStateChannelCommandResult)) {
+            return false;
+        }
+        final InterStateChannelCommandResult that = (InterStateChannelCommandResult) o;
+        return getCommandId().equals(that.getCommandId())
+                && getChannelName().equals(that.getChannelName())
+                && getValue().equals(that.getValue())
+                && getRequestStatusEnum() == that.getRequestStatusEnum();
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(getCommandId(), getChannelName(), getValue(), getRequestStatusEnum());
+    }
+
+    @Override
+    public String toString() {
+        return "InterStateChannelCommandResult{commandId=" + getCommandId()
+                + ", channelName=" + getChannelName()
+                + ", value=" + getValue().orElse(null)
+                + ", requestStatusEnum=" + getRequestStatusEnum() + "}";
+    }
+}
@@ -0,0 +1,7 @@
+package io.github.cadenceoss.iwf.core.command;
+
+public enum InterStateChannelCompactionType {
+    NONE, // every published value is sent to the server
+    KEEP_LATEST, // only the last value published by a state API is sent to the server
+    MERGE; // the values published by a state API are merged into one by the reducer of the channel
+}
@@ -2,6 +2,9 @@ package io.github.cadenceoss.iwf.core.command;
 
 import org.immutables.value.Value;
 
+import java.util.Optional;
+import java.util.function.BinaryOperator;
+
 @Value.Immutable
 public abstract class InterStateChannelDef {
 
@@ -9,10 +12,55 @@ public abstract class InterStateChannelDef {
 
     public abstract String getChannelName();
 
+    /**
+     * how the values published to the channel by a state API are compacted before being sent to the server.
+     * Default to {@link InterStateChannelCompactionType#NONE}
+     */
+    @Value.Default
+    public InterStateChannelCompactionType getCompactionType() {
+        return InterStateChannelCompactionType.NONE;
+    }
+
+    /**
+     * merges two values published to the channel, in publishing order. Required for {@link InterStateChannelCompactionType#MERGE}
+     */
+    public abstract Optional<BinaryOperator<Object>> getReducer();
+
+    @Value.Check
+    protected void check() {
+        if (getCompactionType() == InterStateChannelCompactionType.MERGE && !getReducer().isPresent()) {
+            throw new IllegalArgumentException("reducer is required to merge the values of InterStateChannel " + getChannelName());
+        }
+    }
+
     public static InterStateChannelDef create(Class type, String name) {
         return ImmutableInterStateChannelDef.builder()
                 .channelName(name)
                 .valueType(type)
                 .build();
     }
+
+    /**
+     * a channel receiving only the last value published by each state API
+     */
+    public static InterStateChannelDef keepLatest(Class type, String name) {
+        return ImmutableInterStateChannelDef.builder()
+                .channelName(name)
+                .valueType(type)
+                .compactionType(InterStateChannelCompactionType.KEEP_LATEST)
+                .build();
+    }
+
+    /**
+     * a channel receiving one value per state API, merged from the published values by the reducer
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> InterStateChannelDef merging(Class<T> type, String name, BinaryOperator<T> reducer) {
+        return ImmutableInterStateChannelDef.builder()
+                .channelName(name)
+                .valueType(type)
+                .compactionType(InterStateChannelCompactionType.MERGE)
+                .reducer((BinaryOperator<Object>) (BinaryOperator<?>) reducer)
+                .build();
+    }
 }
@@ -5,35 +5,127 @@ import io.github.cadenceoss.iwf.core.WorkflowDefinitionException;
 import io.github.cadenceoss.iwf.gen.models.EncodedObject;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.BinaryOperator;
 
 public class InterStateChannelImpl implements InterStateChannel {
 
     final Map<String, Class<?>> nameToTypeMap;
+    // channel name -> definition, to compact the published values
+    final Map<String, InterStateChannelDef> nameToDefMap;
+    // the encoded values of the channels without compaction
     final Map<String, List<EncodedObject>> toPublish = new HashMap<>();
+    // channel name -> the latest or merged value so far, for the compacted channels. Encoded once in getToPublish
+    final Map<String, Object> compactedValues = new HashMap<>();
 
     final ObjectEncoder objectEncoder;
 
     public InterStateChannelImpl(
             final Map<String, Class<?>> nameToTypeMap,
             final ObjectEncoder objectEncoder) {
+        this(nameToTypeMap, Collections.emptyMap(), objectEncoder);
+    }
+
+    public InterStateChannelImpl(
+            final Map<String, Class<?>> nameToTypeMap,
+            final Map<String, InterStateChannelDef> nameToDefMap,
+            final ObjectEncoder objectEncoder) {
         this.nameToTypeMap = nameToTypeMap;
+        this.nameToDefMap = nameToDefMap;
         this.objectEncoder = objectEncoder;
     }
 
     @Override
     public void publish(final String channelName, final Object value) {
+        checkType(channelName, value);
+        publishCompacted(channelName, Collections.singletonList(value));
+    }
+
+    /**
+     * Compacts the values, so a {@link InterStateChannelDef#keepLatest} or {@link InterStateChannelDef#merging} channel
+     * encodes a single value in {@link #getToPublish()}
+     */
+    @Override
+    public void publishAll(final String channelName, final Collection<?> values) {
+        if (values.isEmpty()) {
+            return;
+        }
+        for (Object value : values) {
+            checkType(channelName, value);
+        }
+        publishCompacted(channelName, values);
+    }
+
+    private void checkType(final String channelName, final Object value) {
         final Class<?> type = nameToTypeMap.get(channelName);
         if (!type.isInstance(value)) {
             throw new WorkflowDefinitionException(String.format("InterStateChannel value is not of type %s", type.getName()));
         }
-        final List<EncodedObject> publish = toPublish.computeIfAbsent(channelName, s -> new ArrayList<>());
-        publish.add(objectEncoder.encode(value));
     }
 
+    private void checkMergedType(final String channelName, final Object merged) {
+        final Class<?> type = nameToTypeMap.get(channelName);
+        if (!type.isInstance(merged)) {
+            throw new WorkflowDefinitionException(String.format(
+                    "The reducer of InterStateChannel %s returned a value not of type %s", channelName, type.getName()));
+        }
+    }
+
+    // the values are compacted or encoded before being added, so that a failure publishes none of them
+    private void publishCompacted(final String channelName, final Collection<?> values) {
+        final InterStateChannelDef def = nameToDefMap.get(channelName);
+        final InterStateChannelCompactionType compactionType =
+                def == null ? InterStateChannelCompactionType.NONE : def.getCompactionType();
+        switch (compactionType) {
+            case KEEP_LATEST:
+                Object latest = null;
+                for (Object value : values) {
+                    latest = value;
+                }
+                compactedValues.put(channelName, latest);
+                break;
+            case MERGE:
+                final BinaryOperator<Object> reducer = def.getReducer().get();
+                Object merged = compactedValues.get(channelName);
+                for (Object value : values) {
+                    if (merged == null) {
+                        merged = value;
+                    } else {
+                        merged = reducer.apply(merged, value);
+                        checkMergedType(channelName, merged);
+                    }
+                }
+                compactedValues.put(channelName, merged);
+                break;
+            default:
+                final List<EncodedObject> encodedValues = new ArrayList<>(values.size());
+                for (Object value : values) {
+                    encodedValues.add(objectEncoder.encode(value));
+                }
+                toPublish.computeIfAbsent(channelName, s -> new ArrayList<>(values.size())).addAll(encodedValues);
+        }
+    }
+
+    public boolean isPublished(final String channelName) {
+        return toPublish.containsKey(channelName) || compactedValues.containsKey(channelName);
+    }
+
+    /**
+     * @return the encoded values by channel name, compacted by the definition of the channel. The value of a compacted
+     * channel is encoded on every call, so it's called once when the response of the state API is built
+     */
     public Map<String, List<EncodedObject>> getToPublish() {
-        return toPublish;
+        if (compactedValues.isEmpty()) {
+            return toPublish;
+        }
+        final Map<String, List<EncodedObject>> published = new HashMap<>(toPublish);
+        for (Map.Entry<String, Object> entry : compactedValues.entrySet()) {
+            published.put(entry.getKey(), Collections.singletonList(objectEncoder.encode(entry.getValue())));
+        }
+        return published;
     }
 }
@@ -3,8 +3,13 @@ package io.github.cadenceoss.iwf.core.command;
 import io.github.cadenceoss.iwf.gen.models.SignalResult;
 import org.immutables.value.Value;
 
+import java.util.Objects;
 import java.util.Optional;
 
+/**
+ * equals, hashCode and toString are defined here rather than generated, so that the results decoding the value lazily
+ * are equal to the {@link ImmutableSignalCommandResult} with the same attributes
+ */
 @Value.Immutable
 public abstract class SignalCommandResult {
 
@@ -15,4 +20,32 @@ public abstract class SignalCommandResult {
     public abstract Optional<Object> getSignalValue();
 
     public abstract SignalResult.SignalRequestStatusEnum getSignalRequestStatusEnum();
-}
\ No newline at end of file
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SignalCommandResult)) {
+            return false;
+        }
+        final SignalCommandResult that = (SignalCommandResult) o;
+        return getCommandId().equals(that.getCommandId())
+                && getSignalChannelName().equals(that.getSignalChannelName())
+                && getSignalValue().equals(that.getSignalValue())
+                && getSignalRequestStatusEnum() == that.getSignalRequestStatusEnum();
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(getCommandId(), getSignalChannelName(), getSignalValue(), getSignalRequestStatusEnum());
+    }
+
+    @Override
+    public String toString() {
+        return "SignalCommandResult{commandId=" + getCommandId()
+                + ", signalChannelName=" + getSignalChannelName()
+                + ", signalValue=" + getSignalValue().orElse(null)
+                + ", signalRequestStatusEnum=" + getSignalRequestStatusEnum() + "}";
+    }
+}
@@ -1,35 +1,33 @@
 package io.github.cadenceoss.iwf.core.mapper;
 
+import io.github.cadenceoss.iwf.core.command.BaseCommand;
 import io.github.cadenceoss.iwf.core.command.CommandRequest;
 import io.github.cadenceoss.iwf.core.command.InterStateChannelCommand;
 import io.github.cadenceoss.iwf.core.command.SignalCommand;
 import io.github.cadenceoss.iwf.core.command.TimerCommand;
 
-import java.util.stream.Collectors;
+import java.util.ArrayList;
+import java.util.List;
 
 public class CommandRequestMapper {
     public static io.github.cadenceoss.iwf.gen.models.CommandRequest toGenerated(CommandRequest commandRequest) {
+        // one pass over the commands instead of filtering them once per command type
+        final List<io.github.cadenceoss.iwf.gen.models.SignalCommand> signalCommands = new ArrayList<>();
+        final List<io.github.cadenceoss.iwf.gen.models.TimerCommand> timerCommands = new ArrayList<>();
+        final List<io.github.cadenceoss.iwf.gen.models.InterStateChannelCommand> interStateChannelCommands = new ArrayList<>();
+        for (BaseCommand baseCommand : commandRequest.getCommands()) {
+            if (baseCommand instanceof SignalCommand) {
+                signalCommands.add(SignalCommandMapper.toGenerated((SignalCommand) baseCommand));
+            } else if (baseCommand instanceof TimerCommand) {
+                timerCommands.add(TimerCommandMapper.toGenerated((TimerCommand) baseCommand));
+            } else if (baseCommand instanceof InterStateChannelCommand) {
+                interStateChannelCommands.add(InterStateChannelCommandMapper.toGenerated((InterStateChannelCommand) baseCommand));
+            }
+        }
         return new io.github.cadenceoss.iwf.gen.models.CommandRequest()
-                .signalCommands(
-                        commandRequest.getCommands().stream()
-                                .filter(baseCommand -> baseCommand instanceof SignalCommand)
-                                .map(baseCommand -> (SignalCommand) baseCommand)
-                                .map(SignalCommandMapper::toGenerated)
-                                .collect(Collectors.toList())
-                ).timerCommands(
-                        commandRequest.getCommands().stream()
-                                .filter(baseCommand -> baseCommand instanceof TimerCommand)
-                                .map(baseCommand -> (TimerCommand) baseCommand)
-                                .map(TimerCommandMapper::toGenerated)
-                                .collect(Collectors.toList())
-                )
-                .interStateChannelCommands(
-                        commandRequest.getCommands().stream()
-                                .filter(baseCommand -> baseCommand instanceof InterStateChannelCommand)
-                                .map(baseCommand -> (InterStateChannelCommand) baseCommand)
-                                .map(InterStateChannelCommandMapper::toGenerated)
-                                .collect(Collectors.toList())
-                )
+                .signalCommands(signalCommands)
+                .timerCommands(timerCommands)
+                .interStateChannelCommands(interStateChannelCommands)
                 .deciderTriggerType(commandRequest.getDeciderTriggerType());
     }
 }
@@ -3,42 +3,58 @@ package io.github.cadenceoss.iwf.core.mapper;
 import io.github.cadenceoss.iwf.core.ObjectEncoder;
 import io.github.cadenceoss.iwf.core.command.CommandResults;
 import io.github.cadenceoss.iwf.core.command.ImmutableCommandResults;
+import io.github.cadenceoss.iwf.core.command.InterStateChannelCommandResult;
+import io.github.cadenceoss.iwf.core.command.SignalCommandResult;
+import io.github.cadenceoss.iwf.core.command.TimerCommandResult;
+import io.github.cadenceoss.iwf.gen.models.InterStateChannelResult;
+import io.github.cadenceoss.iwf.gen.models.SignalResult;
+import io.github.cadenceoss.iwf.gen.models.TimerResult;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 public class CommandResultsMapper {
+    /**
+     * @return the command results, with the signal and inter-state channel values decoded on first access
+     */
     public static CommandResults fromGenerated(
             io.github.cadenceoss.iwf.gen.models.CommandResults commandResults,
             Map<String, Class<?>> signalNameToTypeMap,
             Map<String, Class<?>> interstateChannelNameToTypeMap,
             ObjectEncoder objectEncoder) {
 
-        ImmutableCommandResults.Builder builder = ImmutableCommandResults.builder();
         if (commandResults == null) {
-            return builder.build();
+            return ImmutableCommandResults.builder().build();
         }
+        List<SignalCommandResult> signalCommandResults = Collections.emptyList();
         if (commandResults.getSignalResults() != null) {
-            builder.allSignalCommandResults(commandResults.getSignalResults().stream()
-                    .map(signalResult -> SignalResultMapper.fromGenerated(
-                            signalResult,
-                            signalNameToTypeMap.get(signalResult.getSignalChannelName()),
-                            objectEncoder))
-                    .collect(Collectors.toList()));
+            signalCommandResults = new ArrayList<>(commandResults.getSignalResults().size());
+            for (SignalResult signalResult : commandResults.getSignalResults()) {
+                signalCommandResults.add(new LazySignalCommandResult(
+                        signalResult,
+                        signalNameToTypeMap.get(signalResult.getSignalChannelName()),
+                        objectEncoder));
+            }
         }
+        List<TimerCommandResult> timerCommandResults = Collections.emptyList();
         if (commandResults.getTimerResults() != null) {
-            builder.allTimerCommandResults(commandResults.getTimerResults().stream()
-                    .map(TimerResultMapper::fromGenerated)
-                    .collect(Collectors.toList()));
+            timerCommandResults = new ArrayList<>(commandResults.getTimerResults().size());
+            for (TimerResult timerResult : commandResults.getTimerResults()) {
+                timerCommandResults.add(TimerResultMapper.fromGenerated(timerResult));
+            }
         }
+        List<InterStateChannelCommandResult> interStateChannelCommandResults = Collections.emptyList();
         if (commandResults.getInterStateChannelResults() != null) {
-            builder.allInterStateChannelCommandResult(commandResults.getInterStateChannelResults().stream()
-                    .map(result -> InterStateChannelResultMapper.fromGenerated(
-                            result,
-                            interstateChannelNameToTypeMap.get(result.getChannelName()),
-                            objectEncoder))
-                    .collect(Collectors.toList()));
+            interStateChannelCommandResults = new ArrayList<>(commandResults.getInterStateChannelResults().size());
+            for (InterStateChannelResult result : commandResults.getInterStateChannelResults()) {
+                interStateChannelCommandResults.add(new LazyInterStateChannelCommandResult(
+                        result,
+                        interstateChannelNameToTypeMap.get(result.getChannelName()),
+                        objectEncoder));
+            }
         }
-        return builder.build();
+        return new LazyCommandResults(signalCommandResults, timerCommandResults, interStateChannelCommandResults);
     }
 }
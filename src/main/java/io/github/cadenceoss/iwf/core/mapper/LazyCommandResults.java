@@ -0,0 +1,86 @@
+package io.github.cadenceoss.iwf.core.mapper;
+
+import io.github.cadenceoss.iwf.core.command.CommandResults;
+import io.github.cadenceoss.iwf.core.command.InterStateChannelCommandResult;
+import io.github.cadenceoss.iwf.core.command.LongRunningActivityCommandResult;
+import io.github.cadenceoss.iwf.core.command.SignalCommandResult;
+import io.github.cadenceoss.iwf.core.command.TimerCommandResult;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+// CommandResults whose values are decoded on first access, with the results indexed by commandId on first lookup
+final class LazyCommandResults extends CommandResults {
+    private final List<SignalCommandResult> signalCommandResults;
+    private final List<TimerCommandResult> timerCommandResults;
+    private final List<InterStateChannelCommandResult> interStateChannelCommandResults;
+
+    private Map<String, SignalCommandResult> signalCommandResultsById;
+    private Map<String, TimerCommandResult> timerCommandResultsById;
+    private Map<String, InterStateChannelCommandResult> interStateChannelCommandResultsById;
+
+    LazyCommandResults(
+            final List<SignalCommandResult> signalCommandResults,
+            final List<TimerCommandResult> timerCommandResults,
+            final List<InterStateChannelCommandResult> interStateChannelCommandResults) {
+        this.signalCommandResults = Collections.unmodifiableList(signalCommandResults);
+        this.timerCommandResults = Collections.unmodifiableList(timerCommandResults);
+        this.interStateChannelCommandResults = Collections.unmodifiableList(interStateChannelCommandResults);
+    }
+
+    @Override
+    public List<LongRunningActivityCommandResult> getAllLongRunningActivityCommandResults() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public List<SignalCommandResult> getAllSignalCommandResults() {
+        return signalCommandResults;
+    }
+
+    @Override
+    public List<TimerCommandResult> getAllTimerCommandResults() {
+        return timerCommandResults;
+    }
+
+    @Override
+    public List<InterStateChannelCommandResult> getAllInterStateChannelCommandResult() {
+        return interStateChannelCommandResults;
+    }
+
+    @Override
+    public synchronized SignalCommandResult getSignalCommandResultById(final String commandId) {
+        if (signalCommandResultsById == null) {
+            signalCommandResultsById = index(signalCommandResults, SignalCommandResult::getCommandId);
+        }
+        return signalCommandResultsById.get(commandId);
+    }
+
+    @Override
+    public synchronized TimerCommandResult getTimerCommandResultById(final String commandId) {
+        if (timerCommandResultsById == null) {
+            timerCommandResultsById = index(timerCommandResults, TimerCommandResult::getCommandId);
+        }
+        return timerCommandResultsById.get(commandId);
+    }
+
+    @Override
+    public synchronized InterStateChannelCommandResult getInterStateChannelCommandResultById(final String commandId) {
+        if (interStateChannelCommandResultsById == null) {
+            interStateChannelCommandResultsById = index(interStateChannelCommandResults, InterStateChannelCommandResult::getCommandId);
+        }
+        return interStateChannelCommandResultsById.get(commandId);
+    }
+
+    // keeps the first result of a commandId, like the linear lookups of CommandResults
+    private static <T> Map<String, T> index(final List<T> results, final Function<T, String> commandId) {
+        final Map<String, T> index = new HashMap<>(results.size() * 2);
+        for (T result : results) {
+            index.putIfAbsent(commandId.apply(result), result);
+        }
+        return index;
+    }
+}
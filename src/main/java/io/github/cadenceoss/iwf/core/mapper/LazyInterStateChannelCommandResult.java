@@ -0,0 +1,49 @@
+package io.github.cadenceoss.iwf.core.mapper;
+
+import io.github.cadenceoss.iwf.core.ObjectEncoder;
+import io.github.cadenceoss.iwf.core.WorkflowDefinitionException;
+import io.github.cadenceoss.iwf.core.command.InterStateChannelCommandResult;
+import io.github.cadenceoss.iwf.gen.models.InterStateChannelResult;
+
+import java.util.Optional;
+
+// decodes the channel value on first access
+final class LazyInterStateChannelCommandResult extends InterStateChannelCommandResult {
+    private final InterStateChannelResult result;
+    private final Class<?> type;
+    private final ObjectEncoder objectEncoder;
+    private Optional<Object> value;
+
+    LazyInterStateChannelCommandResult(final InterStateChannelResult result, final Class<?> type, final ObjectEncoder objectEncoder) {
+        this.result = result;
+        this.type = type;
+        this.objectEncoder = objectEncoder;
+    }
+
+    @Override
+    public String getCommandId() {
+        return result.getCommandId();
+    }
+
+    @Override
+    public String getChannelName() {
+        return result.getChannelName();
+    }
+
+    @Override
+    public synchronized Optional<Object> getValue() {
+        if (value == null) {
+            if (type == null) {
+                throw new WorkflowDefinitionException(String.format(
+                        "InterStateChannel %s is not registered", result.getChannelName()));
+            }
+            value = Optional.ofNullable(objectEncoder.decode(result.getValue(), type));
+        }
+        return value;
+    }
+
+    @Override
+    public InterStateChannelResult.RequestStatusEnum getRequestStatusEnum() {
+        return result.getRequestStatus();
+    }
+}
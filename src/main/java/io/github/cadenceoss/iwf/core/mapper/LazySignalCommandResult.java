@@ -0,0 +1,49 @@
+package io.github.cadenceoss.iwf.core.mapper;
+
+import io.github.cadenceoss.iwf.core.ObjectEncoder;
+import io.github.cadenceoss.iwf.core.WorkflowDefinitionException;
+import io.github.cadenceoss.iwf.core.command.SignalCommandResult;
+import io.github.cadenceoss.iwf.gen.models.SignalResult;
+
+import java.util.Optional;
+
+// decodes the signal value on first access
+final class LazySignalCommandResult extends SignalCommandResult {
+    private final SignalResult signalResult;
+    private final Class<?> signalType;
+    private final ObjectEncoder objectEncoder;
+    private Optional<Object> signalValue;
+
+    LazySignalCommandResult(final SignalResult signalResult, final Class<?> signalType, final ObjectEncoder objectEncoder) {
+        this.signalResult = signalResult;
+        this.signalType = signalType;
+        this.objectEncoder = objectEncoder;
+    }
+
+    @Override
+    public String getCommandId() {
+        return signalResult.getCommandId();
+    }
+
+    @Override
+    public String getSignalChannelName() {
+        return signalResult.getSignalChannelName();
+    }
+
+    @Override
+    public synchronized Optional<Object> getSignalValue() {
+        if (signalValue == null) {
+            if (signalType == null) {
+                throw new WorkflowDefinitionException(String.format(
+                        "Signal channel %s is not registered", signalResult.getSignalChannelName()));
+            }
+            signalValue = Optional.ofNullable(objectEncoder.decode(signalResult.getSignalValue(), signalType));
+        }
+        return signalValue;
+    }
+
+    @Override
+    public SignalResult.SignalRequestStatusEnum getSignalRequestStatusEnum() {
+        return signalResult.getSignalRequestStatus();
+    }
+}
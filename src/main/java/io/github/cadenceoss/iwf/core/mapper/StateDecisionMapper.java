@@ -2,20 +2,21 @@ package io.github.cadenceoss.iwf.core.mapper;
 
 import io.github.cadenceoss.iwf.core.ObjectEncoder;
 import io.github.cadenceoss.iwf.gen.models.StateDecision;
+import io.github.cadenceoss.iwf.gen.models.StateMovement;
 
-import java.util.stream.Collectors;
+import java.util.ArrayList;
+import java.util.List;
 
 public class StateDecisionMapper {
     public static StateDecision toGenerated(io.github.cadenceoss.iwf.core.StateDecision stateDecision, final ObjectEncoder objectEncoder) {
         if (stateDecision.getNextStates() == null) {
             return null;
         }
+        final List<StateMovement> nextStates = new ArrayList<>(stateDecision.getNextStates().size());
+        for (io.github.cadenceoss.iwf.core.StateMovement stateMovement : stateDecision.getNextStates()) {
+            nextStates.add(StateMovementMapper.toGenerated(stateMovement, objectEncoder));
+        }
         return new StateDecision()
-                .nextStates(stateDecision.getNextStates()
-                        .stream()
-                        .map(e -> {
-                            return StateMovementMapper.toGenerated(e, objectEncoder);
-                        })
-                        .collect(Collectors.toList()));
+                .nextStates(nextStates);
     }
 }
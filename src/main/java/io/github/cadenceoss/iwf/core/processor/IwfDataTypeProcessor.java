@@ -0,0 +1,564 @@
+package io.github.cadenceoss.iwf.core.processor;
+
+import io.github.cadenceoss.iwf.core.IwfDataType;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Generates a Jackson serializer and deserializer for each class annotated with {@link IwfDataType}, next to the class,
+ * and IwfGeneratedSerializers with the module registering them. The classes are validated at compile time, so that the
+ * generated code always writes and reads the same JSON as the builtin mapper of JacksonJsonObjectEncoder.
+ * The module is placed in the common package of the annotated classes, which can be changed by the processor option
+ * -Aiwf.serializersPackage=... and must be set when the classes don't share a package prefix.
+ */
+public class IwfDataTypeProcessor extends AbstractProcessor {
+    public static final String SERIALIZERS_CLASS_NAME = "IwfGeneratedSerializers";
+    public static final String SERIALIZERS_PACKAGE_OPTION = "iwf.serializersPackage";
+
+    static final String SERIALIZER_SUFFIX = "IwfJsonSerializer";
+    static final String DESERIALIZER_SUFFIX = "IwfJsonDeserializer";
+
+    private static final String DESERIALIZER_BASE_CLASS = "io.github.cadenceoss.iwf.core.GeneratedJsonDeserializer";
+    private static final String JACKSON = "com.fasterxml.jackson";
+
+    private boolean generated;
+
+    private Messager messager;
+    private Filer filer;
+
+    @Override
+    public synchronized void init(final ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        messager = processingEnv.getMessager();
+        filer = processingEnv.getFiler();
+    }
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Collections.singleton(IwfDataType.class.getCanonicalName());
+    }
+
+    @Override
+    public Set<String> getSupportedOptions() {
+        return Collections.singleton(SERIALIZERS_PACKAGE_OPTION);
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+        // sorted so that the generated source is stable across builds
+        final Map<TypeElement, List<Property>> dataTypes = new TreeMap<>(
+                Comparator.comparing(type -> type.getQualifiedName().toString()));
+        boolean valid = true;
+        for (Element element : roundEnv.getElementsAnnotatedWith(IwfDataType.class)) {
+            if (generated) {
+                error(element, "@IwfDataType class must not be generated after %s", SERIALIZERS_CLASS_NAME);
+                valid = false;
+                continue;
+            }
+            final List<Property> properties = validate(element);
+            if (properties == null) {
+                valid = false;
+            } else {
+                dataTypes.put((TypeElement) element, properties);
+            }
+        }
+        if (!dataTypes.isEmpty() && valid) {
+            generated = true;
+            for (Map.Entry<TypeElement, List<Property>> dataType : dataTypes.entrySet()) {
+                generateSerializer(dataType.getKey(), dataType.getValue());
+                generateDeserializer(dataType.getKey(), dataType.getValue());
+            }
+            generateModule(dataTypes.keySet());
+        }
+        return true;
+    }
+
+    /**
+     * @return the properties of the data type in the order the builtin mapper writes them, or null if it's invalid
+     */
+    private List<Property> validate(final Element element) {
+        if (element.getKind() != ElementKind.CLASS) {
+            error(element, "@IwfDataType can only be applied to a class");
+            return null;
+        }
+        final TypeElement type = (TypeElement) element;
+        if (type.getModifiers().contains(Modifier.ABSTRACT)) {
+            error(type, "@IwfDataType class %s must not be abstract", type.getQualifiedName());
+            return null;
+        }
+        if (!type.getTypeParameters().isEmpty()) {
+            error(type, "@IwfDataType class %s must not be generic", type.getQualifiedName());
+            return null;
+        }
+        if (!IwfWorkflowProcessor.isVisibleFromPackage(type)) {
+            error(type, "@IwfDataType class %s must not be private, and must be static if it's a nested class", type.getQualifiedName());
+            return null;
+        }
+        boolean hasNoArgConstructor = false;
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (constructor.getParameters().isEmpty() && !constructor.getModifiers().contains(Modifier.PRIVATE)) {
+                hasNoArgConstructor = true;
+            }
+        }
+        if (!hasNoArgConstructor) {
+            error(type, "@IwfDataType class %s must have a no-arg constructor that is not private", type.getQualifiedName());
+            return null;
+        }
+        if (hasJacksonAnnotation(type)) {
+            error(type, "@IwfDataType class %s must not use Jackson annotations", type.getQualifiedName());
+            return null;
+        }
+
+        // superclasses first, like the builtin mapper orders the fields
+        final List<TypeElement> hierarchy = new ArrayList<>();
+        for (TypeElement current = type; current != null; current = superclassOf(current)) {
+            hierarchy.add(0, current);
+        }
+        final Map<String, Property> properties = new LinkedHashMap<>();
+        boolean valid = true;
+        for (TypeElement declaringType : hierarchy) {
+            for (VariableElement field : ElementFilter.fieldsIn(declaringType.getEnclosedElements())) {
+                if (field.getModifiers().contains(Modifier.STATIC) || field.getModifiers().contains(Modifier.TRANSIENT)) {
+                    continue;
+                }
+                final String name = field.getSimpleName().toString();
+                if (properties.containsKey(name)) {
+                    error(field, "@IwfDataType class %s has more than one field named %s", type.getQualifiedName(), name);
+                    valid = false;
+                    continue;
+                }
+                if (hasJacksonAnnotation(field)) {
+                    error(field, "@IwfDataType class %s must not use Jackson annotations", type.getQualifiedName());
+                    valid = false;
+                    continue;
+                }
+                properties.put(name, new Property(name, field, type));
+            }
+        }
+        for (TypeElement declaringType : hierarchy) {
+            for (ExecutableElement method : ElementFilter.methodsIn(declaringType.getEnclosedElements())) {
+                valid &= resolveAccessor(type, method, properties);
+            }
+        }
+        for (Property property : properties.values()) {
+            valid &= property.validate(type);
+        }
+        return valid ? new ArrayList<>(properties.values()) : null;
+    }
+
+    private TypeElement superclassOf(final TypeElement type) {
+        final TypeMirror superclass = type.getSuperclass();
+        if (superclass.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        final TypeElement superType = (TypeElement) ((DeclaredType) superclass).asElement();
+        return superType.getQualifiedName().contentEquals(Object.class.getName()) ? null : superType;
+    }
+
+    /**
+     * Pair the getters and setters that the builtin mapper auto-detects(public, non-static) with the fields
+     */
+    private boolean resolveAccessor(final TypeElement type, final ExecutableElement method, final Map<String, Property> properties) {
+        if (hasJacksonAnnotation(method)) {
+            error(method, "@IwfDataType class %s must not use Jackson annotations", type.getQualifiedName());
+            return false;
+        }
+        if (!method.getModifiers().contains(Modifier.PUBLIC) || method.getModifiers().contains(Modifier.STATIC)) {
+            return true;
+        }
+        final String methodName = method.getSimpleName().toString();
+        final boolean isGetter = method.getParameters().isEmpty() && method.getReturnType().getKind() != TypeKind.VOID
+                && (methodName.startsWith("get") && methodName.length() > 3
+                || methodName.startsWith("is") && methodName.length() > 2 && method.getReturnType().getKind() == TypeKind.BOOLEAN);
+        final boolean isSetter = method.getParameters().size() == 1 && methodName.startsWith("set") && methodName.length() > 3;
+        if (!isGetter && !isSetter) {
+            return true;
+        }
+        final String name = propertyName(methodName.substring(methodName.startsWith("is") ? 2 : 3));
+        final Property property = properties.get(name);
+        if (property == null) {
+            error(method, "@IwfDataType class %s has %s of property %s without a field", type.getQualifiedName(), methodName, name);
+            return false;
+        }
+        final TypeMirror methodType = isGetter ? method.getReturnType() : method.getParameters().get(0).asType();
+        if (!processingEnv.getTypeUtils().isSameType(methodType, property.field.asType())) {
+            error(method, "@IwfDataType class %s has %s whose type is different from the field %s", type.getQualifiedName(), methodName, name);
+            return false;
+        }
+        if (isGetter) {
+            property.getter = methodName;
+        } else {
+            property.setter = methodName;
+        }
+        return true;
+    }
+
+    // the same as the default naming of the builtin mapper, which lower-cases the leading upper case characters
+    private static String propertyName(final String suffix) {
+        final StringBuilder name = new StringBuilder(suffix);
+        for (int i = 0; i < name.length() && Character.isUpperCase(name.charAt(i)); i++) {
+            name.setCharAt(i, Character.toLowerCase(name.charAt(i)));
+        }
+        return name.toString();
+    }
+
+    private static boolean hasJacksonAnnotation(final Element element) {
+        for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            if (annotation.getAnnotationType().toString().startsWith(JACKSON)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void generateSerializer(final TypeElement type, final List<Property> properties) {
+        final String typeName = type.getQualifiedName().toString();
+        final String className = generatedName(type, SERIALIZER_SUFFIX);
+        try (PrintWriter out = openSource(type, className)) {
+            out.println("public final class " + className + " extends com.fasterxml.jackson.databind.ser.std.StdSerializer<" + typeName + "> {");
+            out.println("    public " + className + "() {");
+            out.println("        super(" + typeName + ".class);");
+            out.println("    }");
+            out.println();
+            out.println("    @Override");
+            out.println("    public void serialize(final " + typeName + " value, final com.fasterxml.jackson.core.JsonGenerator gen,");
+            out.println("                          final com.fasterxml.jackson.databind.SerializerProvider provider) throws java.io.IOException {");
+            out.println("        gen.writeStartObject(value);");
+            for (Property property : properties) {
+                final String name = javaString(property.name);
+                switch (property.field.asType().getKind()) {
+                    case BOOLEAN:
+                        out.println("        gen.writeBooleanField(" + name + ", value." + property.readExpression() + ");");
+                        break;
+                    case BYTE:
+                        out.println("        gen.writeNumberField(" + name + ", (int) value." + property.readExpression() + ");");
+                        break;
+                    case SHORT:
+                    case INT:
+                    case LONG:
+                    case FLOAT:
+                    case DOUBLE:
+                        out.println("        gen.writeNumberField(" + name + ", value." + property.readExpression() + ");");
+                        break;
+                    default:
+                        out.println("        provider.defaultSerializeField(" + name + ", value." + property.readExpression() + ", gen);");
+                }
+            }
+            out.println("        gen.writeEndObject();");
+            out.println("    }");
+            out.println("}");
+        } catch (IOException e) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "Failed to generate " + className + ": " + e.getMessage());
+        }
+    }
+
+    private void generateDeserializer(final TypeElement type, final List<Property> properties) {
+        final String typeName = type.getQualifiedName().toString();
+        final String className = generatedName(type, DESERIALIZER_SUFFIX);
+        try (PrintWriter out = openSource(type, className)) {
+            out.println("public final class " + className + " extends " + DESERIALIZER_BASE_CLASS + "<" + typeName + "> {");
+            for (Property property : properties) {
+                if (!isParsedDirectly(property.field.asType())) {
+                    out.println("    private com.fasterxml.jackson.databind.JsonDeserializer<Object> " + property.deserializerField() + ";");
+                }
+            }
+            out.println();
+            out.println("    public " + className + "() {");
+            out.println("        super(" + typeName + ".class);");
+            out.println("    }");
+            out.println();
+            out.println("    @Override");
+            out.println("    public void resolve(final com.fasterxml.jackson.databind.DeserializationContext ctxt)");
+            out.println("            throws com.fasterxml.jackson.databind.JsonMappingException {");
+            out.println("        final com.fasterxml.jackson.databind.type.TypeFactory typeFactory = ctxt.getTypeFactory();");
+            for (Property property : properties) {
+                if (!isParsedDirectly(property.field.asType())) {
+                    out.println("        " + property.deserializerField() + " = ctxt.findContextualValueDeserializer("
+                            + javaTypeOf(property.field.asType()) + ", null);");
+                }
+            }
+            out.println("    }");
+            out.println();
+            out.println("    @Override");
+            out.println("    protected " + typeName + " newInstance() {");
+            out.println("        return new " + typeName + "();");
+            out.println("    }");
+            out.println();
+            out.println("    @Override");
+            out.println("    @SuppressWarnings(\"unchecked\")");
+            out.println("    protected boolean readProperty(final com.fasterxml.jackson.core.JsonParser p,");
+            out.println("                                   final com.fasterxml.jackson.databind.DeserializationContext ctxt,");
+            out.println("                                   final " + typeName + " value, final String name) throws java.io.IOException {");
+            out.println("        switch (name) {");
+            for (Property property : properties) {
+                out.println("            case " + javaString(property.name) + ":");
+                out.println("                value." + property.writeStatement(parseExpression(property)) + ";");
+                out.println("                return true;");
+            }
+            out.println("            default:");
+            out.println("                return false;");
+            out.println("        }");
+            out.println("    }");
+            out.println("}");
+        } catch (IOException e) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "Failed to generate " + className + ": " + e.getMessage());
+        }
+    }
+
+    // primitives other than char are parsed with the coercion rules of the builtin mapper, without a deserializer
+    private static boolean isParsedDirectly(final TypeMirror type) {
+        return type.getKind().isPrimitive() && type.getKind() != TypeKind.CHAR;
+    }
+
+    private String parseExpression(final Property property) {
+        final TypeMirror type = property.field.asType();
+        switch (type.getKind()) {
+            case BOOLEAN:
+                return "_parseBooleanPrimitive(p, ctxt)";
+            case BYTE:
+                return "_parseBytePrimitive(p, ctxt)";
+            case SHORT:
+                return "_parseShortPrimitive(p, ctxt)";
+            case INT:
+                return "_parseIntPrimitive(p, ctxt)";
+            case LONG:
+                return "_parseLongPrimitive(p, ctxt)";
+            case FLOAT:
+                return "_parseFloatPrimitive(p, ctxt)";
+            case DOUBLE:
+                return "_parseDoublePrimitive(p, ctxt)";
+            default:
+                final String castType = type.getKind().isPrimitive()
+                        ? processingEnv.getTypeUtils().boxedClass((PrimitiveType) type).getQualifiedName().toString()
+                        : type.toString();
+                return "(" + castType + ") readValue(p, ctxt, " + property.deserializerField() + ")";
+        }
+    }
+
+    /**
+     * @return the expression building the JavaType of a field type from typeFactory and ctxt, without reflection
+     */
+    private String javaTypeOf(final TypeMirror type) {
+        switch (type.getKind()) {
+            case ARRAY:
+                return "typeFactory.constructArrayType(" + javaTypeOf(((ArrayType) type).getComponentType()) + ")";
+            case WILDCARD:
+                final TypeMirror bound = ((WildcardType) type).getExtendsBound();
+                return bound == null ? "ctxt.constructType(Object.class)" : javaTypeOf(bound);
+            case DECLARED:
+                final DeclaredType declaredType = (DeclaredType) type;
+                final String rawType = processingEnv.getTypeUtils().erasure(type).toString();
+                if (declaredType.getTypeArguments().isEmpty()) {
+                    return "ctxt.constructType(" + rawType + ".class)";
+                }
+                final StringBuilder expression = new StringBuilder("typeFactory.constructParametricType(" + rawType + ".class");
+                for (TypeMirror argument : declaredType.getTypeArguments()) {
+                    expression.append(", ").append(javaTypeOf(argument));
+                }
+                return expression.append(")").toString();
+            default:
+                // primitives, as type variables are rejected in validation
+                return "ctxt.constructType(" + type + ".class)";
+        }
+    }
+
+    private void generateModule(final Set<TypeElement> dataTypes) {
+        final String packageName = getSerializersPackage(dataTypes);
+        if (packageName.isEmpty()) {
+            messager.printMessage(Diagnostic.Kind.ERROR, String.format(
+                    "Cannot generate %s into the default package as the @IwfDataType classes have no common package, "
+                            + "set the package with -A%s=...", SERIALIZERS_CLASS_NAME, SERIALIZERS_PACKAGE_OPTION));
+            return;
+        }
+        final String qualifiedName = packageName + "." + SERIALIZERS_CLASS_NAME;
+        try {
+            final JavaFileObject file = filer.createSourceFile(qualifiedName, dataTypes.toArray(new Element[0]));
+            try (Writer writer = file.openWriter(); PrintWriter out = new PrintWriter(writer)) {
+                out.println("package " + packageName + ";");
+                out.println();
+                out.println("/**");
+                out.println(" * Generated by " + IwfDataTypeProcessor.class.getName() + " from the classes annotated with @IwfDataType. Do not edit.");
+                out.println(" */");
+                out.println("public final class " + SERIALIZERS_CLASS_NAME + " {");
+                out.println("    private " + SERIALIZERS_CLASS_NAME + "() {");
+                out.println("    }");
+                out.println();
+                out.println("    public static com.fasterxml.jackson.databind.Module newModule() {");
+                out.println("        final com.fasterxml.jackson.databind.module.SimpleModule module =");
+                out.println("                new com.fasterxml.jackson.databind.module.SimpleModule(\"" + SERIALIZERS_CLASS_NAME + "\");");
+                for (TypeElement dataType : dataTypes) {
+                    final String typeName = dataType.getQualifiedName().toString();
+                    final String generatedPackage = packageOf(dataType);
+                    out.println("        module.addSerializer(" + typeName + ".class, new "
+                            + generatedPackage + "." + generatedName(dataType, SERIALIZER_SUFFIX) + "());");
+                    out.println("        module.addDeserializer(" + typeName + ".class, new "
+                            + generatedPackage + "." + generatedName(dataType, DESERIALIZER_SUFFIX) + "());");
+                }
+                out.println("        return module;");
+                out.println("    }");
+                out.println("}");
+            }
+        } catch (IOException e) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "Failed to generate " + qualifiedName + ": " + e.getMessage());
+        }
+    }
+
+    private String getSerializersPackage(final Set<TypeElement> dataTypes) {
+        final String configured = processingEnv.getOptions().get(SERIALIZERS_PACKAGE_OPTION);
+        if (configured != null) {
+            return configured.trim();
+        }
+        String common = null;
+        for (TypeElement dataType : dataTypes) {
+            final String packageName = packageOf(dataType);
+            common = common == null ? packageName : IwfWorkflowProcessor.commonPackage(common, packageName);
+        }
+        return common;
+    }
+
+    private PrintWriter openSource(final TypeElement type, final String className) throws IOException {
+        final String packageName = packageOf(type);
+        final JavaFileObject file = filer.createSourceFile(
+                packageName.isEmpty() ? className : packageName + "." + className, type);
+        final PrintWriter out = new PrintWriter(file.openWriter());
+        if (!packageName.isEmpty()) {
+            out.println("package " + packageName + ";");
+            out.println();
+        }
+        out.println("/**");
+        out.println(" * Generated by " + IwfDataTypeProcessor.class.getName() + " for " + type.getQualifiedName() + ". Do not edit.");
+        out.println(" */");
+        return out;
+    }
+
+    private String packageOf(final TypeElement type) {
+        return processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+    }
+
+    // e.g. OrderInputIwfJsonSerializer, or Outer_InnerIwfJsonSerializer for a nested class
+    private String generatedName(final TypeElement type, final String suffix) {
+        final String packageName = packageOf(type);
+        final String qualifiedName = type.getQualifiedName().toString();
+        final String binaryName = packageName.isEmpty() ? qualifiedName : qualifiedName.substring(packageName.length() + 1);
+        return binaryName.replace('.', '_') + suffix;
+    }
+
+    private static String javaString(final String value) {
+        return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+    private void error(final Element element, final String format, final Object... args) {
+        messager.printMessage(Diagnostic.Kind.ERROR, String.format(format, args), element);
+    }
+
+    private class Property {
+        final String name;
+        final VariableElement field;
+        final TypeElement dataType;
+        String getter;
+        String setter;
+
+        Property(final String name, final VariableElement field, final TypeElement dataType) {
+            this.name = name;
+            this.field = field;
+            this.dataType = dataType;
+        }
+
+        boolean validate(final TypeElement type) {
+            if (containsTypeVariable(field.asType())) {
+                error(field, "@IwfDataType class %s has field %s of a type variable", type.getQualifiedName(), name);
+                return false;
+            }
+            if (getter == null && !isFieldVisible()) {
+                error(field, "@IwfDataType class %s has private field %s without a public getter", type.getQualifiedName(), name);
+                return false;
+            }
+            if (setter == null && (!isFieldVisible() || field.getModifiers().contains(Modifier.FINAL))) {
+                error(field, "@IwfDataType class %s has %s field %s without a public setter", type.getQualifiedName(),
+                        field.getModifiers().contains(Modifier.FINAL) ? "final" : "private", name);
+                return false;
+            }
+            return true;
+        }
+
+        // the generated code is in the package of the data type, so it can access the fields visible from the package
+        private boolean isFieldVisible() {
+            if (field.getModifiers().contains(Modifier.PUBLIC)) {
+                return true;
+            }
+            final TypeElement declaringType = (TypeElement) field.getEnclosingElement();
+            return !field.getModifiers().contains(Modifier.PRIVATE) && packageOf(declaringType).equals(packageOf(dataType));
+        }
+
+        private boolean containsTypeVariable(final TypeMirror type) {
+            switch (type.getKind()) {
+                case TYPEVAR:
+                    return true;
+                case ARRAY:
+                    return containsTypeVariable(((ArrayType) type).getComponentType());
+                case WILDCARD:
+                    final WildcardType wildcard = (WildcardType) type;
+                    return wildcard.getExtendsBound() != null && containsTypeVariable(wildcard.getExtendsBound())
+                            || wildcard.getSuperBound() != null && containsTypeVariable(wildcard.getSuperBound());
+                case DECLARED:
+                    for (TypeMirror argument : ((DeclaredType) type).getTypeArguments()) {
+                        if (containsTypeVariable(argument)) {
+                            return true;
+                        }
+                    }
+                    return false;
+                default:
+                    return false;
+            }
+        }
+
+        String readExpression() {
+            return getter != null ? getter + "()" : name;
+        }
+
+        String writeStatement(final String valueExpression) {
+            return setter != null ? setter + "(" + valueExpression + ")" : name + " = " + valueExpression;
+        }
+
+        String deserializerField() {
+            return name + "Deserializer";
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package io.github.cadenceoss.iwf.core.processor;
+
+import io.github.cadenceoss.iwf.core.IwfWorkflow;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Generates IwfGeneratedRegistry for the workflows annotated with {@link IwfWorkflow}, and validates them at compile time:
+ * the annotated class must implement Workflow, be public and non-abstract, have a public no-arg constructor,
+ * and must not use the same workflow type as another annotated workflow.
+ * The generated class is placed in the common package of the annotated workflows, which can be changed by the
+ * processor option -Aiwf.registryPackage=... and must be set when the workflows don't share a package prefix,
+ * as a class in the default package can't be imported.
+ */
+public class IwfWorkflowProcessor extends AbstractProcessor {
+    public static final String REGISTRY_CLASS_NAME = "IwfGeneratedRegistry";
+    public static final String REGISTRY_PACKAGE_OPTION = "iwf.registryPackage";
+
+    private static final String WORKFLOW_INTERFACE = "io.github.cadenceoss.iwf.core.Workflow";
+    private static final String REGISTRY_CLASS = "io.github.cadenceoss.iwf.core.Registry";
+
+    private boolean generated;
+
+    private Messager messager;
+    private Filer filer;
+
+    @Override
+    public synchronized void init(final ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        messager = processingEnv.getMessager();
+        filer = processingEnv.getFiler();
+    }
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Collections.singleton(IwfWorkflow.class.getCanonicalName());
+    }
+
+    @Override
+    public Set<String> getSupportedOptions() {
+        return Collections.singleton(REGISTRY_PACKAGE_OPTION);
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+        // sorted so that the generated source is stable across builds
+        final Set<TypeElement> workflows = new TreeSet<>(Comparator.comparing(type -> type.getQualifiedName().toString()));
+        boolean valid = true;
+        for (Element element : roundEnv.getElementsAnnotatedWith(IwfWorkflow.class)) {
+            if (generated) {
+                error(element, "@IwfWorkflow class must not be generated after %s", REGISTRY_CLASS_NAME);
+                valid = false;
+            } else if (validate(element)) {
+                workflows.add((TypeElement) element);
+            } else {
+                valid = false;
+            }
+        }
+        if (!workflows.isEmpty() && checkDuplicateWorkflowTypes(workflows) && valid) {
+            generated = true;
+            generateRegistry(workflows);
+        }
+        return true;
+    }
+
+    private boolean validate(final Element element) {
+        if (element.getKind() != ElementKind.CLASS) {
+            error(element, "@IwfWorkflow can only be applied to a class");
+            return false;
+        }
+        final TypeElement type = (TypeElement) element;
+        final TypeElement workflowInterface = processingEnv.getElementUtils().getTypeElement(WORKFLOW_INTERFACE);
+        if (!processingEnv.getTypeUtils().isAssignable(type.asType(), processingEnv.getTypeUtils().erasure(workflowInterface.asType()))) {
+            error(type, "@IwfWorkflow class %s must implement %s", type.getQualifiedName(), WORKFLOW_INTERFACE);
+            return false;
+        }
+        if (type.getModifiers().contains(Modifier.ABSTRACT)) {
+            error(type, "@IwfWorkflow class %s must not be abstract", type.getQualifiedName());
+            return false;
+        }
+        if (!isAccessible(type)) {
+            error(type, "@IwfWorkflow class %s must be public, and static if it's a nested class", type.getQualifiedName());
+            return false;
+        }
+        boolean hasNoArgConstructor = false;
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (constructor.getParameters().isEmpty() && constructor.getModifiers().contains(Modifier.PUBLIC)) {
+                hasNoArgConstructor = true;
+            }
+        }
+        if (!hasNoArgConstructor) {
+            error(type, "@IwfWorkflow class %s must have a public no-arg constructor", type.getQualifiedName());
+            return false;
+        }
+        return true;
+    }
+
+    private boolean isAccessible(final TypeElement type) {
+        TypeElement current = type;
+        while (true) {
+            if (!current.getModifiers().contains(Modifier.PUBLIC)) {
+                return false;
+            }
+            if (current.getNestingKind() == NestingKind.TOP_LEVEL) {
+                return true;
+            }
+            if (current.getNestingKind() != NestingKind.MEMBER || !current.getModifiers().contains(Modifier.STATIC)) {
+                return false;
+            }
+            current = (TypeElement) current.getEnclosingElement();
+        }
+    }
+
+    // whether the generated code in the package of the type can access it
+    static boolean isVisibleFromPackage(final TypeElement type) {
+        TypeElement current = type;
+        while (true) {
+            if (current.getModifiers().contains(Modifier.PRIVATE)) {
+                return false;
+            }
+            if (current.getNestingKind() == NestingKind.TOP_LEVEL) {
+                return true;
+            }
+            if (current.getNestingKind() != NestingKind.MEMBER || !current.getModifiers().contains(Modifier.STATIC)) {
+                return false;
+            }
+            current = (TypeElement) current.getEnclosingElement();
+        }
+    }
+
+    /**
+     * The workflow type is the simple class name unless getWorkflowType is overridden, whose value is only known at runtime
+     * and is left to {@link io.github.cadenceoss.iwf.core.Registry#addWorkflow} to check.
+     */
+    private boolean checkDuplicateWorkflowTypes(final Set<TypeElement> workflows) {
+        final Map<String, TypeElement> workflowTypes = new HashMap<>();
+        boolean valid = true;
+        for (TypeElement type : workflows) {
+            if (overridesGetWorkflowType(type)) {
+                continue;
+            }
+            final String workflowType = type.getSimpleName().toString();
+            final TypeElement existing = workflowTypes.putIfAbsent(workflowType, type);
+            if (existing != null) {
+                error(type, "Workflow type %s of %s already exists in %s", workflowType, type.getQualifiedName(), existing.getQualifiedName());
+                valid = false;
+            }
+        }
+        return valid;
+    }
+
+    private boolean overridesGetWorkflowType(final TypeElement type) {
+        for (ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type))) {
+            if (method.getSimpleName().contentEquals("getWorkflowType") && method.getParameters().isEmpty()) {
+                final TypeElement declaringType = (TypeElement) method.getEnclosingElement();
+                if (!declaringType.getQualifiedName().contentEquals(WORKFLOW_INTERFACE)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void generateRegistry(final Set<TypeElement> workflows) {
+        final String packageName = getRegistryPackage(workflows);
+        if (packageName.isEmpty()) {
+            messager.printMessage(Diagnostic.Kind.ERROR, String.format(
+                    "Cannot generate %s into the default package as the @IwfWorkflow classes have no common package, "
+                            + "set the package with -A%s=...", REGISTRY_CLASS_NAME, REGISTRY_PACKAGE_OPTION));
+            return;
+        }
+        final String qualifiedName = packageName + "." + REGISTRY_CLASS_NAME;
+        try {
+            final JavaFileObject file = filer.createSourceFile(qualifiedName, workflows.toArray(new Element[0]));
+            try (Writer writer = file.openWriter(); PrintWriter out = new PrintWriter(writer)) {
+                out.println("package " + packageName + ";");
+                out.println();
+                out.println("/**");
+                out.println(" * Generated by " + IwfWorkflowProcessor.class.getName() + " from the classes annotated with @IwfWorkflow. Do not edit.");
+                out.println(" */");
+                out.println("public final class " + REGISTRY_CLASS_NAME + " {");
+                out.println("    private " + REGISTRY_CLASS_NAME + "() {");
+                out.println("    }");
+                out.println();
+                out.println("    public static java.util.List<" + WORKFLOW_INTERFACE + "> newWorkflows() {");
+                out.println("        final java.util.List<" + WORKFLOW_INTERFACE + "> workflows = new java.util.ArrayList<>(" + workflows.size() + ");");
+                for (TypeElement workflow : workflows) {
+                    out.println("        workflows.add(new " + workflow.getQualifiedName() + "());");
+                }
+                out.println("        return workflows;");
+                out.println("    }");
+                out.println();
+                out.println("    public static void registerAll(final " + REGISTRY_CLASS + " registry) {");
+                out.println("        for (" + WORKFLOW_INTERFACE + " workflow : newWorkflows()) {");
+                out.println("            registry.addWorkflow(workflow);");
+                out.println("        }");
+                out.println("    }");
+                out.println();
+                out.println("    public static " + REGISTRY_CLASS + " newRegistry() {");
+                out.println("        final " + REGISTRY_CLASS + " registry = new " + REGISTRY_CLASS + "();");
+                out.println("        registerAll(registry);");
+                out.println("        return registry;");
+                out.println("    }");
+                out.println("}");
+            }
+        } catch (IOException e) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "Failed to generate " + qualifiedName + ": " + e.getMessage());
+        }
+    }
+
+    private String getRegistryPackage(final Set<TypeElement> workflows) {
+        final String configured = processingEnv.getOptions().get(REGISTRY_PACKAGE_OPTION);
+        if (configured != null) {
+            return configured.trim();
+        }
+        String common = null;
+        for (TypeElement workflow : workflows) {
+            final String packageName = processingEnv.getElementUtils().getPackageOf(workflow).getQualifiedName().toString();
+            common = common == null ? packageName : commonPackage(common, packageName);
+        }
+        return common;
+    }
+
+    static String commonPackage(final String a, final String b) {
+        final String[] partsA = a.split("\\.");
+        final String[] partsB = b.split("\\.");
+        final StringBuilder common = new StringBuilder();
+        for (int i = 0; i < Math.min(partsA.length, partsB.length) && partsA[i].equals(partsB[i]); i++) {
+            if (common.length() > 0) {
+                common.append('.');
+            }
+            common.append(partsA[i]);
+        }
+        return common.toString();
+    }
+
+    private void error(final Element element, final String format, final Object... args) {
+        messager.printMessage(Diagnostic.Kind.ERROR, String.format(format, args), element);
+    }
+}
@@ -0,0 +1,259 @@
+package io.github.cadenceoss.iwf.core.scattergather;
+
+import io.github.cadenceoss.iwf.core.Context;
+import io.github.cadenceoss.iwf.core.StateDecision;
+import io.github.cadenceoss.iwf.core.StateDef;
+import io.github.cadenceoss.iwf.core.StateMovement;
+import io.github.cadenceoss.iwf.core.Workflow;
+import io.github.cadenceoss.iwf.core.WorkflowState;
+import io.github.cadenceoss.iwf.core.attributes.QueryAttributeDef;
+import io.github.cadenceoss.iwf.core.attributes.QueryAttributesRW;
+import io.github.cadenceoss.iwf.core.attributes.SearchAttributesRW;
+import io.github.cadenceoss.iwf.core.attributes.StateLocal;
+import io.github.cadenceoss.iwf.core.command.CommandRequest;
+import io.github.cadenceoss.iwf.core.command.CommandResults;
+import io.github.cadenceoss.iwf.core.command.InterStateChannel;
+import io.github.cadenceoss.iwf.core.command.InterStateChannelCommand;
+import io.github.cadenceoss.iwf.core.command.InterStateChannelCommandResult;
+import io.github.cadenceoss.iwf.core.command.InterStateChannelDef;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A template of a workflow processing the partitions of an input in parallel(scatter), and reducing their results
+ * into an accumulator as they complete(gather). The output of the workflow is the final accumulator.
+ * <p>
+ * The states, the inter-state channel carrying the results and the query attributes are defined by the template:
+ * <ul>
+ *     <li>{@link #SCATTER_STATE_ID} is the starting state, with the input of the workflow as the state input</li>
+ *     <li>{@link #PARTITION_STATE_ID} runs {@link #processPartition} for one partition, and publishes the result</li>
+ *     <li>{@link #GATHER_STATE_ID} reduces the results one at a time, and starts the next partition for each completed
+ *     one, so that at most {@link #getParallelism()} partitions are processed at the same time</li>
+ * </ul>
+ * The progress can be read by the query attributes {@link #COMPLETED_COUNT_KEY}, {@link #PARTITION_COUNT_KEY} and
+ * {@link #ACCUMULATOR_KEY} while the workflow is running.
+ * The results are reduced in the order they complete, so the reducer must not depend on the order of the partitions.
+ *
+ * @param <I> the input of the workflow
+ * @param <R> the result of a partition
+ * @param <A> the accumulator of the results, which is the output of the workflow
+ */
+public abstract class ScatterGatherWorkflow<I, R, A> implements Workflow {
+    public static final String SCATTER_STATE_ID = "ScatterGather-scatter";
+    public static final String PARTITION_STATE_ID = "ScatterGather-partition";
+    public static final String GATHER_STATE_ID = "ScatterGather-gather";
+
+    public static final String RESULT_CHANNEL_NAME = "ScatterGather-results";
+
+    public static final String INPUT_KEY = "ScatterGather-input";
+    public static final String ACCUMULATOR_KEY = "ScatterGather-accumulator";
+    public static final String PARTITION_COUNT_KEY = "ScatterGather-partitionCount";
+    public static final String COMPLETED_COUNT_KEY = "ScatterGather-completedCount";
+
+    public static final int DEFAULT_PARALLELISM = 10;
+
+    public abstract Class<I> getInputType();
+
+    public abstract Class<R> getResultType();
+
+    public abstract Class<A> getAccumulatorType();
+
+    /**
+     * @return the number of partitions of the input. Partitions are identified by their index in [0, count).
+     */
+    protected abstract int getPartitionCount(I input);
+
+    /**
+     * Process a partition of the input. It's executed in the start API of a state, so it's retried on failure
+     * and should be idempotent.
+     */
+    protected abstract R processPartition(Context context, I input, int partition);
+
+    protected abstract A initialAccumulator(I input);
+
+    /**
+     * @return the accumulator with the result of a partition added. The returned accumulator can be the same instance.
+     */
+    protected abstract A reduce(A accumulator, R result);
+
+    /**
+     * @return the max number of partitions processed at the same time
+     */
+    protected int getParallelism() {
+        return DEFAULT_PARALLELISM;
+    }
+
+    @Override
+    public final List<StateDef> getStates() {
+        return Arrays.asList(
+                StateDef.startingState(new ScatterState()),
+                StateDef.nonStartingState(new PartitionState()),
+                StateDef.nonStartingState(new GatherState())
+        );
+    }
+
+    @Override
+    public final List<InterStateChannelDef> getInterStateChannels() {
+        return Arrays.asList(
+                InterStateChannelDef.create(getResultType(), RESULT_CHANNEL_NAME)
+        );
+    }
+
+    @Override
+    public final List<QueryAttributeDef> getQueryAttributes() {
+        return Arrays.asList(
+                QueryAttributeDef.create(getInputType(), INPUT_KEY),
+                QueryAttributeDef.create(getAccumulatorType(), ACCUMULATOR_KEY),
+                QueryAttributeDef.create(Integer.class, PARTITION_COUNT_KEY),
+                QueryAttributeDef.create(Integer.class, COMPLETED_COUNT_KEY)
+        );
+    }
+
+    private class ScatterState implements WorkflowState<I> {
+        @Override
+        public String getStateId() {
+            return SCATTER_STATE_ID;
+        }
+
+        @Override
+        public Class<I> getInputType() {
+            return ScatterGatherWorkflow.this.getInputType();
+        }
+
+        @Override
+        public CommandRequest start(
+                final Context context,
+                final I input,
+                final StateLocal stateLocals,
+                final SearchAttributesRW searchAttributes,
+                final QueryAttributesRW queryAttributes,
+                final InterStateChannel interStateChannel) {
+            return CommandRequest.empty;
+        }
+
+        @Override
+        public StateDecision decide(
+                final Context context,
+                final I input,
+                final CommandResults commandResults,
+                final StateLocal stateLocals,
+                final SearchAttributesRW searchAttributes,
+                final QueryAttributesRW queryAttributes,
+                final InterStateChannel interStateChannel) {
+            final int partitionCount = getPartitionCount(input);
+            if (partitionCount < 0) {
+                throw new IllegalArgumentException("partition count must not be negative: " + partitionCount);
+            }
+            final A accumulator = initialAccumulator(input);
+            queryAttributes.set(INPUT_KEY, input);
+            queryAttributes.set(ACCUMULATOR_KEY, accumulator);
+            queryAttributes.set(PARTITION_COUNT_KEY, partitionCount);
+            queryAttributes.set(COMPLETED_COUNT_KEY, 0);
+            if (partitionCount == 0) {
+                return StateDecision.gracefulCompleteWorkflow(accumulator);
+            }
+
+            final int started = Math.min(Math.max(getParallelism(), 1), partitionCount);
+            final List<StateMovement> nextStates = new ArrayList<>(started + 1);
+            for (int partition = 0; partition < started; partition++) {
+                nextStates.add(StateMovement.create(PARTITION_STATE_ID, partition));
+            }
+            nextStates.add(StateMovement.create(GATHER_STATE_ID, started));
+            return StateDecision.builder().nextStates(nextStates).build();
+        }
+    }
+
+    private class PartitionState implements WorkflowState<Integer> {
+        @Override
+        public String getStateId() {
+            return PARTITION_STATE_ID;
+        }
+
+        @Override
+        public Class<Integer> getInputType() {
+            return Integer.class;
+        }
+
+        @Override
+        public CommandRequest start(
+                final Context context,
+                final Integer partition,
+                final StateLocal stateLocals,
+                final SearchAttributesRW searchAttributes,
+                final QueryAttributesRW queryAttributes,
+                final InterStateChannel interStateChannel) {
+            final I input = queryAttributes.get(INPUT_KEY, ScatterGatherWorkflow.this.getInputType());
+            interStateChannel.publish(RESULT_CHANNEL_NAME, processPartition(context, input, partition));
+            return CommandRequest.empty;
+        }
+
+        @Override
+        public StateDecision decide(
+                final Context context,
+                final Integer partition,
+                final CommandResults commandResults,
+                final StateLocal stateLocals,
+                final SearchAttributesRW searchAttributes,
+                final QueryAttributesRW queryAttributes,
+                final InterStateChannel interStateChannel) {
+            return StateDecision.DEAD_END;
+        }
+    }
+
+    // the input is the index of the next partition to start
+    private class GatherState implements WorkflowState<Integer> {
+        @Override
+        public String getStateId() {
+            return GATHER_STATE_ID;
+        }
+
+        @Override
+        public Class<Integer> getInputType() {
+            return Integer.class;
+        }
+
+        @Override
+        public CommandRequest start(
+                final Context context,
+                final Integer nextPartition,
+                final StateLocal stateLocals,
+                final SearchAttributesRW searchAttributes,
+                final QueryAttributesRW queryAttributes,
+                final InterStateChannel interStateChannel) {
+            return CommandRequest.forAllCommandCompleted(
+                    InterStateChannelCommand.create(RESULT_CHANNEL_NAME)
+            );
+        }
+
+        @Override
+        public StateDecision decide(
+                final Context context,
+                final Integer nextPartition,
+                final CommandResults commandResults,
+                final StateLocal stateLocals,
+                final SearchAttributesRW searchAttributes,
+                final QueryAttributesRW queryAttributes,
+                final InterStateChannel interStateChannel) {
+            final InterStateChannelCommandResult result = commandResults.getAllInterStateChannelCommandResult().get(0);
+            final R value = getResultType().cast(result.getValue().orElse(null));
+            final A accumulator = reduce(queryAttributes.get(ACCUMULATOR_KEY, getAccumulatorType()), value);
+            final int completed = queryAttributes.get(COMPLETED_COUNT_KEY, Integer.class) + 1;
+            final int partitionCount = queryAttributes.get(PARTITION_COUNT_KEY, Integer.class);
+            queryAttributes.set(ACCUMULATOR_KEY, accumulator);
+            queryAttributes.set(COMPLETED_COUNT_KEY, completed);
+            if (completed >= partitionCount) {
+                return StateDecision.gracefulCompleteWorkflow(accumulator);
+            }
+
+            if (nextPartition < partitionCount) {
+                return StateDecision.multiNextStates(
+                        StateMovement.create(PARTITION_STATE_ID, nextPartition),
+                        StateMovement.create(GATHER_STATE_ID, nextPartition + 1)
+                );
+            }
+            return StateDecision.singleNextState(GATHER_STATE_ID, nextPartition);
+        }
+    }
+}
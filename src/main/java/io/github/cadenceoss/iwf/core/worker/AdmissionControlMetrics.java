@@ -0,0 +1,20 @@
+package io.github.cadenceoss.iwf.core.worker;
+
+import org.immutables.value.Value;
+
+import java.util.Map;
+
+/**
+ * A point-in-time snapshot of the bulkheads of {@link AdmissionController}. Bulkheads are created on the first
+ * request of their workflow type or state.
+ */
+@Value.Immutable
+public abstract class AdmissionControlMetrics {
+
+    public abstract Map<String, BulkheadMetrics> getWorkflowTypeBulkheads();
+
+    public abstract Map<StateKey, BulkheadMetrics> getStateBulkheads();
+
+    // requests rejected because of the heap usage, before reaching a bulkhead
+    public abstract long getHeapRejectedCount();
+}
@@ -0,0 +1,68 @@
+package io.github.cadenceoss.iwf.core.worker;
+
+import org.immutables.value.Value;
+
+import java.util.Map;
+import java.util.Optional;
+
+@Value.Immutable
+public abstract class AdmissionControlOptions {
+
+    /**
+     * the limits applied to every workflow type that doesn't have an entry in {@link #getWorkflowTypeLimits()}
+     */
+    @Value.Default
+    public BulkheadLimits getDefaultWorkflowTypeLimits() {
+        return BulkheadLimits.of(100, 100);
+    }
+
+    /**
+     * workflowType -> limits, to give critical or noisy workflow types their own bulkhead size
+     */
+    public abstract Map<String, BulkheadLimits> getWorkflowTypeLimits();
+
+    /**
+     * the limits applied to every state that doesn't have an entry in {@link #getStateLimits()}.
+     * Default to empty which means states are only limited by the bulkhead of their workflow type
+     */
+    public abstract Optional<BulkheadLimits> getDefaultStateLimits();
+
+    /**
+     * key from {@link #stateKey(String, String)} -> limits
+     */
+    public abstract Map<StateKey, BulkheadLimits> getStateLimits();
+
+    /**
+     * how long a queued execution waits for a slot before it's rejected as overloaded
+     */
+    @Value.Default
+    public long getMaxQueueWaitMillis() {
+        return 1000;
+    }
+
+    /**
+     * requests with encoded payloads of at least this size are subject to {@link #getMaxHeapUsageRatioForLargeRequests()}
+     */
+    @Value.Default
+    public long getLargeRequestThresholdBytes() {
+        return 1024 * 1024;
+    }
+
+    /**
+     * large requests are rejected as overloaded when the used heap is above this ratio of the max heap
+     */
+    @Value.Default
+    public double getMaxHeapUsageRatioForLargeRequests() {
+        return 0.8;
+    }
+
+    public static StateKey stateKey(final String workflowType, final String stateId) {
+        return StateKey.of(workflowType, stateId);
+    }
+
+    public static final AdmissionControlOptions defaultOptions = ImmutableAdmissionControlOptions.builder().build();
+
+    public static ImmutableAdmissionControlOptions.Builder builder() {
+        return ImmutableAdmissionControlOptions.builder();
+    }
+}
@@ -0,0 +1,108 @@
+package io.github.cadenceoss.iwf.core.worker;
+
+import io.github.cadenceoss.iwf.core.WorkerOverloadedException;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * AdmissionController decides whether a state execution may run on this worker.
+ * Each workflow type(and optionally each state) gets its own {@link Bulkhead}, so that a traffic spike or a slow
+ * state of one workflow type can only exhaust its own capacity instead of starving the others.
+ */
+public class AdmissionController {
+
+    private final AdmissionControlOptions options;
+    private final Map<String, Bulkhead> workflowTypeBulkheads = new ConcurrentHashMap<>();
+    private final Map<StateKey, Bulkhead> stateBulkheads = new ConcurrentHashMap<>();
+    private final LongAdder heapRejectedCount = new LongAdder();
+
+    public AdmissionController(final AdmissionControlOptions options) {
+        this.options = options;
+    }
+
+    /**
+     * Admit a state execution or throw {@link WorkerOverloadedException}.
+     * The returned permit must be closed when the execution is done.
+     *
+     * @param workflowType     the workflow type of the request
+     * @param stateId          the stateId of the request
+     * @param requestSizeBytes the estimated size of the encoded payloads in the request
+     * @return the permit of the execution
+     */
+    public Permit admit(final String workflowType, final String stateId, final long requestSizeBytes) {
+        checkHeapUsage(workflowType, stateId, requestSizeBytes);
+
+        final Bulkhead typeBulkhead = getWorkflowTypeBulkhead(workflowType);
+        if (!typeBulkhead.tryAcquire(options.getMaxQueueWaitMillis())) {
+            throw overloaded(String.format("workflow type %s is overloaded", workflowType));
+        }
+
+        final Bulkhead stateBulkhead = getStateBulkhead(workflowType, stateId);
+        if (stateBulkhead != null && !stateBulkhead.tryAcquire(options.getMaxQueueWaitMillis())) {
+            typeBulkhead.release();
+            throw overloaded(String.format("state %s of workflow type %s is overloaded", stateId, workflowType));
+        }
+        return new Permit(typeBulkhead, stateBulkhead);
+    }
+
+    private void checkHeapUsage(final String workflowType, final String stateId, final long requestSizeBytes) {
+        if (requestSizeBytes < options.getLargeRequestThresholdBytes()) {
+            return;
+        }
+        final Runtime runtime = Runtime.getRuntime();
+        final long usedBytes = runtime.totalMemory() - runtime.freeMemory();
+        if ((double) usedBytes / runtime.maxMemory() > options.getMaxHeapUsageRatioForLargeRequests()) {
+            heapRejectedCount.increment();
+            throw overloaded(String.format(
+                    "heap usage is too high to accept a request of %d bytes for state %s of workflow type %s",
+                    requestSizeBytes, stateId, workflowType));
+        }
+    }
+
+    private Bulkhead getWorkflowTypeBulkhead(final String workflowType) {
+        return workflowTypeBulkheads.computeIfAbsent(workflowType, type -> new Bulkhead(
+                options.getWorkflowTypeLimits().getOrDefault(type, options.getDefaultWorkflowTypeLimits())));
+    }
+
+    private Bulkhead getStateBulkhead(final String workflowType, final String stateId) {
+        final StateKey key = AdmissionControlOptions.stateKey(workflowType, stateId);
+        final BulkheadLimits limits = options.getStateLimits().get(key);
+        if (limits == null && !options.getDefaultStateLimits().isPresent()) {
+            return null;
+        }
+        return stateBulkheads.computeIfAbsent(key, k -> new Bulkhead(
+                limits != null ? limits : options.getDefaultStateLimits().get()));
+    }
+
+    public AdmissionControlMetrics getMetrics() {
+        final ImmutableAdmissionControlMetrics.Builder builder = ImmutableAdmissionControlMetrics.builder()
+                .heapRejectedCount(heapRejectedCount.sum());
+        workflowTypeBulkheads.forEach((workflowType, bulkhead) -> builder.putWorkflowTypeBulkheads(workflowType, bulkhead.getMetrics()));
+        stateBulkheads.forEach((stateKey, bulkhead) -> builder.putStateBulkheads(stateKey, bulkhead.getMetrics()));
+        return builder.build();
+    }
+
+    private WorkerOverloadedException overloaded(final String message) {
+        return new WorkerOverloadedException(message, options.getMaxQueueWaitMillis());
+    }
+
+    public static class Permit implements AutoCloseable {
+        private final Bulkhead workflowTypeBulkhead;
+        private final Bulkhead stateBulkhead;
+
+        private Permit(final Bulkhead workflowTypeBulkhead, final Bulkhead stateBulkhead) {
+            this.workflowTypeBulkhead = workflowTypeBulkhead;
+            this.stateBulkhead = stateBulkhead;
+        }
+
+        @Override
+        public void close() {
+            if (stateBulkhead != null) {
+                stateBulkhead.release();
+            }
+            workflowTypeBulkhead.release();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package io.github.cadenceoss.iwf.core.worker;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bulkhead bounds the number of running executions with a fair semaphore, and the number of waiting executions
+ * with a counter, so that a burst can never pile up unbounded threads behind a slow workflow type or state.
+ */
+class Bulkhead {
+
+    private final Semaphore permits;
+    private final int maxConcurrent;
+    private final int maxQueued;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final LongAdder rejectedCount = new LongAdder();
+
+    Bulkhead(final BulkheadLimits limits) {
+        this.maxConcurrent = limits.getMaxConcurrentExecutions();
+        this.permits = new Semaphore(limits.getMaxConcurrentExecutions(), true);
+        this.maxQueued = limits.getMaxQueuedExecutions();
+    }
+
+    /**
+     * @return true if a permit is acquired, false if the queue is full or the wait timed out
+     */
+    boolean tryAcquire(final long maxWaitMillis) {
+        if (permits.tryAcquire()) {
+            return true;
+        }
+        if (queued.incrementAndGet() > maxQueued) {
+            queued.decrementAndGet();
+            rejectedCount.increment();
+            return false;
+        }
+        try {
+            if (permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+            rejectedCount.increment();
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            rejectedCount.increment();
+            return false;
+        } finally {
+            queued.decrementAndGet();
+        }
+    }
+
+    void release() {
+        permits.release();
+    }
+
+    BulkheadMetrics getMetrics() {
+        return ImmutableBulkheadMetrics.builder()
+                .runningExecutions(maxConcurrent - permits.availablePermits())
+                .queuedExecutions(queued.get())
+                .rejectedCount(rejectedCount.sum())
+                .build();
+    }
+}
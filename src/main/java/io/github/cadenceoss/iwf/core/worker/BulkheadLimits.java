@@ -0,0 +1,32 @@
+package io.github.cadenceoss.iwf.core.worker;
+
+import org.immutables.value.Value;
+
+/**
+ * The limits of a bulkhead: how many state executions can run at the same time, and how many more can wait for a slot.
+ * Executions arriving when both are exhausted are rejected immediately.
+ */
+@Value.Immutable
+public abstract class BulkheadLimits {
+
+    public abstract int getMaxConcurrentExecutions();
+
+    public abstract int getMaxQueuedExecutions();
+
+    @Value.Check
+    protected void check() {
+        if (getMaxConcurrentExecutions() <= 0) {
+            throw new IllegalArgumentException("maxConcurrentExecutions must be positive");
+        }
+        if (getMaxQueuedExecutions() < 0) {
+            throw new IllegalArgumentException("maxQueuedExecutions must not be negative");
+        }
+    }
+
+    public static BulkheadLimits of(final int maxConcurrentExecutions, final int maxQueuedExecutions) {
+        return ImmutableBulkheadLimits.builder()
+                .maxConcurrentExecutions(maxConcurrentExecutions)
+                .maxQueuedExecutions(maxQueuedExecutions)
+                .build();
+    }
+}
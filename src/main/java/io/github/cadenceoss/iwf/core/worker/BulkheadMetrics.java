@@ -0,0 +1,17 @@
+package io.github.cadenceoss.iwf.core.worker;
+
+import org.immutables.value.Value;
+
+/**
+ * A point-in-time snapshot of a bulkhead of {@link AdmissionController}
+ */
+@Value.Immutable
+public abstract class BulkheadMetrics {
+
+    public abstract int getRunningExecutions();
+
+    public abstract int getQueuedExecutions();
+
+    // executions rejected because the queue was full or the wait timed out
+    public abstract long getRejectedCount();
+}
@@ -0,0 +1,23 @@
+package io.github.cadenceoss.iwf.core.worker;
+
+import org.immutables.value.Value;
+
+/**
+ * A point-in-time snapshot of the counters of a worker side cache
+ */
+@Value.Immutable
+public abstract class CacheMetrics {
+
+    public abstract long getHitCount();
+
+    public abstract long getMissCount();
+
+    public abstract long getEvictionCount();
+
+    public abstract long getSize();
+
+    public double getHitRate() {
+        final long requestCount = getHitCount() + getMissCount();
+        return requestCount == 0 ? 1.0 : (double) getHitCount() / requestCount;
+    }
+}
@@ -0,0 +1,25 @@
+package io.github.cadenceoss.iwf.core.worker;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import io.github.cadenceoss.iwf.gen.models.EncodedObject;
+
+/**
+ * Hashes the content of encoded objects to tell whether a cached decoded value still matches the payload.
+ * A 128-bit hash over the chars is much cheaper than decoding, and collisions are negligible.
+ */
+class ContentHashes {
+
+    private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+
+    static HashCode hash(final EncodedObject encodedObject) {
+        final String encoding = String.valueOf(encodedObject.getEncoding());
+        // the length keeps the boundary between the encoding and the data
+        return HASH_FUNCTION.newHasher()
+                .putInt(encoding.length())
+                .putUnencodedChars(encoding)
+                .putUnencodedChars(String.valueOf(encodedObject.getData()))
+                .hash();
+    }
+}
@@ -0,0 +1,111 @@
+package io.github.cadenceoss.iwf.core.worker;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.github.cadenceoss.iwf.core.WorkerOverloadedException;
+import org.immutables.value.Value;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * IdempotencyCache remembers the response of a start/decide request by state execution and phase, so that when
+ * iwf-server retries a request(e.g. after a timeout), the state API is not executed again.
+ * A duplicate arriving while the original is still executing waits for the original instead of executing in parallel,
+ * up to {@link IdempotencyCacheOptions#getMaxWaitMillis()}.
+ * Failed executions are not cached so that retries can execute again.
+ */
+public class IdempotencyCache {
+
+    public enum Phase {
+        START,
+        DECIDE
+    }
+
+    private final long maxWaitMillis;
+    private final Cache<ResponseKey, CompletableFuture<Object>> responses;
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+
+    public IdempotencyCache(final IdempotencyCacheOptions options) {
+        maxWaitMillis = options.getMaxWaitMillis();
+        responses = CacheBuilder.newBuilder()
+                .maximumSize(options.getMaxEntries())
+                .expireAfterWrite(options.getExpireAfterWriteMillis(), TimeUnit.MILLISECONDS)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * @throws WorkerOverloadedException if a duplicate waited too long for the original execution
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getOrExecute(
+            final String workflowId,
+            final String workflowRunId,
+            final String stateExecutionId,
+            final Phase phase,
+            final Supplier<T> execution) {
+        final ResponseKey key = ImmutableResponseKey.of(StateExecutionKey.of(workflowId, workflowRunId, stateExecutionId), phase);
+        final CompletableFuture<Object> future = new CompletableFuture<>();
+        final CompletableFuture<Object> existing = responses.asMap().putIfAbsent(key, future);
+        if (existing != null) {
+            hitCount.increment();
+            return (T) join(existing);
+        }
+
+        missCount.increment();
+        try {
+            final T response = execution.get();
+            future.complete(response);
+            return response;
+        } catch (RuntimeException | Error e) {
+            responses.asMap().remove(key, future);
+            future.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private Object join(final CompletableFuture<Object> future) {
+        try {
+            return future.get(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // the original is still executing, the retry of iwf-server can pick up its response later
+            throw new WorkerOverloadedException("timed out waiting for the original execution of a duplicate request", maxWaitMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    public CacheMetrics getMetrics() {
+        return ImmutableCacheMetrics.builder()
+                .hitCount(hitCount.sum())
+                .missCount(missCount.sum())
+                .evictionCount(responses.stats().evictionCount())
+                .size(responses.size())
+                .build();
+    }
+
+    @Value.Immutable
+    abstract static class ResponseKey {
+
+        @Value.Parameter
+        abstract StateExecutionKey getStateExecution();
+
+        @Value.Parameter
+        abstract Phase getPhase();
+    }
+}
@@ -0,0 +1,37 @@
+package io.github.cadenceoss.iwf.core.worker;
+
+import org.immutables.value.Value;
+
+@Value.Immutable
+public abstract class IdempotencyCacheOptions {
+
+    /**
+     * the max number of start/decide responses to keep
+     */
+    @Value.Default
+    public long getMaxEntries() {
+        return 10_000;
+    }
+
+    /**
+     * how long a response is kept after it's computed. It should cover the retry window of iwf-server
+     */
+    @Value.Default
+    public long getExpireAfterWriteMillis() {
+        return 60_000;
+    }
+
+    /**
+     * how long a duplicate request waits for the original execution before it's rejected as retryable
+     */
+    @Value.Default
+    public long getMaxWaitMillis() {
+        return 10_000;
+    }
+
+    public static final IdempotencyCacheOptions defaultOptions = ImmutableIdempotencyCacheOptions.builder().build();
+
+    public static ImmutableIdempotencyCacheOptions.Builder builder() {
+        return ImmutableIdempotencyCacheOptions.builder();
+    }
+}
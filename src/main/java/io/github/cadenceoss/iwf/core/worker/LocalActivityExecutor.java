@@ -0,0 +1,280 @@
+package io.github.cadenceoss.iwf.core.worker;
+
+import io.github.cadenceoss.iwf.core.Context;
+import io.github.cadenceoss.iwf.core.UntypedClient;
+import io.github.cadenceoss.iwf.core.WorkerOverloadedException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * LocalActivityExecutor runs long-running work of the states on the worker, outside of the start/decide requests, and
+ * delivers the output to the workflow by a signal. A state schedules an activity in start(or decide) and waits for the
+ * signal with a SignalCommand, so that the request returns right away.
+ * Activities scheduled during a request of {@link io.github.cadenceoss.iwf.core.WorkerService} only start after the
+ * state API returns successfully, and are discarded when it fails. As iwf-server may execute a state API more than
+ * once, activities are executed at least once and must be idempotent.
+ * Activities scheduled by the {@link ParallelScope} subtasks of a state API belong to its request as well, and
+ * scheduling one after the state API returned fails. Activities scheduled from any other thread, e.g. by another
+ * activity, start right away.
+ * The same executor must be passed to the states scheduling activities and to WorkerOptions#getLocalActivityExecutor.
+ */
+public class LocalActivityExecutor {
+    private final UntypedClient client;
+
+    private final ExecutorService ioExecutor;
+    private final ExecutorService cpuExecutor;
+    // used for retry backoff only, the activities are executed by the pools
+    private final ScheduledExecutorService retryScheduler;
+
+    private final Semaphore ioPending;
+    private final Semaphore cpuPending;
+    // bounds the concurrency of IO activities on virtual threads, which are not pooled
+    private final Semaphore ioRunning;
+
+    // the request of the state API executing on the current thread, or of the state API that forked the subtask
+    private static final ThreadLocal<RequestActivities> currentRequest = new ThreadLocal<>();
+
+    private final LongAdder scheduledCount = new LongAdder();
+    private final LongAdder discardedCount = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+    private final LongAdder succeededCount = new LongAdder();
+    private final LongAdder failedCount = new LongAdder();
+    private final LongAdder retryCount = new LongAdder();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+
+    public LocalActivityExecutor(final LocalActivityExecutorOptions options, final UntypedClient client) {
+        this.client = client;
+        final ExecutorService virtualThreads = Threads.newVirtualThreadPerTaskExecutor();
+        this.ioExecutor = virtualThreads != null ? virtualThreads :
+                Executors.newFixedThreadPool(options.getMaxConcurrentIoActivities(), Threads.daemonThreads("iwf-local-activity-io"));
+        this.ioRunning = virtualThreads != null ? new Semaphore(options.getMaxConcurrentIoActivities()) : null;
+        this.cpuExecutor = Executors.newFixedThreadPool(options.getCpuThreads(), Threads.daemonThreads("iwf-local-activity-cpu"));
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(Threads.daemonThreads("iwf-local-activity-retry"));
+        this.ioPending = new Semaphore(options.getMaxPendingActivities());
+        this.cpuPending = new Semaphore(options.getMaxPendingActivities());
+    }
+
+    /**
+     * Schedule an activity signaling the workflow of the context with its output on completion.
+     *
+     * @throws WorkerOverloadedException if too many activities are pending in the pool
+     * @throws IllegalStateException     if it's called by a ParallelScope subtask after its state API returned
+     */
+    public void schedule(final Context context, final LocalActivityOptions options, final Callable<?> activity) {
+        final Semaphore pending = options.getPool() == LocalActivityOptions.Pool.IO ? ioPending : cpuPending;
+        if (!pending.tryAcquire()) {
+            rejectedCount.increment();
+            throw new WorkerOverloadedException("too many pending local activities in pool " + options.getPool(),
+                    options.getRetryBackoffMillis());
+        }
+        pendingCount.incrementAndGet();
+        scheduledCount.increment();
+
+        final Activity scheduled = new Activity(context, options, activity, pending);
+        final RequestActivities request = currentRequest.get();
+        if (request == null || request.executor != this) {
+            // not scheduled by a state API, e.g. by another activity
+            submit(scheduled);
+        } else if (!request.add(scheduled)) {
+            discardedCount.increment();
+            scheduled.complete();
+            throw new IllegalStateException("the state API scheduling the local activity has returned");
+        }
+    }
+
+    public void schedule(final Context context, final String signalChannelName, final Callable<?> activity) {
+        schedule(context, LocalActivityOptions.signalOnCompletion(signalChannelName), activity);
+    }
+
+    /**
+     * Execute a state API, and start the activities it schedules if it returns successfully.
+     * It's called by WorkerService for every start/decide request.
+     */
+    public <T> T executeStateApi(final Supplier<T> stateApi) {
+        final RequestActivities request = new RequestActivities(this);
+        final RequestActivities outer = enterRequest(request);
+        final T response;
+        try {
+            response = stateApi.get();
+        } catch (RuntimeException | Error e) {
+            for (Activity activity : request.close()) {
+                discardedCount.increment();
+                activity.complete();
+            }
+            throw e;
+        } finally {
+            enterRequest(outer);
+        }
+        for (Activity activity : request.close()) {
+            submit(activity);
+        }
+        return response;
+    }
+
+    // used by ParallelScope to run the subtasks in the request of the state API forking them
+    static RequestActivities getCurrentRequest() {
+        return currentRequest.get();
+    }
+
+    // returns the request the current thread was in, to be entered again after
+    static RequestActivities enterRequest(final RequestActivities request) {
+        final RequestActivities outer = currentRequest.get();
+        if (request == null) {
+            currentRequest.remove();
+        } else {
+            currentRequest.set(request);
+        }
+        return outer;
+    }
+
+    private void submit(final Activity activity) {
+        final ExecutorService executor = activity.options.getPool() == LocalActivityOptions.Pool.IO ? ioExecutor : cpuExecutor;
+        try {
+            executor.execute(activity);
+        } catch (RejectedExecutionException e) {
+            // shut down
+            discardedCount.increment();
+            activity.complete();
+        }
+    }
+
+    public LocalActivityMetrics getMetrics() {
+        return ImmutableLocalActivityMetrics.builder()
+                .scheduledCount(scheduledCount.sum())
+                .discardedCount(discardedCount.sum())
+                .rejectedCount(rejectedCount.sum())
+                .succeededCount(succeededCount.sum())
+                .failedCount(failedCount.sum())
+                .retryCount(retryCount.sum())
+                .pendingCount(pendingCount.get())
+                .build();
+    }
+
+    /**
+     * Stop accepting activities, and wait for the running ones to complete. Activities waiting for a retry are dropped.
+     */
+    public void shutdown(final long timeout, final TimeUnit unit) throws InterruptedException {
+        retryScheduler.shutdownNow();
+        ioExecutor.shutdown();
+        cpuExecutor.shutdown();
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        ioExecutor.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        cpuExecutor.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    // the activities scheduled during a state API, which may be added by its subtasks concurrently
+    static final class RequestActivities {
+        private final LocalActivityExecutor executor;
+        // null after the state API returned
+        private List<Activity> activities = new ArrayList<>(1);
+
+        private RequestActivities(final LocalActivityExecutor executor) {
+            this.executor = executor;
+        }
+
+        private synchronized boolean add(final Activity activity) {
+            if (activities == null) {
+                return false;
+            }
+            activities.add(activity);
+            return true;
+        }
+
+        private synchronized List<Activity> close() {
+            final List<Activity> closed = activities;
+            activities = null;
+            return closed;
+        }
+    }
+
+    private class Activity implements Runnable {
+        private final Context context;
+        private final LocalActivityOptions options;
+        private final Callable<?> callable;
+        private final Semaphore pending;
+
+        private int attempts;
+        // kept across attempts, so that only the signal is retried when the activity succeeded
+        private boolean executed;
+        private Object output;
+
+        Activity(final Context context, final LocalActivityOptions options, final Callable<?> callable, final Semaphore pending) {
+            this.context = context;
+            this.options = options;
+            this.callable = callable;
+            this.pending = pending;
+        }
+
+        @Override
+        public void run() {
+            attempts++;
+            try {
+                if (ioRunning != null && options.getPool() == LocalActivityOptions.Pool.IO) {
+                    ioRunning.acquire();
+                    try {
+                        execute();
+                    } finally {
+                        ioRunning.release();
+                    }
+                } else {
+                    execute();
+                }
+                succeededCount.increment();
+                complete();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                discardedCount.increment();
+                complete();
+            } catch (Exception e) {
+                if (attempts < options.getMaxAttempts()) {
+                    retryCount.increment();
+                    try {
+                        retryScheduler.schedule(() -> submit(this), options.getRetryBackoffMillis(), TimeUnit.MILLISECONDS);
+                        return;
+                    } catch (RejectedExecutionException shutdown) {
+                        // fall through to fail
+                    }
+                }
+                fail(e);
+            }
+        }
+
+        private void execute() throws Exception {
+            if (!executed) {
+                output = callable.call();
+                executed = true;
+            }
+            client.SignalWorkflow(context.getWorkflowId(), context.getWorkflowRunId(), options.getSignalChannelName(), output);
+        }
+
+        private void fail(final Exception e) {
+            failedCount.increment();
+            try {
+                if (options.getFailureSignalChannelName().isPresent()) {
+                    client.SignalWorkflow(context.getWorkflowId(), context.getWorkflowRunId(),
+                            options.getFailureSignalChannelName().get(), String.valueOf(e.getMessage()));
+                }
+            } catch (RuntimeException ignored) {
+                // the workflow is expected to time out waiting for the signal
+            } finally {
+                complete();
+            }
+        }
+
+        private void complete() {
+            pendingCount.decrementAndGet();
+            pending.release();
+        }
+    }
+}
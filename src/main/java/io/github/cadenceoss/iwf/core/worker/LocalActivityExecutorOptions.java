@@ -0,0 +1,39 @@
+package io.github.cadenceoss.iwf.core.worker;
+
+import org.immutables.value.Value;
+
+@Value.Immutable
+public abstract class LocalActivityExecutorOptions {
+
+    /**
+     * the max number of {@link LocalActivityOptions.Pool#IO} activities running at the same time. They run on virtual
+     * threads when the JVM supports them, otherwise on a pool of this many threads
+     */
+    @Value.Default
+    public int getMaxConcurrentIoActivities() {
+        return 200;
+    }
+
+    /**
+     * the number of threads running {@link LocalActivityOptions.Pool#CPU} activities
+     */
+    @Value.Default
+    public int getCpuThreads() {
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * the max number of activities scheduled and not yet completed, per pool. Scheduling more fails the state API with
+     * WorkerOverloadedException, so that iwf-server retries the state later
+     */
+    @Value.Default
+    public int getMaxPendingActivities() {
+        return 10_000;
+    }
+
+    public static final LocalActivityExecutorOptions defaultOptions = ImmutableLocalActivityExecutorOptions.builder().build();
+
+    public static ImmutableLocalActivityExecutorOptions.Builder builder() {
+        return ImmutableLocalActivityExecutorOptions.builder();
+    }
+}
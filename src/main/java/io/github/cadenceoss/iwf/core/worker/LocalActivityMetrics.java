@@ -0,0 +1,23 @@
+package io.github.cadenceoss.iwf.core.worker;
+
+import org.immutables.value.Value;
+
+@Value.Immutable
+public abstract class LocalActivityMetrics {
+
+    public abstract long getScheduledCount();
+
+    // activities discarded because the state API scheduling them failed
+    public abstract long getDiscardedCount();
+
+    public abstract long getRejectedCount();
+
+    public abstract long getSucceededCount();
+
+    public abstract long getFailedCount();
+
+    public abstract long getRetryCount();
+
+    // scheduled and not yet completed
+    public abstract long getPendingCount();
+}
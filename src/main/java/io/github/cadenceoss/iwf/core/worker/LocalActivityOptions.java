@@ -0,0 +1,53 @@
+package io.github.cadenceoss.iwf.core.worker;
+
+import org.immutables.value.Value;
+
+import java.util.Optional;
+
+@Value.Immutable
+public abstract class LocalActivityOptions {
+
+    public enum Pool {
+        // blocking work like remote calls
+        IO,
+        // computations
+        CPU
+    }
+
+    /**
+     * the signal channel receiving the output of the activity. It must be defined in the workflow with the output type
+     */
+    public abstract String getSignalChannelName();
+
+    /**
+     * the signal channel receiving the message of the last error(String) when the activity fails all the attempts.
+     * Default to empty which means the failure is only counted in {@link LocalActivityExecutor#getMetrics()}
+     */
+    public abstract Optional<String> getFailureSignalChannelName();
+
+    @Value.Default
+    public Pool getPool() {
+        return Pool.IO;
+    }
+
+    /**
+     * the max attempts of executing the activity and signaling the workflow
+     */
+    @Value.Default
+    public int getMaxAttempts() {
+        return 3;
+    }
+
+    @Value.Default
+    public long getRetryBackoffMillis() {
+        return 1000;
+    }
+
+    public static LocalActivityOptions signalOnCompletion(final String signalChannelName) {
+        return builder().signalChannelName(signalChannelName).build();
+    }
+
+    public static ImmutableLocalActivityOptions.Builder builder() {
+        return ImmutableLocalActivityOptions.builder();
+    }
+}
@@ -0,0 +1,33 @@
+package io.github.cadenceoss.iwf.core.worker;
+
+import org.immutables.value.Value;
+
+/**
+ * Options of executing the states that opt in with StateOptions#getLocalChainingEnabled locally, in the same decide
+ * request of the previous state, instead of returning the decision to iWF server and waiting for it to call back.
+ */
+@Value.Immutable
+public abstract class LocalChainingOptions {
+
+    /**
+     * the max number of states executed locally after the decide of the requested state. The decision of the last one
+     * is returned to the server as it is, so that a long or endless loop of states still makes progress in the history
+     */
+    @Value.Default
+    public int getMaxChainLength() {
+        return 10;
+    }
+
+    @Value.Check
+    protected void check() {
+        if (getMaxChainLength() < 0) {
+            throw new IllegalArgumentException("maxChainLength must not be negative");
+        }
+    }
+
+    public static final LocalChainingOptions defaultOptions = ImmutableLocalChainingOptions.builder().build();
+
+    public static ImmutableLocalChainingOptions.Builder builder() {
+        return ImmutableLocalChainingOptions.builder();
+    }
+}
@@ -0,0 +1,182 @@
+package io.github.cadenceoss.iwf.core.worker;
+
+import io.github.cadenceoss.iwf.core.WorkerService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ParallelScope runs subtasks of a state API in parallel, e.g. calls to several downstream services, with a deadline
+ * shared by all of them. It's opened with Context#openParallelScope, and used from the thread executing the state API:
+ * <pre>{@code
+ * try (ParallelScope scope = context.openParallelScope()) {
+ *     final ParallelScope.Subtask<User> user = scope.fork("user", () -> userService.get(id));
+ *     final ParallelScope.Subtask<Order> order = scope.fork("order", () -> orderService.get(id));
+ *     scope.join();
+ *     return decide(user.get(), order.get());
+ * }
+ * }</pre>
+ * When a subtask fails or the deadline is reached, the other subtasks are cancelled(interrupted) and {@link #join()}
+ * throws {@link ParallelScopeException}. Closing the scope cancels the subtasks that are not completed.
+ * Subtasks scheduling a {@link LocalActivityExecutor} activity schedule it in the request of the state API.
+ */
+public final class ParallelScope implements AutoCloseable {
+    private final ParallelScopeOptions options;
+    private final long deadlineNanos;
+
+    private final List<Subtask<?>> subtasks = new ArrayList<>();
+    // subtasks are added on completion, so that join can fail on the first failure
+    private final BlockingQueue<Subtask<?>> completed = new LinkedBlockingQueue<>();
+    private int joinedCount;
+
+    private ParallelScope(final ParallelScopeOptions options, final long timeoutMillis) {
+        this.options = options;
+        this.deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(timeoutMillis, 0));
+    }
+
+    /**
+     * @param requestDeadlineEpochMillis the deadline of the request executing the state API, or {@link WorkerService#NO_DEADLINE}
+     */
+    public static ParallelScope open(final long requestDeadlineEpochMillis, final ParallelScopeOptions options) {
+        final long timeoutMillis = requestDeadlineEpochMillis == WorkerService.NO_DEADLINE ?
+                options.getDefaultTimeoutMillis() :
+                requestDeadlineEpochMillis - options.getDeadlineMarginMillis() - System.currentTimeMillis();
+        return new ParallelScope(options, timeoutMillis);
+    }
+
+    public <T> Subtask<T> fork(final String name, final Callable<T> callable) {
+        final Subtask<T> subtask = new Subtask<>(name, callable);
+        subtasks.add(subtask);
+        options.getExecutor().execute(subtask);
+        return subtask;
+    }
+
+    /**
+     * Wait for all the forked subtasks to complete.
+     *
+     * @throws ParallelScopeException if a subtask fails or the deadline is reached, after cancelling the other subtasks
+     */
+    public void join() {
+        try {
+            while (joinedCount < subtasks.size()) {
+                final long remainingNanos = deadlineNanos - System.nanoTime();
+                final Subtask<?> subtask = remainingNanos > 0 ? completed.poll(remainingNanos, TimeUnit.NANOSECONDS) : null;
+                if (subtask == null) {
+                    cancelAll();
+                    throw new ParallelScopeException("parallel scope reached the deadline", null, null);
+                }
+                joinedCount++;
+                if (subtask.failure != null) {
+                    cancelAll();
+                    throw new ParallelScopeException("subtask " + subtask.name + " failed", subtask.name, subtask.failure);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancelAll();
+            throw new ParallelScopeException("interrupted while joining the parallel scope", null, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        cancelAll();
+    }
+
+    private void cancelAll() {
+        for (Subtask<?> subtask : subtasks) {
+            subtask.cancel(true);
+        }
+    }
+
+    /**
+     * @return the metrics of the completed subtasks, in the order they were forked
+     */
+    public List<SubtaskMetrics> getSubtaskMetrics() {
+        final List<SubtaskMetrics> metrics = new ArrayList<>(subtasks.size());
+        for (Subtask<?> subtask : subtasks) {
+            if (subtask.metrics != null) {
+                metrics.add(subtask.metrics);
+            }
+        }
+        return metrics;
+    }
+
+    public final class Subtask<T> extends FutureTask<T> {
+        private final String name;
+        private final long forkedNanos = System.nanoTime();
+        private final LocalActivityExecutor.RequestActivities request = LocalActivityExecutor.getCurrentRequest();
+        private volatile long startedNanos;
+        private volatile Throwable failure;
+        private volatile SubtaskMetrics metrics;
+
+        private Subtask(final String name, final Callable<T> callable) {
+            super(callable);
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public void run() {
+            startedNanos = System.nanoTime();
+            final LocalActivityExecutor.RequestActivities outer = LocalActivityExecutor.enterRequest(request);
+            try {
+                super.run();
+            } finally {
+                LocalActivityExecutor.enterRequest(outer);
+            }
+        }
+
+        @Override
+        protected void setException(final Throwable t) {
+            failure = t;
+            super.setException(t);
+        }
+
+        @Override
+        protected void done() {
+            final long now = System.nanoTime();
+            final SubtaskMetrics.Status status = isCancelled() ? SubtaskMetrics.Status.CANCELLED :
+                    failure != null ? SubtaskMetrics.Status.FAILED : SubtaskMetrics.Status.SUCCEEDED;
+            metrics = ImmutableSubtaskMetrics.builder()
+                    .name(name)
+                    .status(status)
+                    .queueNanos(startedNanos == 0 ? now - forkedNanos : startedNanos - forkedNanos)
+                    .runNanos(startedNanos == 0 ? 0 : now - startedNanos)
+                    .build();
+            // listened before join can return
+            try {
+                if (options.getSubtaskListener().isPresent()) {
+                    options.getSubtaskListener().get().accept(metrics);
+                }
+            } finally {
+                completed.add(this);
+            }
+        }
+
+        /**
+         * @return the result of the subtask, after {@link ParallelScope#join()} returned
+         * @throws IllegalStateException if the subtask is not completed successfully
+         */
+        @Override
+        public T get() {
+            if (!isDone() || isCancelled() || failure != null) {
+                throw new IllegalStateException("subtask " + name + " is not completed successfully");
+            }
+            try {
+                return super.get();
+            } catch (InterruptedException | ExecutionException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
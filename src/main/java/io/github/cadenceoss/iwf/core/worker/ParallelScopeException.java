@@ -0,0 +1,19 @@
+package io.github.cadenceoss.iwf.core.worker;
+
+// This indicates a subtask of a ParallelScope failed, or the scope reached its deadline. The other subtasks are cancelled.
+public class ParallelScopeException extends RuntimeException {
+
+    private final String subtaskName;
+
+    public ParallelScopeException(final String message, final String subtaskName, final Throwable cause) {
+        super(message, cause);
+        this.subtaskName = subtaskName;
+    }
+
+    /**
+     * @return the name of the failed subtask, or null if the scope timed out
+     */
+    public String getSubtaskName() {
+        return subtaskName;
+    }
+}
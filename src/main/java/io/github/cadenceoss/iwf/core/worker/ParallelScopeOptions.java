@@ -0,0 +1,61 @@
+package io.github.cadenceoss.iwf.core.worker;
+
+import org.immutables.value.Value;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+@Value.Immutable
+public abstract class ParallelScopeOptions {
+
+    /**
+     * the executor running the subtasks. Default to a shared executor of virtual threads when the JVM supports them,
+     * otherwise of cached daemon threads
+     */
+    @Value.Default
+    public ExecutorService getExecutor() {
+        return DefaultExecutor.INSTANCE;
+    }
+
+    /**
+     * the timeout of the scope when the deadline of the request is unknown
+     */
+    @Value.Default
+    public long getDefaultTimeoutMillis() {
+        return 10_000;
+    }
+
+    /**
+     * the time reserved before the deadline of the request for the state API to return the response
+     */
+    @Value.Default
+    public long getDeadlineMarginMillis() {
+        return 100;
+    }
+
+    /**
+     * called with the metrics of every subtask when it completes, on the thread completing it
+     */
+    public abstract Optional<Consumer<SubtaskMetrics>> getSubtaskListener();
+
+    public static final ParallelScopeOptions defaultOptions = ImmutableParallelScopeOptions.builder().build();
+
+    public static ImmutableParallelScopeOptions.Builder builder() {
+        return ImmutableParallelScopeOptions.builder();
+    }
+
+    // created on first use, so that workers not using parallel scopes don't create the threads
+    private static class DefaultExecutor {
+        private static final ExecutorService INSTANCE = newExecutor();
+
+        private static ExecutorService newExecutor() {
+            final ExecutorService virtualThreads = Threads.newVirtualThreadPerTaskExecutor();
+            if (virtualThreads != null) {
+                return virtualThreads;
+            }
+            return Executors.newCachedThreadPool(Threads.daemonThreads("iwf-parallel-scope"));
+        }
+    }
+}
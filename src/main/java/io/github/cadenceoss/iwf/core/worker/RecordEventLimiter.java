@@ -0,0 +1,128 @@
+package io.github.cadenceoss.iwf.core.worker;
+
+import io.github.cadenceoss.iwf.core.ObjectEncoder;
+import io.github.cadenceoss.iwf.core.attributes.RecordEventEncoder;
+import io.github.cadenceoss.iwf.gen.models.EncodedObject;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * RecordEventLimiter applies the {@link RecordEventPolicy} of the workflow type to the events recorded by the states,
+ * and counts the events it samples out, truncates, summarizes or drops.
+ */
+public class RecordEventLimiter {
+    private static final String TRUNCATED_ENCODING_SUFFIX = "+truncated";
+
+    private final RecordEventOptions options;
+
+    private final LongAdder recordedCount = new LongAdder();
+    private final LongAdder sampledOutCount = new LongAdder();
+    private final LongAdder truncatedCount = new LongAdder();
+    private final LongAdder summarizedCount = new LongAdder();
+    private final LongAdder oversizedDroppedCount = new LongAdder();
+    private final LongAdder overBudgetCount = new LongAdder();
+
+    public RecordEventLimiter(final RecordEventOptions options) {
+        this.options = options;
+    }
+
+    /**
+     * @return the encoder of the events recorded by one start or decide API, which keeps the budget of the request
+     */
+    public RecordEventEncoder encoderFor(final String workflowType, final ObjectEncoder objectEncoder) {
+        final RecordEventPolicy policy = options.getWorkflowTypePolicies().getOrDefault(workflowType, options.getDefaultPolicy());
+        if (policy == RecordEventPolicy.unlimited) {
+            return (key, eventData) -> {
+                recordedCount.increment();
+                return objectEncoder.encode(eventData);
+            };
+        }
+        return new RequestEncoder(policy, objectEncoder);
+    }
+
+    public RecordEventMetrics getMetrics() {
+        return ImmutableRecordEventMetrics.builder()
+                .recordedCount(recordedCount.sum())
+                .sampledOutCount(sampledOutCount.sum())
+                .truncatedCount(truncatedCount.sum())
+                .summarizedCount(summarizedCount.sum())
+                .oversizedDroppedCount(oversizedDroppedCount.sum())
+                .overBudgetCount(overBudgetCount.sum())
+                .build();
+    }
+
+    private class RequestEncoder implements RecordEventEncoder {
+        private final RecordEventPolicy policy;
+        private final ObjectEncoder objectEncoder;
+        private int recordedInRequest;
+
+        RequestEncoder(final RecordEventPolicy policy, final ObjectEncoder objectEncoder) {
+            this.policy = policy;
+            this.objectEncoder = objectEncoder;
+        }
+
+        @Override
+        public EncodedObject encode(final String key, final Object eventData) {
+            if (eventData == null) {
+                // always recorded, see RecordEventEncoder, but still counted against the budget of the request
+                recordedCount.increment();
+                recordedInRequest++;
+                return objectEncoder.encode(null);
+            }
+            // sampled before encoding, so that sampled out events cost nothing
+            if (policy.getSampleRate() < 1 && ThreadLocalRandom.current().nextDouble() >= policy.getSampleRate()) {
+                sampledOutCount.increment();
+                return null;
+            }
+            if (policy.getMaxEventsPerRequest().isPresent() && recordedInRequest >= policy.getMaxEventsPerRequest().get()) {
+                overBudgetCount.increment();
+                return null;
+            }
+
+            EncodedObject encodedObject = objectEncoder.encode(eventData);
+            final String data = encodedObject == null ? null : encodedObject.getData();
+            if (data != null && policy.getMaxEventDataLength().isPresent() && data.length() > policy.getMaxEventDataLength().get()) {
+                RecordEventPolicy.OversizedEventAction action = policy.getOversizedEventAction();
+                if (action == RecordEventPolicy.OversizedEventAction.TRUNCATE
+                        && !policy.getTruncatableEncodings().contains(encodedObject.getEncoding())) {
+                    action = RecordEventPolicy.OversizedEventAction.SUMMARY;
+                }
+                switch (action) {
+                    case TRUNCATE:
+                        truncatedCount.increment();
+                        encodedObject = new EncodedObject()
+                                .encoding(encodedObject.getEncoding() + TRUNCATED_ENCODING_SUFFIX)
+                                .data(truncate(data, policy.getMaxEventDataLength().get()));
+                        break;
+                    case SUMMARY:
+                        summarizedCount.increment();
+                        final Map<String, Object> summary = new LinkedHashMap<>();
+                        summary.put("type", eventData.getClass().getName());
+                        summary.put("encoding", encodedObject.getEncoding());
+                        summary.put("dataLength", data.length());
+                        encodedObject = objectEncoder.encode(summary);
+                        break;
+                    default:
+                        oversizedDroppedCount.increment();
+                        return null;
+                }
+            } else {
+                recordedCount.increment();
+            }
+            recordedInRequest++;
+            return encodedObject;
+        }
+    }
+
+    // cuts before a surrogate pair rather than in the middle of it, which would make the data invalid UTF-16
+    private static String truncate(final String data, final int maxLength) {
+        int end = maxLength;
+        if (end > 0 && Character.isHighSurrogate(data.charAt(end - 1))) {
+            end--;
+        }
+        return data.substring(0, end);
+    }
+}
@@ -0,0 +1,22 @@
+package io.github.cadenceoss.iwf.core.worker;
+
+import org.immutables.value.Value;
+
+@Value.Immutable
+public abstract class RecordEventMetrics {
+
+    // recorded as they are
+    public abstract long getRecordedCount();
+
+    public abstract long getSampledOutCount();
+
+    public abstract long getTruncatedCount();
+
+    public abstract long getSummarizedCount();
+
+    // dropped by OversizedEventAction.DROP
+    public abstract long getOversizedDroppedCount();
+
+    // dropped as the request already recorded maxEventsPerRequest events
+    public abstract long getOverBudgetCount();
+}
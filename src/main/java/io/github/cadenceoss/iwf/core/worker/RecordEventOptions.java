@@ -0,0 +1,26 @@
+package io.github.cadenceoss.iwf.core.worker;
+
+import org.immutables.value.Value;
+
+import java.util.Map;
+
+@Value.Immutable
+public abstract class RecordEventOptions {
+
+    /**
+     * the policy applied to every workflow type that doesn't have an entry in {@link #getWorkflowTypePolicies()}
+     */
+    @Value.Default
+    public RecordEventPolicy getDefaultPolicy() {
+        return RecordEventPolicy.unlimited;
+    }
+
+    /**
+     * workflowType -> policy, e.g. to sample the events of high-frequency workflows only
+     */
+    public abstract Map<String, RecordEventPolicy> getWorkflowTypePolicies();
+
+    public static ImmutableRecordEventOptions.Builder builder() {
+        return ImmutableRecordEventOptions.builder();
+    }
+}
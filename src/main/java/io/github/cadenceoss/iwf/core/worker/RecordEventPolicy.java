@@ -0,0 +1,77 @@
+package io.github.cadenceoss.iwf.core.worker;
+
+import io.github.cadenceoss.iwf.core.JacksonJsonObjectEncoder;
+import org.immutables.value.Value;
+
+import java.util.Collections;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Limits the events recorded by StateLocal#recordEvent, which are kept in the workflow history.
+ * Events are first sampled, then checked against the size limit, then counted against the per-request budget.
+ * Events with null data are recorded as encoded by the ObjectEncoder, like without a policy.
+ */
+@Value.Immutable
+public abstract class RecordEventPolicy {
+
+    public enum OversizedEventAction {
+        // keep the beginning of the encoded data, with the encoding type suffixed by "+truncated".
+        // Events of encodings not in getTruncatableEncodings are summarized instead
+        TRUNCATE,
+        // replace the data by a summary of the event: its Java type and encoded size
+        SUMMARY,
+        DROP
+    }
+
+    /**
+     * the ratio of events recorded, in [0, 1]. Default to 1 which records every event
+     */
+    @Value.Default
+    public double getSampleRate() {
+        return 1;
+    }
+
+    /**
+     * the max length of the encoded data of an event. Default to empty which means no limit
+     */
+    public abstract Optional<Integer> getMaxEventDataLength();
+
+    @Value.Default
+    public OversizedEventAction getOversizedEventAction() {
+        return OversizedEventAction.TRUNCATE;
+    }
+
+    /**
+     * the encoding types whose data is text that can be cut, e.g. JSON. The data of other encodings, like compressed
+     * or binary data carried as Base64, is meaningless once cut. Default to the encoding type of JacksonJsonObjectEncoder
+     */
+    @Value.Default
+    public Set<String> getTruncatableEncodings() {
+        return Collections.singleton(JacksonJsonObjectEncoder.DEFAULT_ENCODING_TYPE);
+    }
+
+    /**
+     * the max number of events recorded by a start or decide API. Default to empty which means no limit
+     */
+    public abstract Optional<Integer> getMaxEventsPerRequest();
+
+    @Value.Check
+    protected void check() {
+        if (getSampleRate() < 0 || getSampleRate() > 1) {
+            throw new IllegalArgumentException("sampleRate must be in [0, 1]");
+        }
+        if (getMaxEventDataLength().isPresent() && getMaxEventDataLength().get() < 0) {
+            throw new IllegalArgumentException("maxEventDataLength must not be negative");
+        }
+        if (getMaxEventsPerRequest().isPresent() && getMaxEventsPerRequest().get() < 0) {
+            throw new IllegalArgumentException("maxEventsPerRequest must not be negative");
+        }
+    }
+
+    public static final RecordEventPolicy unlimited = ImmutableRecordEventPolicy.builder().build();
+
+    public static ImmutableRecordEventPolicy.Builder builder() {
+        return ImmutableRecordEventPolicy.builder();
+    }
+}
@@ -0,0 +1,65 @@
+package io.github.cadenceoss.iwf.core.worker;
+
+import io.github.cadenceoss.iwf.gen.models.CommandResults;
+import io.github.cadenceoss.iwf.gen.models.EncodedObject;
+import io.github.cadenceoss.iwf.gen.models.InterStateChannelResult;
+import io.github.cadenceoss.iwf.gen.models.KeyValue;
+import io.github.cadenceoss.iwf.gen.models.SignalResult;
+import io.github.cadenceoss.iwf.gen.models.WorkflowStateDecideRequest;
+import io.github.cadenceoss.iwf.gen.models.WorkflowStateStartRequest;
+
+import java.util.List;
+
+/**
+ * Estimates how big a worker request is by summing up the encoded payloads it carries, which dominate its size.
+ * The estimate is in chars of the encoded data, which is close enough to bytes for admission decisions.
+ */
+public class RequestSizes {
+
+    public static long estimate(final WorkflowStateStartRequest req) {
+        return size(req.getStateInput()) + size(req.getQueryAttributes());
+    }
+
+    public static long estimate(final WorkflowStateDecideRequest req) {
+        return size(req.getStateInput())
+                + size(req.getQueryAttributes())
+                + size(req.getStateLocalAttributes())
+                + size(req.getCommandResults());
+    }
+
+    private static long size(final CommandResults commandResults) {
+        if (commandResults == null) {
+            return 0;
+        }
+        long size = 0;
+        if (commandResults.getSignalResults() != null) {
+            for (SignalResult result : commandResults.getSignalResults()) {
+                size += size(result.getSignalValue());
+            }
+        }
+        if (commandResults.getInterStateChannelResults() != null) {
+            for (InterStateChannelResult result : commandResults.getInterStateChannelResults()) {
+                size += size(result.getValue());
+            }
+        }
+        return size;
+    }
+
+    private static long size(final List<KeyValue> keyValues) {
+        if (keyValues == null) {
+            return 0;
+        }
+        long size = 0;
+        for (KeyValue keyValue : keyValues) {
+            size += size(keyValue.getValue());
+        }
+        return size;
+    }
+
+    private static long size(final EncodedObject encodedObject) {
+        if (encodedObject == null || encodedObject.getData() == null) {
+            return 0;
+        }
+        return encodedObject.getData().length();
+    }
+}
@@ -0,0 +1,75 @@
+package io.github.cadenceoss.iwf.core.worker;
+
+import org.immutables.value.Value;
+
+import java.util.Map;
+
+@Value.Immutable
+public abstract class SchedulerOptions {
+
+    /**
+     * how many state executions can run at the same time. The rest wait in the scheduler queue
+     */
+    @Value.Default
+    public int getMaxConcurrentExecutions() {
+        return 200;
+    }
+
+    /**
+     * how many state executions can wait in the scheduler queue before new ones are rejected as overloaded
+     */
+    @Value.Default
+    public int getMaxQueuedExecutions() {
+        return 1000;
+    }
+
+    /**
+     * the priority of states that don't set {@link io.github.cadenceoss.iwf.core.StateOptions#getExecutionPriority()}
+     * and whose workflow type is not in {@link #getWorkflowTypePriorities()}
+     */
+    @Value.Default
+    public int getDefaultPriority() {
+        return 0;
+    }
+
+    /**
+     * workflowType -> priority of all the states of the workflow type. Higher value runs first
+     */
+    public abstract Map<String, Integer> getWorkflowTypePriorities();
+
+    /**
+     * the deadline of a request if the caller doesn't provide one, counting from the time it arrives.
+     * It should match the start/decide API timeout of iwf-server, after which there is no point to execute the request
+     */
+    @Value.Default
+    public long getDefaultRequestDeadlineMillis() {
+        return 10_000;
+    }
+
+    /**
+     * for starvation protection, a waiting execution gains one priority level for every interval it has waited
+     */
+    @Value.Default
+    public long getAgingIntervalMillis() {
+        return 100;
+    }
+
+    @Value.Check
+    protected void check() {
+        if (getMaxConcurrentExecutions() <= 0) {
+            throw new IllegalArgumentException("maxConcurrentExecutions must be positive");
+        }
+        if (getMaxQueuedExecutions() < 0) {
+            throw new IllegalArgumentException("maxQueuedExecutions must not be negative");
+        }
+        if (getAgingIntervalMillis() <= 0) {
+            throw new IllegalArgumentException("agingIntervalMillis must be positive");
+        }
+    }
+
+    public static final SchedulerOptions defaultOptions = ImmutableSchedulerOptions.builder().build();
+
+    public static ImmutableSchedulerOptions.Builder builder() {
+        return ImmutableSchedulerOptions.builder();
+    }
+}
@@ -0,0 +1,21 @@
+package io.github.cadenceoss.iwf.core.worker;
+
+import org.immutables.value.Value;
+
+/**
+ * Identifies a state execution on the worker. A stateExecutionId(e.g. "S1-1") is only unique in a workflow execution,
+ * so the workflow execution is part of the key.
+ */
+@Value.Immutable
+public abstract class StateExecutionKey {
+
+    @Value.Parameter
+    public abstract WorkflowExecutionKey getWorkflowExecution();
+
+    @Value.Parameter
+    public abstract String getStateExecutionId();
+
+    public static StateExecutionKey of(final String workflowId, final String workflowRunId, final String stateExecutionId) {
+        return ImmutableStateExecutionKey.of(WorkflowExecutionKey.of(workflowId, workflowRunId), stateExecutionId);
+    }
+}
@@ -0,0 +1,167 @@
+package io.github.cadenceoss.iwf.core.worker;
+
+import io.github.cadenceoss.iwf.core.WorkerOverloadedException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * StateExecutionScheduler bounds the number of running state executions and decides which waiting execution runs next:
+ * the highest priority first, then the earliest deadline first. A waiting execution gains one priority level every
+ * {@link SchedulerOptions#getAgingIntervalMillis()} so that low priority executions are never starved, and an execution
+ * that is still waiting at its deadline is rejected because iwf-server has given up on it anyway.
+ */
+public class StateExecutionScheduler {
+
+    private final SchedulerOptions options;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // the queue is bounded by maxQueuedExecutions, so picking the next ticket by a linear scan is cheap and lets
+    // the aging be computed at the time of picking
+    private final List<Ticket> waiting = new ArrayList<>();
+    private int running;
+    private long sequence;
+
+    public StateExecutionScheduler(final SchedulerOptions options) {
+        this.options = options;
+    }
+
+    /**
+     * Wait until the execution is scheduled to run, or throw {@link WorkerOverloadedException}.
+     * The returned slot must be closed when the execution is done.
+     *
+     * @param priority            the priority of the execution, higher runs first
+     * @param deadlineEpochMillis the time after which the execution is useless
+     * @return the slot of the execution
+     */
+    public Slot acquire(final int priority, final long deadlineEpochMillis) {
+        lock.lock();
+        try {
+            if (running < options.getMaxConcurrentExecutions() && waiting.isEmpty()) {
+                running++;
+                return new Slot();
+            }
+            if (waiting.size() >= options.getMaxQueuedExecutions()) {
+                throw new WorkerOverloadedException("scheduler queue is full", options.getAgingIntervalMillis());
+            }
+            final Ticket ticket = new Ticket(priority, deadlineEpochMillis, System.currentTimeMillis(), sequence++);
+            waiting.add(ticket);
+            awaitGranted(ticket);
+            return new Slot();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void awaitGranted(final Ticket ticket) {
+        try {
+            while (!ticket.granted) {
+                final long remainingMillis = ticket.deadlineEpochMillis - System.currentTimeMillis();
+                if (remainingMillis <= 0) {
+                    waiting.remove(ticket);
+                    throw new WorkerOverloadedException("request deadline exceeded while waiting to be scheduled", 0);
+                }
+                ticket.condition.await(remainingMillis, TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (ticket.granted) {
+                releaseLocked();
+            } else {
+                waiting.remove(ticket);
+            }
+            throw new WorkerOverloadedException("interrupted while waiting to be scheduled", 0);
+        }
+    }
+
+    private void releaseLocked() {
+        running--;
+        final long now = System.currentTimeMillis();
+        while (running < options.getMaxConcurrentExecutions() && !waiting.isEmpty()) {
+            final Ticket next = pickNext(now);
+            waiting.remove(next);
+            next.granted = true;
+            running++;
+            next.condition.signal();
+        }
+    }
+
+    private Ticket pickNext(final long now) {
+        Ticket best = null;
+        long bestPriority = 0;
+        for (Ticket ticket : waiting) {
+            final long effectivePriority = ticket.priority + (now - ticket.enqueuedEpochMillis) / options.getAgingIntervalMillis();
+            if (best == null
+                    || effectivePriority > bestPriority
+                    || (effectivePriority == bestPriority && ticket.isBefore(best))) {
+                best = ticket;
+                bestPriority = effectivePriority;
+            }
+        }
+        return best;
+    }
+
+    public int getRunningExecutions() {
+        lock.lock();
+        try {
+            return running;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getQueuedExecutions() {
+        lock.lock();
+        try {
+            return waiting.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private class Ticket {
+        final int priority;
+        final long deadlineEpochMillis;
+        final long enqueuedEpochMillis;
+        final long sequence;
+        final Condition condition = lock.newCondition();
+        boolean granted;
+
+        Ticket(final int priority, final long deadlineEpochMillis, final long enqueuedEpochMillis, final long sequence) {
+            this.priority = priority;
+            this.deadlineEpochMillis = deadlineEpochMillis;
+            this.enqueuedEpochMillis = enqueuedEpochMillis;
+            this.sequence = sequence;
+        }
+
+        boolean isBefore(final Ticket other) {
+            if (deadlineEpochMillis != other.deadlineEpochMillis) {
+                return deadlineEpochMillis < other.deadlineEpochMillis;
+            }
+            return sequence < other.sequence;
+        }
+    }
+
+    public class Slot implements AutoCloseable {
+        private boolean closed;
+
+        private Slot() {
+        }
+
+        @Override
+        public void close() {
+            lock.lock();
+            try {
+                if (!closed) {
+                    closed = true;
+                    releaseLocked();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
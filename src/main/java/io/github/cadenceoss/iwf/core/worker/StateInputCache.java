@@ -0,0 +1,97 @@
+package io.github.cadenceoss.iwf.core.worker;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashCode;
+import io.github.cadenceoss.iwf.gen.models.EncodedObject;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * StateInputCache keeps the state input decoded in start of a state execution until its decide, so that the same
+ * stateInput is decoded only once per state execution on this worker.
+ * The hash of the encoded input is kept along with the decoded value, and a cached value is only used when the input
+ * of decide has the same hash and is decoded into the same type.
+ */
+public class StateInputCache {
+
+    private final Cache<StateExecutionKey, Entry> decodedInputs;
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+
+    public StateInputCache(final StateInputCacheOptions options) {
+        decodedInputs = CacheBuilder.newBuilder()
+                .maximumSize(options.getMaxEntries())
+                .expireAfterWrite(options.getExpireAfterWriteMillis(), TimeUnit.MILLISECONDS)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * decode the input in start of a state execution and keep it for decide
+     */
+    public Object decodeForStart(
+            final String workflowId,
+            final String workflowRunId,
+            final String stateExecutionId,
+            final EncodedObject stateInput,
+            final Class<?> inputType,
+            final Supplier<Object> decoder) {
+        final Object input = decoder.get();
+        if (stateInput != null && input != null) {
+            decodedInputs.put(StateExecutionKey.of(workflowId, workflowRunId, stateExecutionId),
+                    new Entry(ContentHashes.hash(stateInput), inputType, input));
+        }
+        return input;
+    }
+
+    /**
+     * return the input decoded in start of the same state execution if it matches, otherwise decode it.
+     * Decide is the last use of the input so the entry is removed either way.
+     */
+    public Object decodeForDecide(
+            final String workflowId,
+            final String workflowRunId,
+            final String stateExecutionId,
+            final EncodedObject stateInput,
+            final Class<?> inputType,
+            final Supplier<Object> decoder) {
+        final StateExecutionKey key = StateExecutionKey.of(workflowId, workflowRunId, stateExecutionId);
+        final Entry entry = decodedInputs.getIfPresent(key);
+        if (entry != null) {
+            // only the entry read here, in case a retried start has put a new one meanwhile
+            decodedInputs.asMap().remove(key, entry);
+        }
+        if (entry != null && stateInput != null
+                && entry.inputType == inputType
+                && entry.contentHash.equals(ContentHashes.hash(stateInput))) {
+            hitCount.increment();
+            return entry.input;
+        }
+        missCount.increment();
+        return decoder.get();
+    }
+
+    public CacheMetrics getMetrics() {
+        return ImmutableCacheMetrics.builder()
+                .hitCount(hitCount.sum())
+                .missCount(missCount.sum())
+                .evictionCount(decodedInputs.stats().evictionCount())
+                .size(decodedInputs.size())
+                .build();
+    }
+
+    private static class Entry {
+        final HashCode contentHash;
+        final Class<?> inputType;
+        final Object input;
+
+        Entry(final HashCode contentHash, final Class<?> inputType, final Object input) {
+            this.contentHash = contentHash;
+            this.inputType = inputType;
+            this.input = input;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package io.github.cadenceoss.iwf.core.worker;
+
+import org.immutables.value.Value;
+
+/**
+ * Options of caching the decoded state input from start to decide of the same state execution.
+ * NOTE: the same input object is passed to both start and decide, so state implementations must not mutate the input
+ * in start when this is enabled.
+ */
+@Value.Immutable
+public abstract class StateInputCacheOptions {
+
+    /**
+     * the max number of decoded inputs to keep, which is roughly the number of states waiting for commands on this worker
+     */
+    @Value.Default
+    public long getMaxEntries() {
+        return 10_000;
+    }
+
+    /**
+     * how long a decoded input is kept after start. States waiting on commands for longer will decode again in decide
+     */
+    @Value.Default
+    public long getExpireAfterWriteMillis() {
+        return 5 * 60_000;
+    }
+
+    public static final StateInputCacheOptions defaultOptions = ImmutableStateInputCacheOptions.builder().build();
+
+    public static ImmutableStateInputCacheOptions.Builder builder() {
+        return ImmutableStateInputCacheOptions.builder();
+    }
+}
@@ -0,0 +1,21 @@
+package io.github.cadenceoss.iwf.core.worker;
+
+import org.immutables.value.Value;
+
+/**
+ * Identifies a state of a workflow type, e.g. in {@link AdmissionControlOptions#getStateLimits()}.
+ * Both parts are kept, so that no workflow type and stateId can be mistaken for another pair.
+ */
+@Value.Immutable
+public abstract class StateKey {
+
+    @Value.Parameter
+    public abstract String getWorkflowType();
+
+    @Value.Parameter
+    public abstract String getStateId();
+
+    public static StateKey of(final String workflowType, final String stateId) {
+        return ImmutableStateKey.of(workflowType, stateId);
+    }
+}
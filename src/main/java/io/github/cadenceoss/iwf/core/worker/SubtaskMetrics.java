@@ -0,0 +1,24 @@
+package io.github.cadenceoss.iwf.core.worker;
+
+import org.immutables.value.Value;
+
+@Value.Immutable
+public abstract class SubtaskMetrics {
+
+    public enum Status {
+        SUCCEEDED,
+        FAILED,
+        // cancelled by the failure of another subtask, the deadline or closing the scope
+        CANCELLED
+    }
+
+    public abstract String getName();
+
+    public abstract Status getStatus();
+
+    // the time from forking the subtask to starting it on the executor
+    public abstract long getQueueNanos();
+
+    // the time from starting the subtask to its completion, 0 if it's cancelled before starting
+    public abstract long getRunNanos();
+}
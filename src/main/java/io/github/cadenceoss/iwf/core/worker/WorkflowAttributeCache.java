@@ -0,0 +1,108 @@
+package io.github.cadenceoss.iwf.core.worker;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashCode;
+import io.github.cadenceoss.iwf.core.ObjectEncoder;
+import io.github.cadenceoss.iwf.core.attributes.AttributeDecoder;
+import io.github.cadenceoss.iwf.gen.models.EncodedObject;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * WorkflowAttributeCache keeps the decoded query attributes and state locals of a workflow execution(workflowId + runId),
+ * because consecutive states of the same workflow execution usually run on the same worker with mostly the same
+ * attribute values. A cached value is only used when the encoded value has the same content hash and is decoded into
+ * the same type, so a changed attribute is always decoded again.
+ */
+public class WorkflowAttributeCache {
+
+    public enum AttributeType {
+        QUERY_ATTRIBUTE,
+        STATE_LOCAL
+    }
+
+    private final WorkflowAttributeCacheOptions options;
+    private final Cache<WorkflowExecutionKey, Map<String, Entry>> workflowExecutions;
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+
+    public WorkflowAttributeCache(final WorkflowAttributeCacheOptions options) {
+        this.options = options;
+        workflowExecutions = CacheBuilder.newBuilder()
+                .maximumSize(options.getMaxWorkflowExecutions())
+                .expireAfterAccess(options.getExpireAfterAccessMillis(), TimeUnit.MILLISECONDS)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * @return a decoder of the attributes of the workflow execution which reuses the cached values
+     */
+    public AttributeDecoder decoderFor(
+            final String workflowId,
+            final String workflowRunId,
+            final AttributeType attributeType,
+            final ObjectEncoder objectEncoder) {
+        final Map<String, Entry> attributes = workflowExecutions.asMap()
+                .computeIfAbsent(WorkflowExecutionKey.of(workflowId, workflowRunId), k -> new ConcurrentHashMap<>());
+        return (key, encodedObject, type) -> decode(attributes, attributeType, key, encodedObject, type, objectEncoder);
+    }
+
+    private Object decode(
+            final Map<String, Entry> attributes,
+            final AttributeType attributeType,
+            final String key,
+            final EncodedObject encodedObject,
+            final Class<?> type,
+            final ObjectEncoder objectEncoder) {
+        if (encodedObject == null) {
+            return null;
+        }
+        final String attributeKey = attributeType + ":" + key;
+        final HashCode contentHash = ContentHashes.hash(encodedObject);
+        final Entry entry = attributes.get(attributeKey);
+        if (entry != null && entry.type == type && entry.contentHash.equals(contentHash)) {
+            hitCount.increment();
+            return entry.value;
+        }
+
+        missCount.increment();
+        final Object value = objectEncoder.decode(encodedObject, type);
+        if (value != null && (entry != null || attributes.size() < options.getMaxAttributesPerWorkflowExecution())) {
+            attributes.put(attributeKey, new Entry(contentHash, type, value));
+        }
+        return value;
+    }
+
+    /**
+     * drop the cached attributes of a workflow execution, e.g. when it's completing
+     */
+    public void evict(final String workflowId, final String workflowRunId) {
+        workflowExecutions.invalidate(WorkflowExecutionKey.of(workflowId, workflowRunId));
+    }
+
+    public CacheMetrics getMetrics() {
+        return ImmutableCacheMetrics.builder()
+                .hitCount(hitCount.sum())
+                .missCount(missCount.sum())
+                .evictionCount(workflowExecutions.stats().evictionCount())
+                .size(workflowExecutions.size())
+                .build();
+    }
+
+    private static class Entry {
+        final HashCode contentHash;
+        final Class<?> type;
+        final Object value;
+
+        Entry(final HashCode contentHash, final Class<?> type, final Object value) {
+            this.contentHash = contentHash;
+            this.type = type;
+            this.value = value;
+        }
+    }
+}
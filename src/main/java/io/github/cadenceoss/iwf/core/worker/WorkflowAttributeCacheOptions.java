@@ -0,0 +1,42 @@
+package io.github.cadenceoss.iwf.core.worker;
+
+import org.immutables.value.Value;
+
+/**
+ * Options of caching decoded query attributes and state locals per workflow execution on the worker.
+ * NOTE: the decoded values are shared by all the states of a workflow execution that run on this worker, so
+ * state implementations must not mutate values read from attributes when this is enabled.
+ */
+@Value.Immutable
+public abstract class WorkflowAttributeCacheOptions {
+
+    /**
+     * the max number of workflow executions to keep decoded attributes for
+     */
+    @Value.Default
+    public long getMaxWorkflowExecutions() {
+        return 10_000;
+    }
+
+    /**
+     * the max number of decoded attributes to keep for a workflow execution. The rest are decoded every time
+     */
+    @Value.Default
+    public int getMaxAttributesPerWorkflowExecution() {
+        return 100;
+    }
+
+    /**
+     * how long the decoded attributes of a workflow execution are kept after its last state execution on this worker
+     */
+    @Value.Default
+    public long getExpireAfterAccessMillis() {
+        return 10 * 60_000;
+    }
+
+    public static final WorkflowAttributeCacheOptions defaultOptions = ImmutableWorkflowAttributeCacheOptions.builder().build();
+
+    public static ImmutableWorkflowAttributeCacheOptions.Builder builder() {
+        return ImmutableWorkflowAttributeCacheOptions.builder();
+    }
+}
@@ -0,0 +1,21 @@
+package io.github.cadenceoss.iwf.core.worker;
+
+import org.immutables.value.Value;
+
+/**
+ * Identifies a workflow execution on the worker. Both the workflowId and runId are kept, as a workflowId is reused by
+ * later runs of the workflow.
+ */
+@Value.Immutable
+public abstract class WorkflowExecutionKey {
+
+    @Value.Parameter
+    public abstract String getWorkflowId();
+
+    @Value.Parameter
+    public abstract String getWorkflowRunId();
+
+    public static WorkflowExecutionKey of(final String workflowId, final String workflowRunId) {
+        return ImmutableWorkflowExecutionKey.of(workflowId, workflowRunId);
+    }
+}
@@ -0,0 +1,116 @@
+package io.github.cadenceoss.iwf.core;
+
+import io.github.cadenceoss.iwf.core.blob.BlobStore;
+import io.github.cadenceoss.iwf.gen.models.EncodedObject;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class BlobOffloadingObjectEncoderTest {
+
+    private static class InMemoryBlobStore implements BlobStore {
+        final Map<String, byte[]> blobs = new ConcurrentHashMap<>();
+        final AtomicInteger putCount = new AtomicInteger();
+        final AtomicInteger getCount = new AtomicInteger();
+
+        @Override
+        public void put(final String key, final byte[] data) {
+            putCount.incrementAndGet();
+            blobs.putIfAbsent(key, data);
+        }
+
+        @Override
+        public byte[] get(final String key) {
+            getCount.incrementAndGet();
+            return blobs.get(key);
+        }
+
+        @Override
+        public boolean contains(final String key) {
+            return blobs.containsKey(key);
+        }
+    }
+
+    private final ObjectEncoder json = new JacksonJsonObjectEncoder();
+    private final String large = String.join("", Collections.nCopies(100, "payload "));
+
+    @Test
+    public void testOffloadOnlyAboveThreshold() {
+        final InMemoryBlobStore store = new InMemoryBlobStore();
+        final BlobOffloadingObjectEncoder encoder = new BlobOffloadingObjectEncoder(json, store, 100, 0);
+
+        final EncodedObject small = encoder.encode("small");
+        final EncodedObject offloaded = encoder.encode(large);
+
+        Assertions.assertEquals(json.getEncodingType(), small.getEncoding());
+        Assertions.assertEquals(json.getEncodingType() + "+blob", offloaded.getEncoding());
+        Assertions.assertEquals(64, offloaded.getData().length());
+        Assertions.assertEquals(1, store.blobs.size());
+        Assertions.assertEquals("small", encoder.decode(small, String.class));
+        Assertions.assertEquals(large, encoder.decode(offloaded, String.class));
+        Assertions.assertEquals(1, encoder.getOffloadedCount());
+    }
+
+    @Test
+    public void testRoundTripBytes() {
+        final InMemoryBlobStore store = new InMemoryBlobStore();
+        final BlobOffloadingObjectEncoder encoder = new BlobOffloadingObjectEncoder(json, store, 100, 0);
+
+        final EncodedBytes small = encoder.encodeToBytes("small");
+        final EncodedBytes offloaded = encoder.encodeToBytes(large);
+
+        Assertions.assertEquals(json.getEncodingType(), small.getEncoding());
+        Assertions.assertEquals(encoder.getEncodingType(), offloaded.getEncoding());
+        Assertions.assertEquals(encoder.encode(large).getData(), new String(offloaded.getData(), StandardCharsets.UTF_8));
+        Assertions.assertEquals("small", encoder.decodeFromBytes(small, String.class));
+        Assertions.assertEquals(large, encoder.decodeFromBytes(offloaded, String.class));
+        Assertions.assertNull(encoder.encodeToBytes(null));
+    }
+
+    @Test
+    public void testIdenticalPayloadsAreStoredOnce() {
+        final InMemoryBlobStore store = new InMemoryBlobStore();
+        final BlobOffloadingObjectEncoder encoder = new BlobOffloadingObjectEncoder(json, store, 100,
+                BlobOffloadingObjectEncoder.DEFAULT_HOT_CACHE_MAX_BYTES);
+
+        final EncodedObject first = encoder.encode(large);
+        final EncodedObject second = encoder.encode(large);
+
+        Assertions.assertEquals(first.getData(), second.getData());
+        Assertions.assertEquals(1, store.putCount.get());
+        // served from the hot cache
+        Assertions.assertEquals(large, encoder.decode(second, String.class));
+        Assertions.assertEquals(0, store.getCount.get());
+    }
+
+    @Test
+    public void testDecodeOnOtherWorkerLoadsFromStore() {
+        final InMemoryBlobStore store = new InMemoryBlobStore();
+        final EncodedObject offloaded = new BlobOffloadingObjectEncoder(json, store, 100, 0).encode(large);
+
+        final BlobOffloadingObjectEncoder otherWorker = new BlobOffloadingObjectEncoder(json, store, 100,
+                BlobOffloadingObjectEncoder.DEFAULT_HOT_CACHE_MAX_BYTES);
+        Assertions.assertEquals(large, otherWorker.decode(offloaded, String.class));
+        Assertions.assertEquals(large, otherWorker.decode(offloaded, String.class));
+        Assertions.assertEquals(1, store.getCount.get());
+    }
+
+    @Test
+    public void testRejectMissingOrCorruptedBlob() {
+        final InMemoryBlobStore store = new InMemoryBlobStore();
+        final BlobOffloadingObjectEncoder encoder = new BlobOffloadingObjectEncoder(json, store, 100, 0);
+        final EncodedObject offloaded = encoder.encode(large);
+
+        store.blobs.put(offloaded.getData(), json.encodeToBytes("tampered").getData());
+        Assertions.assertThrows(ObjectEncoderException.class, () -> encoder.decode(offloaded, String.class));
+        store.blobs.clear();
+        Assertions.assertThrows(ObjectEncoderException.class, () -> encoder.decode(offloaded, String.class));
+        Assertions.assertThrows(ObjectEncoderException.class,
+                () -> encoder.decode(new EncodedObject().encoding(encoder.getEncodingType()), String.class));
+    }
+}
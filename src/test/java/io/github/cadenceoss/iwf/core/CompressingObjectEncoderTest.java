@@ -0,0 +1,87 @@
+package io.github.cadenceoss.iwf.core;
+
+import io.github.cadenceoss.iwf.gen.models.EncodedObject;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Random;
+
+public class CompressingObjectEncoderTest {
+
+    private final ObjectEncoder json = new JacksonJsonObjectEncoder();
+
+    @Test
+    public void testCompressOnlyAboveThreshold() {
+        final CompressingObjectEncoder encoder = new CompressingObjectEncoder(json, 100, new GzipCompressor());
+        final String large = String.join("", Collections.nCopies(100, "repeated "));
+
+        final EncodedObject small = encoder.encode("small");
+        final EncodedObject compressed = encoder.encode(large);
+
+        Assertions.assertEquals(json.getEncodingType(), small.getEncoding());
+        Assertions.assertEquals(json.getEncodingType() + "+gzip", compressed.getEncoding());
+        Assertions.assertEquals(encoder.getEncodingType(), compressed.getEncoding());
+        Assertions.assertTrue(compressed.getData().length() < large.length());
+        Assertions.assertEquals("small", encoder.decode(small, String.class));
+        Assertions.assertEquals(large, encoder.decode(compressed, String.class));
+
+        final CompressionMetrics metrics = encoder.getMetrics();
+        Assertions.assertEquals(1, metrics.getCompressedCount());
+        Assertions.assertEquals(1, metrics.getUncompressedCount());
+    }
+
+    @Test
+    public void testKeepIncompressibleValues() {
+        final CompressingObjectEncoder encoder = new CompressingObjectEncoder(json, 0, new GzipCompressor());
+        final byte[] random = new byte[64];
+        new Random(1).nextBytes(random);
+
+        // Base64 of random bytes doesn't shrink below its own length once compressed and encoded as Base64 again
+        final EncodedObject encoded = encoder.encode(random);
+        Assertions.assertEquals(json.getEncodingType(), encoded.getEncoding());
+        Assertions.assertArrayEquals(random, encoder.decode(encoded, byte[].class));
+    }
+
+    @Test
+    public void testDecodeValuesOfDecodeOnlyCompressor() {
+        final Compressor legacy = new GzipCompressor() {
+            @Override
+            public String getName() {
+                return "legacy";
+            }
+        };
+        final CompressingObjectEncoder previous = new CompressingObjectEncoder(json, 0, legacy);
+        final CompressingObjectEncoder current = new CompressingObjectEncoder(json, 0, new GzipCompressor(), legacy);
+        final String large = String.join("", Collections.nCopies(100, "repeated "));
+
+        final EncodedObject encoded = previous.encode(large);
+        Assertions.assertEquals(json.getEncodingType() + "+legacy", encoded.getEncoding());
+        Assertions.assertEquals(large, current.decode(encoded, String.class));
+        Assertions.assertEquals(large, current.decodeFromBytes(encoded.getEncoding(),
+                encoded.getData().getBytes(StandardCharsets.UTF_8), String.class));
+    }
+
+    @Test
+    public void testRoundTripBytes() {
+        final CompressingObjectEncoder encoder = new CompressingObjectEncoder(json, 100, new GzipCompressor());
+        final String large = String.join("", Collections.nCopies(100, "repeated "));
+
+        final EncodedBytes small = encoder.encodeToBytes("small");
+        final EncodedBytes compressed = encoder.encodeToBytes(large);
+
+        Assertions.assertEquals(json.getEncodingType(), small.getEncoding());
+        Assertions.assertEquals(encoder.getEncodingType(), compressed.getEncoding());
+        Assertions.assertEquals(encoder.encode(large).getData(), new String(compressed.getData(), StandardCharsets.UTF_8));
+        Assertions.assertEquals("small", encoder.decodeFromBytes(small, String.class));
+        Assertions.assertEquals(large, encoder.decodeFromBytes(compressed, String.class));
+        Assertions.assertNull(encoder.encodeToBytes(null));
+    }
+
+    @Test
+    public void testRejectNegativeThreshold() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new CompressingObjectEncoder(json, -1, new GzipCompressor()));
+    }
+}
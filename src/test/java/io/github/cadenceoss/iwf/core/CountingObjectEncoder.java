@@ -0,0 +1,52 @@
+package io.github.cadenceoss.iwf.core;
+
+import io.github.cadenceoss.iwf.gen.models.EncodedObject;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts the values encoded and decoded by {@link JacksonJsonObjectEncoder}
+ */
+public class CountingObjectEncoder implements ObjectEncoder {
+
+    private final ObjectEncoder delegate = new JacksonJsonObjectEncoder();
+    private final AtomicInteger encodeCount = new AtomicInteger();
+    private final AtomicInteger decodeCount = new AtomicInteger();
+
+    @Override
+    public String getEncodingType() {
+        return delegate.getEncodingType();
+    }
+
+    @Override
+    public EncodedObject encode(final Object object) {
+        encodeCount.incrementAndGet();
+        return delegate.encode(object);
+    }
+
+    @Override
+    public EncodedBytes encodeToBytes(final Object object) {
+        encodeCount.incrementAndGet();
+        return delegate.encodeToBytes(object);
+    }
+
+    @Override
+    public <T> T decode(final EncodedObject encodedObject, final Class<T> type) {
+        decodeCount.incrementAndGet();
+        return delegate.decode(encodedObject, type);
+    }
+
+    @Override
+    public <T> T decodeFromBytes(final String encoding, final byte[] data, final Class<T> type) {
+        decodeCount.incrementAndGet();
+        return delegate.decodeFromBytes(encoding, data, type);
+    }
+
+    public int getEncodeCount() {
+        return encodeCount.get();
+    }
+
+    public int getDecodeCount() {
+        return decodeCount.get();
+    }
+}
@@ -0,0 +1,36 @@
+package io.github.cadenceoss.iwf.core;
+
+import io.github.cadenceoss.iwf.gen.models.EncodedObject;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class EncodeOnceObjectEncoderTest {
+
+    @Test
+    public void testEncodeSameInstanceOnce() {
+        final CountingObjectEncoder delegate = new CountingObjectEncoder();
+        final EncodeOnceObjectEncoder encoder = new EncodeOnceObjectEncoder(delegate);
+        final String first = new String("input");
+        final String second = new String("other");
+
+        final EncodedObject encoded = encoder.encode(first);
+        Assertions.assertSame(encoded, encoder.encode(first));
+        final EncodedObject encodedSecond = encoder.encode(second);
+        Assertions.assertSame(encodedSecond, encoder.encode(second));
+        Assertions.assertSame(encoded, encoder.encode(first));
+        Assertions.assertEquals(2, delegate.getEncodeCount());
+    }
+
+    @Test
+    public void testEqualInstancesAreEncodedSeparately() {
+        final CountingObjectEncoder delegate = new CountingObjectEncoder();
+        final EncodeOnceObjectEncoder encoder = new EncodeOnceObjectEncoder(delegate);
+
+        final EncodedObject first = encoder.encode(new String("input"));
+        final EncodedObject second = encoder.encode(new String("input"));
+        Assertions.assertNotSame(first, second);
+        Assertions.assertEquals(first.getData(), second.getData());
+        Assertions.assertEquals(2, delegate.getEncodeCount());
+        Assertions.assertNull(encoder.encode(null));
+    }
+}
@@ -0,0 +1,61 @@
+package io.github.cadenceoss.iwf.core;
+
+import io.github.cadenceoss.iwf.gen.models.EncodedObject;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class JacksonBinaryObjectEncoderTest {
+
+    public static class Payload {
+        public String name;
+        public List<Double> values;
+        public Map<String, Long> counters;
+    }
+
+    @Test
+    public void testRoundTripOfAllFormats() {
+        final Payload payload = new Payload();
+        payload.name = "payload";
+        payload.values = Arrays.asList(1.5, -2.25, 1e300);
+        payload.counters = new LinkedHashMap<>();
+        payload.counters.put("max", Long.MAX_VALUE);
+
+        for (JacksonBinaryObjectEncoder.Format format : JacksonBinaryObjectEncoder.Format.values()) {
+            final ObjectEncoder encoder = new JacksonBinaryObjectEncoder(format);
+            final EncodedObject encoded = encoder.encode(payload);
+            Assertions.assertEquals(format.getEncodingType(), encoded.getEncoding());
+
+            final Payload decoded = encoder.decode(encoded, Payload.class);
+            Assertions.assertEquals(payload.name, decoded.name);
+            Assertions.assertEquals(payload.values, decoded.values);
+            Assertions.assertEquals(payload.counters, decoded.counters);
+
+            final EncodedBytes bytes = encoder.encodeToBytes(payload);
+            Assertions.assertEquals(format.getEncodingType(), bytes.getEncoding());
+            final Payload fromBytes = encoder.decodeFromBytes(bytes, Payload.class);
+            Assertions.assertEquals(payload.counters, fromBytes.counters);
+        }
+    }
+
+    @Test
+    public void testRejectOtherEncodings() {
+        final ObjectEncoder smile = new JacksonBinaryObjectEncoder(JacksonBinaryObjectEncoder.Format.SMILE);
+        final ObjectEncoder cbor = new JacksonBinaryObjectEncoder(JacksonBinaryObjectEncoder.Format.CBOR);
+        Assertions.assertThrows(ObjectEncoderException.class, () -> smile.decode(cbor.encode("value"), String.class));
+        Assertions.assertThrows(ObjectEncoderException.class,
+                () -> smile.decode(new EncodedObject().encoding(smile.getEncodingType()).data("not base64!"), String.class));
+    }
+
+    @Test
+    public void testNullValues() {
+        final ObjectEncoder encoder = new JacksonBinaryObjectEncoder(JacksonBinaryObjectEncoder.Format.CBOR);
+        Assertions.assertNull(encoder.encode(null));
+        Assertions.assertNull(encoder.decode(null, String.class));
+        Assertions.assertNull(encoder.decode(new EncodedObject().encoding(encoder.getEncodingType()).data(""), String.class));
+    }
+}
@@ -0,0 +1,90 @@
+package io.github.cadenceoss.iwf.core;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import io.github.cadenceoss.iwf.gen.models.EncodedObject;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public class JacksonJsonObjectEncoderTest {
+
+    public static class Item {
+        public String name;
+        private int count;
+
+        public Item() {
+        }
+
+        Item(final String name, final int count) {
+            this.name = name;
+            this.count = count;
+        }
+    }
+
+    public static class NamedItem extends Item {
+        public String label = "label";
+    }
+
+    public static class NotConstructibleItem {
+        public final String value;
+
+        public NotConstructibleItem(final String value, final int other) {
+            this.value = value;
+        }
+    }
+
+    private final JacksonJsonObjectEncoder encoder = new JacksonJsonObjectEncoder();
+
+    @Test
+    public void testRoundTripWithPrivateFieldsAndJavaTime() {
+        final Item decoded = encoder.decode(encoder.encode(new Item("item", 2)), Item.class);
+        Assertions.assertEquals("item", decoded.name);
+        Assertions.assertEquals(2, decoded.count);
+
+        final OffsetDateTime time = OffsetDateTime.parse("2022-08-01T10:00:00+09:00");
+        Assertions.assertEquals(time, encoder.decode(encoder.encode(time), OffsetDateTime.class));
+        Assertions.assertEquals(Optional.of(1), encoder.decode(encoder.encode(Optional.of(1)), new TypeReference<Optional<Integer>>() {
+        }));
+    }
+
+    @Test
+    public void testWriterIsResolvedByRuntimeClass() {
+        encoder.encode(new Item("item", 1));
+        final EncodedObject encoded = encoder.encode(new NamedItem());
+        Assertions.assertTrue(encoded.getData().contains("\"label\""), encoded.getData());
+    }
+
+    @Test
+    public void testDecodeGenericTypes() {
+        final EncodedObject encoded = encoder.encode(Arrays.asList(new Item("a", 1), new Item("b", 2)));
+
+        final List<Item> items = encoder.decode(encoded, new TypeReference<List<Item>>() {
+        });
+        Assertions.assertEquals("b", items.get(1).name);
+        // the reader of the raw type is not shared with the generic one
+        Assertions.assertTrue(encoder.decode(encoded, List.class).get(0) instanceof Map);
+    }
+
+    @Test
+    public void testRejectOtherEncodingAndInvalidData() {
+        Assertions.assertThrows(ObjectEncoderException.class,
+                () -> encoder.decode(new EncodedObject().encoding("other").data("1"), Integer.class));
+        Assertions.assertThrows(ObjectEncoderException.class,
+                () -> encoder.decode(new EncodedObject().encoding(encoder.getEncodingType()).data("{"), Item.class));
+        Assertions.assertNull(encoder.decode(new EncodedObject().encoding(encoder.getEncodingType()).data(""), Item.class));
+    }
+
+    @Test
+    public void testWarmUpLeavesInvalidTypesToFailOnUse() {
+        encoder.warmUp(Arrays.asList(Item.class, NotConstructibleItem.class));
+
+        Assertions.assertEquals("item", encoder.decode(encoder.encode(new Item("item", 1)), Item.class).name);
+        Assertions.assertThrows(ObjectEncoderException.class,
+                () -> encoder.decode(new EncodedObject().encoding(encoder.getEncodingType()).data("{}"), NotConstructibleItem.class));
+    }
+}
@@ -0,0 +1,88 @@
+package io.github.cadenceoss.iwf.core;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.github.cadenceoss.iwf.gen.models.EncodedObject;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class MemoizingObjectEncoderTest {
+
+    @IwfImmutable
+    public static class Rate {
+        private final String currency;
+        private final double value;
+
+        @JsonCreator
+        public Rate(@JsonProperty("currency") final String currency, @JsonProperty("value") final double value) {
+            this.currency = currency;
+            this.value = value;
+        }
+
+        public String getCurrency() {
+            return currency;
+        }
+
+        public double getValue() {
+            return value;
+        }
+    }
+
+    public static class MutableRate {
+        public String currency;
+        public double value;
+    }
+
+    private static Rate rate(final String currency) {
+        return new Rate(currency, 1.5);
+    }
+
+    @Test
+    public void testSameInstanceForIdenticalPayloadsOfImmutableTypes() {
+        final CountingObjectEncoder delegate = new CountingObjectEncoder();
+        final MemoizingObjectEncoder encoder = new MemoizingObjectEncoder(delegate);
+        final EncodedObject usd = encoder.encode(rate("USD"));
+
+        final Rate first = encoder.decode(usd, Rate.class);
+        final Rate second = encoder.decode(new EncodedObject().encoding(usd.getEncoding()).data(usd.getData()), Rate.class);
+        final Rate eur = encoder.decode(encoder.encode(rate("EUR")), Rate.class);
+
+        Assertions.assertSame(first, second);
+        Assertions.assertEquals("EUR", eur.getCurrency());
+        Assertions.assertEquals(2, delegate.getDecodeCount());
+        Assertions.assertEquals(1, encoder.getMetrics().getHitCount());
+        Assertions.assertEquals(2, encoder.getMetrics().getSize());
+        // the bytes of the same payload share the entry
+        Assertions.assertSame(first, encoder.decodeFromBytes(encoder.encodeToBytes(rate("USD")), Rate.class));
+    }
+
+    @Test
+    public void testOtherTypesAreDecodedEveryTime() {
+        final CountingObjectEncoder delegate = new CountingObjectEncoder();
+        final MemoizingObjectEncoder encoder = new MemoizingObjectEncoder(delegate,
+                MemoizingObjectEncoder.DEFAULT_MAX_WEIGHT_BYTES, String.class);
+        final EncodedObject encoded = encoder.encode(rate("USD"));
+
+        Assertions.assertNotSame(encoder.decode(encoded, MutableRate.class), encoder.decode(encoded, MutableRate.class));
+        Assertions.assertEquals(2, delegate.getDecodeCount());
+        // the same payload decoded as another memoizable type is a separate entry
+        final EncodedObject text = encoder.encode("USD");
+        Assertions.assertSame(encoder.decode(text, String.class), encoder.decode(text, String.class));
+        Assertions.assertEquals(3, delegate.getDecodeCount());
+        Assertions.assertEquals(1, encoder.getMetrics().getSize());
+    }
+
+    @Test
+    public void testEvictByEncodedSize() {
+        final MemoizingObjectEncoder encoder = new MemoizingObjectEncoder(new JacksonJsonObjectEncoder(), 40);
+        final List<String> currencies = Arrays.asList("USD", "EUR", "JPY", "GBP", "CHF");
+        for (String currency : currencies) {
+            encoder.decode(encoder.encode(rate(currency)), Rate.class);
+        }
+        Assertions.assertTrue(encoder.getMetrics().getSize() < currencies.size());
+        Assertions.assertTrue(encoder.getMetrics().getEvictionCount() > 0);
+    }
+}
@@ -0,0 +1,83 @@
+package io.github.cadenceoss.iwf.core;
+
+import io.github.cadenceoss.iwf.gen.models.EncodedObject;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+public class ObjectEncoderBytesTest {
+
+    // only implements the required methods, to test the default byte methods of ObjectEncoder
+    private static class StringOnlyEncoder implements ObjectEncoder {
+        private final ObjectEncoder delegate = new JacksonJsonObjectEncoder();
+
+        @Override
+        public String getEncodingType() {
+            return delegate.getEncodingType();
+        }
+
+        @Override
+        public EncodedObject encode(final Object object) {
+            return delegate.encode(object);
+        }
+
+        @Override
+        public <T> T decode(final EncodedObject encodedObject, final Class<T> type) {
+            return delegate.decode(encodedObject, type);
+        }
+    }
+
+    @Test
+    public void testBytesAreUtf8OfData() {
+        for (ObjectEncoder encoder : new ObjectEncoder[]{new JacksonJsonObjectEncoder(), new StringOnlyEncoder()}) {
+            final String value = "h\u00e9llo";
+            final EncodedBytes encoded = encoder.encodeToBytes(value);
+            final byte[] bytes = encoded.getData();
+
+            Assertions.assertEquals(encoder.getEncodingType(), encoded.getEncoding());
+            Assertions.assertArrayEquals(encoder.encode(value).getData().getBytes(StandardCharsets.UTF_8), bytes);
+            // Jackson may escape supplementary characters in bytes, which decode to the same value
+            final String emoji = "\ud83d\ude00";
+            Assertions.assertEquals(emoji, encoder.decodeFromBytes(encoder.encodeToBytes(emoji), String.class));
+            Assertions.assertEquals(value, encoder.decodeFromBytes(encoder.getEncodingType(), bytes, String.class));
+            Assertions.assertEquals(value, encoder.decodeFromStream(encoder.getEncodingType(), new ByteArrayInputStream(bytes), String.class));
+            Assertions.assertNull(encoder.encodeToBytes(null));
+            Assertions.assertNull(encoder.decodeFromBytes(encoder.getEncodingType(), null, String.class));
+        }
+    }
+
+    @Test
+    public void testEmptyDataIsDecodedAsNull() {
+        for (ObjectEncoder encoder : new ObjectEncoder[]{new JacksonJsonObjectEncoder(), new StringOnlyEncoder()}) {
+            Assertions.assertNull(encoder.decodeFromBytes(encoder.getEncodingType(), new byte[0], String.class));
+            Assertions.assertNull(encoder.decodeFromStream(encoder.getEncodingType(), new ByteArrayInputStream(new byte[0]), String.class));
+        }
+    }
+
+    @Test
+    public void testRejectOtherEncoding() {
+        final ObjectEncoder encoder = new JacksonJsonObjectEncoder();
+        final byte[] bytes = encoder.encodeToBytes(1).getData();
+        Assertions.assertThrows(ObjectEncoderException.class, () -> encoder.decodeFromBytes("other", bytes, Integer.class));
+        Assertions.assertThrows(ObjectEncoderException.class,
+                () -> encoder.decodeFromStream("other", new ByteArrayInputStream(bytes), Integer.class));
+    }
+
+    @Test
+    public void testWrappingEncodersRoundTripBytes() {
+        final ObjectEncoder smile = new JacksonBinaryObjectEncoder(JacksonBinaryObjectEncoder.Format.SMILE);
+        final ObjectEncoder[] encoders = new ObjectEncoder[]{
+                new RoutingObjectEncoder(smile, new JacksonJsonObjectEncoder()),
+                new MemoizingObjectEncoder(smile),
+                new EncodeOnceObjectEncoder(smile)
+        };
+        for (ObjectEncoder encoder : encoders) {
+            final EncodedBytes encoded = encoder.encodeToBytes("value");
+            Assertions.assertEquals(encoder.encode("value").getEncoding(), encoded.getEncoding());
+            Assertions.assertEquals("value", encoder.decodeFromBytes(encoded, String.class));
+            Assertions.assertNull(encoder.decodeFromBytes(null, String.class));
+        }
+    }
+}
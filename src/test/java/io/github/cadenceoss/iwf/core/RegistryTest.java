@@ -0,0 +1,171 @@
+package io.github.cadenceoss.iwf.core;
+
+import io.github.cadenceoss.iwf.core.attributes.QueryAttributeDef;
+import io.github.cadenceoss.iwf.core.attributes.QueryAttributesRW;
+import io.github.cadenceoss.iwf.core.attributes.SearchAttributesRW;
+import io.github.cadenceoss.iwf.core.attributes.StateLocal;
+import io.github.cadenceoss.iwf.core.command.CommandRequest;
+import io.github.cadenceoss.iwf.core.command.CommandResults;
+import io.github.cadenceoss.iwf.core.command.InterStateChannel;
+import io.github.cadenceoss.iwf.core.command.InterStateChannelDef;
+import io.github.cadenceoss.iwf.core.command.SignalChannelDef;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+public class RegistryTest {
+
+    @Test
+    public void testSnapshotLookups() {
+        final Registry registry = new Registry();
+        registry.addWorkflows(new TestWorkflow("wf1", "S1", "S2"), new TestWorkflow("wf2", "S1"));
+
+        final RegistrySnapshot snapshot = registry.getSnapshot();
+        Assertions.assertEquals(1, snapshot.getVersion());
+        Assertions.assertEquals(Arrays.asList("wf1", "wf2"), snapshot.getWorkflowTypes());
+        Assertions.assertEquals(1, snapshot.getWorkflowTypeIndex("wf2"));
+        Assertions.assertEquals(WorkflowTypeRecord.NOT_FOUND, snapshot.getWorkflowTypeIndex("unknown"));
+
+        final WorkflowTypeRecord record = snapshot.getWorkflowTypeRecord("wf1");
+        Assertions.assertEquals(2, record.getStateCount());
+        Assertions.assertEquals(1, record.getStateIndex("S2"));
+        Assertions.assertEquals("S2", record.getState(1).getWorkflowState().getStateId());
+        Assertions.assertNull(record.getState("unknown"));
+        Assertions.assertSame(record.getStateOptions(1), record.getStateOptions("S2"));
+        Assertions.assertSame(registry.getWorkflowState("wf1", "S1"), record.getState(0));
+    }
+
+    @Test
+    public void testRejectInvalidDefinitionsWithoutPublishing() {
+        final Registry registry = new Registry();
+        registry.addWorkflow(new TestWorkflow("wf1", "S1"));
+
+        Assertions.assertThrows(WorkflowDefinitionException.class,
+                () -> registry.addWorkflows(new TestWorkflow("wf2", "S1"), new TestWorkflow("wf1", "S1")));
+        Assertions.assertThrows(WorkflowDefinitionException.class,
+                () -> registry.publish(Collections.singletonList(new TestWorkflow("wf2", "S1", "S1"))));
+        Assertions.assertThrows(WorkflowDefinitionException.class,
+                () -> registry.publish(Collections.singletonList(new TestWorkflow("wf2"))));
+
+        Assertions.assertEquals(1, registry.getVersion());
+        Assertions.assertNull(registry.getWorkflow("wf2"));
+    }
+
+    @Test
+    public void testPublishReplacesDefinitionAndKeepsIndex() {
+        final Registry registry = new Registry();
+        registry.addWorkflows(new TestWorkflow("wf1", "S1"), new TestWorkflow("wf2", "S1"));
+        final RegistrySnapshot before = registry.getSnapshot();
+
+        final long version = registry.publish(Arrays.asList(new TestWorkflow("wf1", "S1", "S2"), new TestWorkflow("wf3", "S1")));
+
+        Assertions.assertEquals(2, version);
+        final RegistrySnapshot after = registry.getSnapshot();
+        Assertions.assertEquals(0, after.getWorkflowTypeIndex("wf1"));
+        Assertions.assertEquals(2, after.getWorkflowTypeIndex("wf3"));
+        Assertions.assertEquals(2, after.getWorkflowTypeRecord("wf1").getStateCount());
+        // a request that got the previous snapshot keeps its view
+        Assertions.assertEquals(1, before.getWorkflowTypeRecord("wf1").getStateCount());
+    }
+
+    @Test
+    public void testRollbackToRetainedVersion() {
+        final Registry registry = new Registry(2);
+        registry.addWorkflow(new TestWorkflow("wf1", "S1"));
+        registry.publish(Collections.singletonList(new TestWorkflow("wf1", "S1", "S2")));
+        registry.publish(Collections.singletonList(new TestWorkflow("wf1", "S1", "S2", "S3")));
+
+        Assertions.assertEquals(Arrays.asList(3L, 2L), registry.getRetainedVersions());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> registry.rollback(1));
+
+        registry.rollback(2);
+        Assertions.assertEquals(2, registry.getVersion());
+        Assertions.assertEquals(2, registry.getSnapshot().getWorkflowTypeRecord("wf1").getStateCount());
+        registry.rollback(3);
+        Assertions.assertEquals(3, registry.getSnapshot().getWorkflowTypeRecord("wf1").getStateCount());
+    }
+
+    @Test
+    public void testDataTypesOfAllWorkflows() {
+        final Registry registry = new Registry();
+        registry.addWorkflows(new TestWorkflow("wf1", "S1") {
+            @Override
+            public List<SignalChannelDef> getSignalChannels() {
+                return Collections.singletonList(SignalChannelDef.create(Integer.class, "signal"));
+            }
+
+            @Override
+            public List<InterStateChannelDef> getInterStateChannels() {
+                return Collections.singletonList(InterStateChannelDef.create(Long.class, "channel"));
+            }
+        }, new TestWorkflow("wf2", "S1") {
+            @Override
+            public List<QueryAttributeDef> getQueryAttributes() {
+                return Collections.singletonList(QueryAttributeDef.create(Boolean.class, "attribute"));
+            }
+        });
+
+        Assertions.assertEquals(new HashSet<>(Arrays.asList(String.class, Integer.class, Long.class, Boolean.class)),
+                registry.getSnapshot().getDataTypes());
+    }
+
+    private static class TestWorkflow implements Workflow {
+        private final String workflowType;
+        private final String[] stateIds;
+
+        TestWorkflow(final String workflowType, final String... stateIds) {
+            this.workflowType = workflowType;
+            this.stateIds = stateIds;
+        }
+
+        @Override
+        public List<StateDef> getStates() {
+            final StateDef[] states = new StateDef[stateIds.length];
+            for (int i = 0; i < stateIds.length; i++) {
+                states[i] = StateDef.startingState(new TestState(stateIds[i]));
+            }
+            return Arrays.asList(states);
+        }
+
+        @Override
+        public String getWorkflowType() {
+            return workflowType;
+        }
+    }
+
+    private static class TestState implements WorkflowState<String> {
+        private final String stateId;
+
+        TestState(final String stateId) {
+            this.stateId = stateId;
+        }
+
+        @Override
+        public String getStateId() {
+            return stateId;
+        }
+
+        @Override
+        public Class<String> getInputType() {
+            return String.class;
+        }
+
+        @Override
+        public CommandRequest start(final Context context, final String input, final StateLocal stateLocals,
+                                    final SearchAttributesRW searchAttributes, final QueryAttributesRW queryAttributes,
+                                    final InterStateChannel interStateChannel) {
+            return CommandRequest.empty;
+        }
+
+        @Override
+        public StateDecision decide(final Context context, final String input, final CommandResults commandResults,
+                                    final StateLocal stateLocals, final SearchAttributesRW searchAttributes,
+                                    final QueryAttributesRW queryAttributes, final InterStateChannel interStateChannel) {
+            return StateDecision.gracefulCompleteWorkflow(input);
+        }
+    }
+}
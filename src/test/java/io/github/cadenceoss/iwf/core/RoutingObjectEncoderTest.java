@@ -0,0 +1,47 @@
+package io.github.cadenceoss.iwf.core;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.cadenceoss.iwf.gen.models.EncodedObject;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+public class RoutingObjectEncoderTest {
+
+    private final ObjectEncoder json = new JacksonJsonObjectEncoder();
+    private final ObjectEncoder next = new JacksonJsonObjectEncoder(new ObjectMapper(), "TestJsonV2");
+
+    @Test
+    public void testDecodeValuesOfPreviousEncoding() {
+        final RoutingObjectEncoder encoder = new RoutingObjectEncoder(next, json);
+
+        final EncodedObject written = encoder.encode("new");
+        Assertions.assertEquals(next.getEncodingType(), written.getEncoding());
+        Assertions.assertEquals("new", encoder.decode(written, String.class));
+        Assertions.assertEquals("old", encoder.decode(json.encode("old"), String.class));
+        Assertions.assertEquals("old", encoder.decodeFromBytes(json.getEncodingType(),
+                "\"old\"".getBytes(StandardCharsets.UTF_8), String.class));
+
+        Assertions.assertEquals(1, encoder.getEncodeCount(next.getEncodingType()));
+        Assertions.assertEquals(0, encoder.getEncodeCount(json.getEncodingType()));
+        Assertions.assertEquals(1, encoder.getDecodeCount(next.getEncodingType()));
+        Assertions.assertEquals(2, encoder.getDecodeCount(json.getEncodingType()));
+    }
+
+    @Test
+    public void testRejectUnknownAndDuplicateEncodings() {
+        final RoutingObjectEncoder encoder = new RoutingObjectEncoder(json);
+        Assertions.assertThrows(ObjectEncoderException.class, () -> encoder.decode(next.encode("value"), String.class));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new RoutingObjectEncoder(json, new JacksonJsonObjectEncoder()));
+    }
+
+    @Test
+    public void testNullValues() {
+        final RoutingObjectEncoder encoder = new RoutingObjectEncoder(json, next);
+        Assertions.assertNull(encoder.encode(null));
+        Assertions.assertNull(encoder.decode(null, String.class));
+        Assertions.assertEquals(0, encoder.getEncodeCount(json.getEncodingType()));
+    }
+}
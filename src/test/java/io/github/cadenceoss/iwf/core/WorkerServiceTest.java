@@ -0,0 +1,280 @@
+package io.github.cadenceoss.iwf.core;
+
+import io.github.cadenceoss.iwf.core.attributes.QueryAttributeDef;
+import io.github.cadenceoss.iwf.core.attributes.QueryAttributesRW;
+import io.github.cadenceoss.iwf.core.attributes.SearchAttributeDef;
+import io.github.cadenceoss.iwf.core.attributes.SearchAttributeType;
+import io.github.cadenceoss.iwf.core.attributes.SearchAttributesRW;
+import io.github.cadenceoss.iwf.core.attributes.StateLocal;
+import io.github.cadenceoss.iwf.core.command.CommandRequest;
+import io.github.cadenceoss.iwf.core.command.CommandResults;
+import io.github.cadenceoss.iwf.core.command.InterStateChannel;
+import io.github.cadenceoss.iwf.core.command.InterStateChannelDef;
+import io.github.cadenceoss.iwf.core.command.TimerCommand;
+import io.github.cadenceoss.iwf.core.worker.LocalChainingOptions;
+import io.github.cadenceoss.iwf.gen.models.InterStateChannelPublishing;
+import io.github.cadenceoss.iwf.gen.models.KeyValue;
+import io.github.cadenceoss.iwf.gen.models.SearchAttribute;
+import io.github.cadenceoss.iwf.gen.models.StateMovement;
+import io.github.cadenceoss.iwf.gen.models.WorkflowStateDecideRequest;
+import io.github.cadenceoss.iwf.gen.models.WorkflowStateDecideResponse;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class WorkerServiceTest {
+
+    private final ObjectEncoder encoder = new JacksonJsonObjectEncoder();
+
+    // the contexts passed to decide, in order
+    private final List<Context> decideContexts = new ArrayList<>();
+
+    @Test
+    public void testExecuteStatesEnabledForLocalChaining() {
+        final WorkerService workerService = createWorkerService(LocalChainingOptions.defaultOptions);
+
+        final WorkflowStateDecideResponse response = workerService.handleWorkflowStateDecide(decideRequest("S1", 1));
+
+        // S2 is executed locally and its decision is returned
+        final StateMovement movement = response.getStateDecision().getNextStates().get(0);
+        Assertions.assertEquals("S3", movement.getStateId());
+        Assertions.assertEquals(20, encoder.decode(movement.getNextStateInput(), Integer.class));
+    }
+
+    @Test
+    public void testReturnDecisionWithoutLocalChainingOptions() {
+        final WorkerService workerService = new WorkerService(createRegistry(), WorkerOptions.minimum(encoder));
+
+        final WorkflowStateDecideResponse response = workerService.handleWorkflowStateDecide(decideRequest("S1", 1));
+
+        final StateMovement movement = response.getStateDecision().getNextStates().get(0);
+        Assertions.assertEquals("S2", movement.getStateId());
+        Assertions.assertEquals(2, encoder.decode(movement.getNextStateInput(), Integer.class));
+    }
+
+    @Test
+    public void testLimitChainLength() {
+        final WorkerService workerService = createWorkerService(LocalChainingOptions.builder().maxChainLength(0).build());
+
+        final WorkflowStateDecideResponse response = workerService.handleWorkflowStateDecide(decideRequest("S1", 1));
+
+        Assertions.assertEquals("S2", response.getStateDecision().getNextStates().get(0).getStateId());
+    }
+
+    @Test
+    public void testRejectNegativeMaxChainLength() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> LocalChainingOptions.builder().maxChainLength(-1).build());
+    }
+
+    @Test
+    public void testMergeAttributeUpsertsOfChainedStates() {
+        final WorkerService workerService = createWorkerService(LocalChainingOptions.defaultOptions);
+
+        final WorkflowStateDecideResponse response = workerService.handleWorkflowStateDecide(decideRequest("S1", 1));
+
+        final Map<String, Integer> queryAttributes = new HashMap<>();
+        for (KeyValue keyValue : response.getUpsertQueryAttributes()) {
+            queryAttributes.put(keyValue.getKey(), encoder.decode(keyValue.getValue(), Integer.class));
+        }
+        Assertions.assertEquals(2, queryAttributes.size());
+        Assertions.assertEquals(1, queryAttributes.get("S1"));
+        Assertions.assertEquals(2, queryAttributes.get("S2"));
+
+        // the upsert of the chained state overwrites the one of the requested state
+        final List<SearchAttribute> searchAttributes = response.getUpsertSearchAttributes();
+        Assertions.assertEquals(1, searchAttributes.size());
+        Assertions.assertEquals(2L, searchAttributes.get(0).getIntegerValue());
+
+        // the state local set by the start of the chained state is read by its decide, but not returned
+        Assertions.assertTrue(response.getUpsertStateLocalAttributes().isEmpty());
+    }
+
+    @Test
+    public void testPrefixRecordEventsOfChainedStates() {
+        final WorkerService workerService = createWorkerService(LocalChainingOptions.defaultOptions);
+
+        final WorkflowStateDecideResponse response = workerService.handleWorkflowStateDecide(decideRequest("S1", 1));
+
+        final List<KeyValue> recordEvents = response.getRecordEvents();
+        Assertions.assertEquals(Arrays.asList("decided", "S1-1/S2-1:decided"), recordEvents.stream()
+                .map(KeyValue::getKey)
+                .collect(Collectors.toList()));
+        Assertions.assertEquals(2, encoder.decode(recordEvents.get(1).getValue(), Integer.class));
+    }
+
+    @Test
+    public void testPublishAcrossChainedStates() {
+        final WorkerService workerService = createWorkerService(LocalChainingOptions.defaultOptions);
+
+        final WorkflowStateDecideResponse response = workerService.handleWorkflowStateDecide(decideRequest("S1", 1));
+
+        final List<InterStateChannelPublishing> publishing = response.getPublishToInterStateChannel();
+        Assertions.assertEquals(2, publishing.size());
+        Assertions.assertEquals("channel", publishing.get(0).getChannelName());
+        Assertions.assertEquals(1, encoder.decode(publishing.get(0).getValue(), Integer.class));
+        Assertions.assertEquals(2, encoder.decode(publishing.get(1).getValue(), Integer.class));
+    }
+
+    @Test
+    public void testRejectChainedStateRequestingCommands() {
+        final WorkerService workerService = createWorkerService(LocalChainingOptions.defaultOptions);
+
+        Assertions.assertThrows(WorkflowDefinitionException.class,
+                () -> workerService.handleWorkflowStateDecide(decideRequest("S4", 1)));
+    }
+
+    @Test
+    public void testCountStateApiTimeoutFromArrival() {
+        final WorkerService workerService = new WorkerService(createRegistry(), WorkerOptions.builder()
+                .objectEncoder(encoder)
+                .stateApiTimeoutMillis(5_000L)
+                .build());
+
+        final long before = System.currentTimeMillis();
+        workerService.handleWorkflowStateDecide(decideRequest("S1", 1));
+        final long after = System.currentTimeMillis();
+        workerService.handleWorkflowStateDecide(decideRequest("S1", 1), 42L);
+
+        final long deadline = decideContexts.get(0).getRequestDeadlineEpochMillis();
+        Assertions.assertTrue(deadline >= before + 5_000 && deadline <= after + 5_000, String.valueOf(deadline));
+        // the deadline passed by the caller is kept
+        Assertions.assertEquals(42L, decideContexts.get(1).getRequestDeadlineEpochMillis());
+    }
+
+    @Test
+    public void testNoDeadlineWithoutStateApiTimeout() {
+        final WorkerService workerService = new WorkerService(createRegistry(), WorkerOptions.minimum(encoder));
+
+        workerService.handleWorkflowStateDecide(decideRequest("S1", 1));
+
+        Assertions.assertEquals(WorkerService.NO_DEADLINE, decideContexts.get(0).getRequestDeadlineEpochMillis());
+    }
+
+    private WorkerService createWorkerService(final LocalChainingOptions localChainingOptions) {
+        return new WorkerService(createRegistry(), WorkerOptions.builder()
+                .objectEncoder(encoder)
+                .localChainingOptions(localChainingOptions)
+                .build());
+    }
+
+    private Registry createRegistry() {
+        final Registry registry = new Registry();
+        registry.addWorkflow(new Workflow() {
+            @Override
+            public List<StateDef> getStates() {
+                return Arrays.asList(
+                        StateDef.startingState(new TestState("S1", "S2", 1, false, false)),
+                        StateDef.nonStartingState(new TestState("S2", "S3", 10, true, false)),
+                        StateDef.nonStartingState(new TestState("S3", "S3", 1, false, false)),
+                        StateDef.nonStartingState(new TestState("S4", "S5", 1, false, false)),
+                        StateDef.nonStartingState(new TestState("S5", "S3", 1, true, true)));
+            }
+
+            @Override
+            public List<QueryAttributeDef> getQueryAttributes() {
+                return Arrays.asList(
+                        QueryAttributeDef.create(Integer.class, "S1"),
+                        QueryAttributeDef.create(Integer.class, "S2"),
+                        QueryAttributeDef.create(Integer.class, "S3"),
+                        QueryAttributeDef.create(Integer.class, "S4"),
+                        QueryAttributeDef.create(Integer.class, "S5"));
+            }
+
+            @Override
+            public List<SearchAttributeDef> getSearchAttributes() {
+                return Arrays.asList(SearchAttributeDef.create(SearchAttributeType.INT_64, "input"));
+            }
+
+            @Override
+            public List<InterStateChannelDef> getInterStateChannels() {
+                return Arrays.asList(InterStateChannelDef.create(Integer.class, "channel"));
+            }
+
+            @Override
+            public String getWorkflowType() {
+                return "wf";
+            }
+        });
+        return registry;
+    }
+
+    private WorkflowStateDecideRequest decideRequest(final String stateId, final int input) {
+        return new WorkflowStateDecideRequest()
+                .context(new io.github.cadenceoss.iwf.gen.models.Context()
+                        .workflowId("wf-id")
+                        .workflowRunId("run-id")
+                        .stateExecutionId(stateId + "-1")
+                        .workflowStartedTimestamp(1L))
+                .workflowType("wf")
+                .workflowStateId(stateId)
+                .stateInput(encoder.encode(input));
+    }
+
+    // moves to the next state with the input multiplied by the factor, or added by 1 when the factor is 1,
+    // and upserts, records and publishes its input in decide
+    private class TestState implements WorkflowState<Integer> {
+        private final String stateId;
+        private final String nextStateId;
+        private final int factor;
+        private final boolean localChainingEnabled;
+        private final boolean requestingTimer;
+
+        TestState(final String stateId, final String nextStateId, final int factor, final boolean localChainingEnabled,
+                  final boolean requestingTimer) {
+            this.stateId = stateId;
+            this.nextStateId = nextStateId;
+            this.factor = factor;
+            this.localChainingEnabled = localChainingEnabled;
+            this.requestingTimer = requestingTimer;
+        }
+
+        @Override
+        public String getStateId() {
+            return stateId;
+        }
+
+        @Override
+        public Class<Integer> getInputType() {
+            return Integer.class;
+        }
+
+        @Override
+        public CommandRequest start(final Context context, final Integer input, final StateLocal stateLocals,
+                                    final SearchAttributesRW searchAttributes, final QueryAttributesRW queryAttributes,
+                                    final InterStateChannel interStateChannel) {
+            stateLocals.setLocalAttribute("input", input);
+            return requestingTimer ?
+                    CommandRequest.forAllCommandCompleted(TimerCommand.createByDuration("timer", Duration.ofSeconds(1))) :
+                    CommandRequest.empty;
+        }
+
+        @Override
+        public StateDecision decide(final Context context, final Integer input, final CommandResults commandResults,
+                                    final StateLocal stateLocals, final SearchAttributesRW searchAttributes,
+                                    final QueryAttributesRW queryAttributes, final InterStateChannel interStateChannel) {
+            decideContexts.add(context);
+            queryAttributes.set(stateId, input);
+            searchAttributes.setInt64("input", input.longValue());
+            stateLocals.recordEvent("decided", input);
+            interStateChannel.publish("channel", input);
+            // the decide requests in these tests don't carry the state locals of start
+            if (localChainingEnabled && !input.equals(stateLocals.getLocalAttribute("input", Integer.class))) {
+                throw new IllegalStateException("the state local of start is not kept for decide");
+            }
+            return StateDecision.singleNextState(nextStateId, factor == 1 ? input + 1 : input * factor);
+        }
+
+        @Override
+        public StateOptions getStateOptions() {
+            return ImmutableStateOptions.copyOf(WorkflowState.super.getStateOptions())
+                    .withLocalChainingEnabled(localChainingEnabled);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package io.github.cadenceoss.iwf.core.attributes;
+
+import io.github.cadenceoss.iwf.core.CountingObjectEncoder;
+import io.github.cadenceoss.iwf.core.WorkflowDefinitionException;
+import io.github.cadenceoss.iwf.gen.models.KeyValue;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+public class AttributesRWTest {
+
+    @Test
+    public void testQueryAttributeIsEncodedOncePerSet() {
+        final CountingObjectEncoder encoder = new CountingObjectEncoder();
+        final QueryAttributesRWImpl queryAttributes = new QueryAttributesRWImpl(
+                Collections.singletonMap("key", String.class), new HashMap<>(), encoder);
+        Assertions.assertTrue(queryAttributes.getUpsertQueryAttributes().isEmpty());
+
+        queryAttributes.set("key", "value");
+
+        Assertions.assertEquals(1, encoder.getEncodeCount());
+        final List<KeyValue> upserts = queryAttributes.getUpsertQueryAttributes();
+        Assertions.assertEquals(1, upserts.size());
+        Assertions.assertEquals("key", upserts.get(0).getKey());
+        Assertions.assertEquals("value", queryAttributes.get("key", String.class));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> queryAttributes.set("key", 1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> queryAttributes.set("unknown", "value"));
+    }
+
+    @Test
+    public void testStateLocals() {
+        final CountingObjectEncoder encoder = new CountingObjectEncoder();
+        final StateLocalImpl stateLocals = new StateLocalImpl(new HashMap<>(), encoder);
+        Assertions.assertTrue(stateLocals.getUpsertStateLocalAttributes().isEmpty());
+        Assertions.assertTrue(stateLocals.getRecordEvents().isEmpty());
+
+        stateLocals.setLocalAttribute("key", 1);
+        stateLocals.recordEvent("event", "data");
+
+        Assertions.assertEquals(2, encoder.getEncodeCount());
+        Assertions.assertEquals(1, stateLocals.getLocalAttribute("key", Integer.class));
+        Assertions.assertEquals(1, stateLocals.getUpsertStateLocalAttributes().size());
+        Assertions.assertEquals(1, stateLocals.getRecordEvents().size());
+        Assertions.assertThrows(WorkflowDefinitionException.class, () -> stateLocals.recordEvent("event", "again"));
+    }
+
+    @Test
+    public void testSearchAttributes() {
+        final HashMap<String, SearchAttributeType> types = new HashMap<>();
+        types.put("int", SearchAttributeType.INT_64);
+        types.put("keyword", SearchAttributeType.KEYWORD);
+        final SearchAttributeRWImpl searchAttributes = new SearchAttributeRWImpl(types, null);
+        Assertions.assertTrue(searchAttributes.getUpsertToServerInt64AttributeMap().isEmpty());
+
+        searchAttributes.setInt64("int", 1L);
+        searchAttributes.setKeyword("keyword", "value");
+
+        Assertions.assertEquals(Collections.singletonMap("int", 1L), searchAttributes.getUpsertToServerInt64AttributeMap());
+        Assertions.assertEquals(Collections.singletonMap("keyword", "value"), searchAttributes.getUpsertToServerKeywordAttributeMap());
+        Assertions.assertThrows(WorkflowDefinitionException.class, () -> searchAttributes.setInt64("keyword", 1L));
+    }
+}
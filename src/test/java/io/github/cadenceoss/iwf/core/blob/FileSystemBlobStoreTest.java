@@ -0,0 +1,44 @@
+package io.github.cadenceoss.iwf.core.blob;
+
+import io.github.cadenceoss.iwf.core.ObjectEncoderException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+
+public class FileSystemBlobStoreTest {
+
+    @Test
+    public void testPutAndGet() throws IOException {
+        final Path directory = Files.createTempDirectory("iwf-blob-test");
+        final BlobStore store = BlobStores.create(FileSystemBlobStoreProvider.NAME,
+                Collections.singletonMap(FileSystemBlobStoreProvider.DIRECTORY_CONFIG, directory.toString()));
+        final byte[] data = "data".getBytes(StandardCharsets.UTF_8);
+
+        Assertions.assertFalse(store.contains("abc123"));
+        Assertions.assertNull(store.get("abc123"));
+        store.put("abc123", data);
+        // the first write wins, as keys are derived from the content
+        store.put("abc123", "other".getBytes(StandardCharsets.UTF_8));
+
+        Assertions.assertTrue(store.contains("abc123"));
+        Assertions.assertArrayEquals(data, store.get("abc123"));
+        Assertions.assertArrayEquals(data, new FileSystemBlobStore(directory).get("abc123"));
+    }
+
+    @Test
+    public void testRejectKeysOutsideTheStore() throws IOException {
+        final BlobStore store = new FileSystemBlobStore(Files.createTempDirectory("iwf-blob-test"));
+        Assertions.assertThrows(ObjectEncoderException.class, () -> store.get("../../etc/passwd"));
+        Assertions.assertThrows(ObjectEncoderException.class, () -> store.put("a", new byte[0]));
+    }
+
+    @Test
+    public void testRejectUnknownProvider() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> BlobStores.create("unknown", Collections.emptyMap()));
+    }
+}
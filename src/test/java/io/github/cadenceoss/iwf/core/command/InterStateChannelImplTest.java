@@ -0,0 +1,143 @@
+package io.github.cadenceoss.iwf.core.command;
+
+import io.github.cadenceoss.iwf.core.CountingObjectEncoder;
+import io.github.cadenceoss.iwf.core.JacksonJsonObjectEncoder;
+import io.github.cadenceoss.iwf.core.ObjectEncoder;
+import io.github.cadenceoss.iwf.core.WorkflowDefinitionException;
+import io.github.cadenceoss.iwf.gen.models.EncodedObject;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class InterStateChannelImplTest {
+
+    public static class Counter {
+        public int count;
+
+        public Counter() {
+        }
+
+        Counter(final int count) {
+            this.count = count;
+        }
+    }
+
+    private final ObjectEncoder encoder = new JacksonJsonObjectEncoder();
+
+    @Test
+    public void testValueIsEncodedWhenPublished() {
+        final InterStateChannelImpl channel = new InterStateChannelImpl(
+                Collections.singletonMap("counter", Counter.class), encoder);
+        final Counter counter = new Counter(1);
+
+        channel.publish("counter", counter);
+        counter.count = 2;
+        channel.publish("counter", counter);
+
+        Assertions.assertTrue(channel.isPublished("counter"));
+        Assertions.assertEquals(1, encoder.decode(channel.getToPublish().get("counter").get(0), Counter.class).count);
+        Assertions.assertEquals(2, encoder.decode(channel.getToPublish().get("counter").get(1), Counter.class).count);
+    }
+
+    @Test
+    public void testRejectValueOfOtherType() {
+        final InterStateChannelImpl channel = new InterStateChannelImpl(
+                Collections.singletonMap("counter", Counter.class), encoder);
+
+        Assertions.assertThrows(WorkflowDefinitionException.class, () -> channel.publish("counter", "text"));
+        Assertions.assertFalse(channel.isPublished("counter"));
+    }
+
+    private InterStateChannelImpl createChannel(final InterStateChannelDef def) {
+        return new InterStateChannelImpl(Collections.singletonMap(def.getChannelName(), def.getValueType()),
+                Collections.singletonMap(def.getChannelName(), def), encoder);
+    }
+
+    private List<Integer> decodePublished(final InterStateChannelImpl channel, final String channelName) {
+        final Map<String, List<EncodedObject>> toPublish = channel.getToPublish();
+        final Integer[] values = new Integer[toPublish.get(channelName).size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = encoder.decode(toPublish.get(channelName).get(i), Integer.class);
+        }
+        return Arrays.asList(values);
+    }
+
+    @Test
+    public void testKeepLatestValue() {
+        final InterStateChannelImpl channel = createChannel(InterStateChannelDef.keepLatest(Integer.class, "latest"));
+
+        channel.publish("latest", 1);
+        channel.publishAll("latest", Arrays.asList(2, 3));
+        Assertions.assertEquals(Collections.singletonList(3), decodePublished(channel, "latest"));
+    }
+
+    @Test
+    public void testMergeValues() {
+        final InterStateChannelImpl channel = createChannel(InterStateChannelDef.merging(Integer.class, "sum", Integer::sum));
+
+        channel.publishAll("sum", Arrays.asList(1, 2, 3));
+        Assertions.assertEquals(Collections.singletonList(6), decodePublished(channel, "sum"));
+        channel.publish("sum", 4);
+        Assertions.assertEquals(Collections.singletonList(10), decodePublished(channel, "sum"));
+    }
+
+    @Test
+    public void testEncodeCompactedValuesOnce() {
+        final CountingObjectEncoder counting = new CountingObjectEncoder();
+        final InterStateChannelDef merging = InterStateChannelDef.merging(Integer.class, "sum", Integer::sum);
+        final InterStateChannelDef latest = InterStateChannelDef.keepLatest(Integer.class, "latest");
+        final Map<String, Class<?>> types = new HashMap<>();
+        types.put("sum", Integer.class);
+        types.put("latest", Integer.class);
+        final Map<String, InterStateChannelDef> defs = new HashMap<>();
+        defs.put("sum", merging);
+        defs.put("latest", latest);
+        final InterStateChannelImpl channel = new InterStateChannelImpl(types, defs, counting);
+
+        channel.publish("sum", 1);
+        channel.publishAll("sum", Arrays.asList(2, 3));
+        channel.publish("latest", 1);
+        channel.publish("latest", 2);
+        Assertions.assertTrue(channel.isPublished("sum"));
+        Assertions.assertEquals(0, counting.getEncodeCount());
+
+        final Map<String, List<EncodedObject>> toPublish = channel.getToPublish();
+        Assertions.assertEquals(2, counting.getEncodeCount());
+        Assertions.assertEquals(6, encoder.decode(toPublish.get("sum").get(0), Integer.class));
+        Assertions.assertEquals(2, encoder.decode(toPublish.get("latest").get(0), Integer.class));
+    }
+
+    @Test
+    public void testKeepAllValuesWithoutCompaction() {
+        final InterStateChannelImpl channel = createChannel(InterStateChannelDef.create(Integer.class, "all"));
+
+        channel.publishAll("all", Arrays.asList(1, 2));
+        channel.publish("all", 3);
+        Assertions.assertEquals(Arrays.asList(1, 2, 3), decodePublished(channel, "all"));
+    }
+
+    @Test
+    public void testPublishAllWithoutValues() {
+        final InterStateChannelImpl channel = createChannel(InterStateChannelDef.keepLatest(Integer.class, "latest"));
+
+        channel.publishAll("latest", Collections.emptyList());
+        Assertions.assertFalse(channel.isPublished("latest"));
+        Assertions.assertTrue(channel.getToPublish().isEmpty());
+    }
+
+    @Test
+    public void testRejectMergedValueOfOtherType() {
+        final InterStateChannelImpl channel = createChannel(
+                InterStateChannelDef.merging(Integer.class, "sum", (a, b) -> null));
+
+        channel.publish("sum", 1);
+        Assertions.assertThrows(WorkflowDefinitionException.class, () -> channel.publishAll("sum", Arrays.asList(2, 3)));
+        // the failed publishing doesn't change the published value
+        Assertions.assertEquals(Collections.singletonList(1), decodePublished(channel, "sum"));
+    }
+}
@@ -0,0 +1,113 @@
+package io.github.cadenceoss.iwf.core.mapper;
+
+import io.github.cadenceoss.iwf.core.CountingObjectEncoder;
+import io.github.cadenceoss.iwf.core.WorkflowDefinitionException;
+import io.github.cadenceoss.iwf.core.command.CommandResults;
+import io.github.cadenceoss.iwf.core.command.ImmutableCommandResults;
+import io.github.cadenceoss.iwf.core.command.ImmutableInterStateChannelCommandResult;
+import io.github.cadenceoss.iwf.core.command.ImmutableSignalCommandResult;
+import io.github.cadenceoss.iwf.gen.models.InterStateChannelResult;
+import io.github.cadenceoss.iwf.gen.models.SignalResult;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+public class CommandResultsMapperTest {
+
+    private final CountingObjectEncoder encoder = new CountingObjectEncoder();
+
+    private CommandResults fromGenerated() {
+        return CommandResultsMapper.fromGenerated(
+                new io.github.cadenceoss.iwf.gen.models.CommandResults()
+                        .signalResults(Arrays.asList(
+                                new SignalResult()
+                                        .commandId("signal-1")
+                                        .signalChannelName("signal")
+                                        .signalValue(encoder.encode(1))
+                                        .signalRequestStatus(SignalResult.SignalRequestStatusEnum.RECEIVED),
+                                new SignalResult()
+                                        .commandId("signal-1")
+                                        .signalChannelName("signal")
+                                        .signalValue(encoder.encode(2))
+                                        .signalRequestStatus(SignalResult.SignalRequestStatusEnum.RECEIVED)))
+                        .interStateChannelResults(Collections.singletonList(
+                                new InterStateChannelResult()
+                                        .commandId("channel-1")
+                                        .channelName("channel")
+                                        .requestStatus(InterStateChannelResult.RequestStatusEnum.WAITING))),
+                Collections.singletonMap("signal", Integer.class),
+                Collections.singletonMap("channel", String.class),
+                encoder);
+    }
+
+    private static CommandResults expected() {
+        return ImmutableCommandResults.builder()
+                .addAllSignalCommandResults(ImmutableSignalCommandResult.builder()
+                        .commandId("signal-1")
+                        .signalChannelName("signal")
+                        .signalValue(1)
+                        .signalRequestStatusEnum(SignalResult.SignalRequestStatusEnum.RECEIVED)
+                        .build())
+                .addAllSignalCommandResults(ImmutableSignalCommandResult.builder()
+                        .commandId("signal-1")
+                        .signalChannelName("signal")
+                        .signalValue(2)
+                        .signalRequestStatusEnum(SignalResult.SignalRequestStatusEnum.RECEIVED)
+                        .build())
+                .addAllInterStateChannelCommandResult(ImmutableInterStateChannelCommandResult.builder()
+                        .commandId("channel-1")
+                        .channelName("channel")
+                        .requestStatusEnum(InterStateChannelResult.RequestStatusEnum.WAITING)
+                        .build())
+                .build();
+    }
+
+    @Test
+    public void testDecodeValuesOnFirstAccess() {
+        final CommandResults results = fromGenerated();
+        final int encodeCount = encoder.getEncodeCount();
+        Assertions.assertEquals(0, encoder.getDecodeCount());
+
+        // the first result of a duplicated commandId is returned, like the builder results
+        Assertions.assertEquals(Integer.valueOf(1), results.getSignalValueById("signal-1"));
+        Assertions.assertEquals(Integer.valueOf(2), results.getSignalValueByIndex(1));
+        Assertions.assertEquals(Integer.valueOf(1), results.getSignalValueByIndex(0));
+        Assertions.assertEquals(2, encoder.getDecodeCount());
+        Assertions.assertNull(results.getInterStateChannelValueById("channel-1"));
+        Assertions.assertNull(results.getSignalCommandResultById("unknown"));
+        Assertions.assertEquals(encodeCount, encoder.getEncodeCount());
+    }
+
+    @Test
+    public void testFailDecodingUnregisteredSignalOnAccess() {
+        final CommandResults results = CommandResultsMapper.fromGenerated(
+                new io.github.cadenceoss.iwf.gen.models.CommandResults()
+                        .signalResults(Collections.singletonList(new SignalResult()
+                                .commandId("signal-1")
+                                .signalChannelName("unregistered")
+                                .signalValue(encoder.encode(1))
+                                .signalRequestStatus(SignalResult.SignalRequestStatusEnum.RECEIVED))),
+                Collections.singletonMap("signal", Integer.class),
+                Collections.emptyMap(),
+                encoder);
+
+        Assertions.assertEquals("signal-1", results.getAllSignalCommandResults().get(0).getCommandId());
+        Assertions.assertThrows(WorkflowDefinitionException.class, () -> results.getSignalValueByIndex(0));
+    }
+
+    @Test
+    public void testEqualToBuiltResults() {
+        final CommandResults results = fromGenerated();
+        final CommandResults expected = expected();
+
+        Assertions.assertEquals(expected, results);
+        Assertions.assertEquals(results, expected);
+        Assertions.assertEquals(expected.hashCode(), results.hashCode());
+        Assertions.assertEquals(expected.toString(), results.toString());
+        Assertions.assertEquals(expected.getAllSignalCommandResults().get(0), results.getSignalCommandResultById("signal-1"));
+        Assertions.assertNotEquals(expected.getAllSignalCommandResults().get(1), results.getAllSignalCommandResults().get(0));
+        Assertions.assertTrue(results.toString().contains("signalValue=2"), results.toString());
+    }
+}
@@ -0,0 +1,187 @@
+package io.github.cadenceoss.iwf.core.processor;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.cadenceoss.iwf.core.JacksonJsonObjectEncoder;
+import io.github.cadenceoss.iwf.core.ObjectEncoder;
+import io.github.cadenceoss.iwf.core.ObjectEncoderException;
+import io.github.cadenceoss.iwf.gen.models.EncodedObject;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class IwfDataTypeProcessorTest {
+
+    private static final String BASE = "package com.example.data;\n"
+            + "public class Base {\n"
+            + "    String createdBy;\n"
+            + "}\n";
+
+    private static final String ORDER = "package com.example.data;\n"
+            + "@io.github.cadenceoss.iwf.core.IwfDataType\n"
+            + "public class Order extends Base {\n"
+            + "    public enum Status { NEW, PAID }\n"
+            + "    @io.github.cadenceoss.iwf.core.IwfDataType\n"
+            + "    public static class Item {\n"
+            + "        public String name;\n"
+            + "        public Integer quantity;\n"
+            + "    }\n"
+            + "    public static final String IGNORED = \"ignored\";\n"
+            + "    transient String cached;\n"
+            + "    public String id;\n"
+            + "    int count;\n"
+            + "    private long total;\n"
+            + "    public boolean paid;\n"
+            + "    char grade;\n"
+            + "    double[] prices;\n"
+            + "    java.util.List<Long> quantities;\n"
+            + "    java.util.Map<String, Item> items;\n"
+            + "    Item main;\n"
+            + "    java.util.Optional<String> note;\n"
+            + "    Status status;\n"
+            + "    public long getTotal() { return total; }\n"
+            + "    public void setTotal(final long total) { this.total = total; }\n"
+            + "    public static Order sample() {\n"
+            + "        final Order order = new Order();\n"
+            + "        order.createdBy = \"tester\";\n"
+            + "        order.id = \"order-1\";\n"
+            + "        order.count = 3;\n"
+            + "        order.total = 1666000000000L;\n"
+            + "        order.paid = true;\n"
+            + "        order.grade = 'A';\n"
+            + "        order.prices = new double[]{1.25, 2.5};\n"
+            + "        order.quantities = java.util.Arrays.asList(1L, null, 3L);\n"
+            + "        order.main = new Item();\n"
+            + "        order.main.name = \"main\";\n"
+            + "        order.items = java.util.Collections.singletonMap(\"first\", order.main);\n"
+            + "        order.note = java.util.Optional.of(\"note\");\n"
+            + "        order.status = Status.PAID;\n"
+            + "        return order;\n"
+            + "    }\n"
+            + "}\n";
+
+    @Test
+    public void testGeneratedSerializersWriteAndReadTheJsonOfTheBuiltinMapper() throws Exception {
+        final Result result = compile(Collections.emptyList(), source("com.example.data", "Base", BASE),
+                source("com.example.data", "Order", ORDER));
+        Assertions.assertTrue(result.errors.isEmpty(), result.errors.toString());
+
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{result.outputDir.toURI().toURL()}, getClass().getClassLoader())) {
+            final Class<?> orderType = classLoader.loadClass("com.example.data.Order");
+            final Module module = (Module) classLoader.loadClass("com.example.data.IwfGeneratedSerializers")
+                    .getMethod("newModule").invoke(null);
+            Assertions.assertEquals("OrderIwfJsonSerializer", new ObjectMapper().registerModule(module)
+                    .getSerializerProviderInstance().findValueSerializer(orderType).getClass().getSimpleName());
+
+            final ObjectEncoder builtin = new JacksonJsonObjectEncoder();
+            final ObjectEncoder generated = new JacksonJsonObjectEncoder(module);
+            final Object order = orderType.getMethod("sample").invoke(null);
+
+            final EncodedObject encoded = generated.encode(order);
+            Assertions.assertEquals(builtin.encode(order).getData(), encoded.getData());
+            Assertions.assertEquals(encoded.getData(), builtin.encode(generated.decode(encoded, orderType)).getData());
+            Assertions.assertEquals(encoded.getData(), generated.encode(generated.decode(encoded, orderType)).getData());
+
+            // nulls and coercions follow the builtin mapper
+            final EncodedObject partial = builtin.encode(orderType.getConstructor().newInstance());
+            Assertions.assertEquals(partial.getData(), generated.encode(generated.decode(partial, orderType)).getData());
+            final EncodedObject coerced = new EncodedObject().encoding(encoded.getEncoding()).data("{\"count\":\"7\",\"paid\":null}");
+            Assertions.assertEquals(builtin.encode(builtin.decode(coerced, orderType)).getData(),
+                    builtin.encode(generated.decode(coerced, orderType)).getData());
+
+            final EncodedObject unknown = new EncodedObject().encoding(encoded.getEncoding()).data("{\"unknown\":1}");
+            Assertions.assertThrows(ObjectEncoderException.class, () -> builtin.decode(unknown, orderType));
+            Assertions.assertThrows(ObjectEncoderException.class, () -> generated.decode(unknown, orderType));
+        }
+    }
+
+    @Test
+    public void testRejectFieldsThatCannotBeAccessed() throws IOException {
+        final Result result = compile(Collections.emptyList(), source("com.example", "Invalid", "package com.example;\n"
+                + "@io.github.cadenceoss.iwf.core.IwfDataType\n"
+                + "public class Invalid {\n"
+                + "    private String hidden;\n"
+                + "    public final String fixed = \"fixed\";\n"
+                + "}\n"));
+
+        Assertions.assertEquals(2, result.errors.size(), result.errors.toString());
+        Assertions.assertTrue(result.errors.get(0).contains("private field hidden without a public getter"), result.errors.get(0));
+        Assertions.assertTrue(result.errors.get(1).contains("final field fixed without a public setter"), result.errors.get(1));
+    }
+
+    @Test
+    public void testRejectPropertiesTheBuiltinMapperWritesDifferently() throws IOException {
+        final Result result = compile(Collections.emptyList(), source("com.example", "Invalid", "package com.example;\n"
+                + "@io.github.cadenceoss.iwf.core.IwfDataType\n"
+                + "public class Invalid {\n"
+                + "    @com.fasterxml.jackson.annotation.JsonProperty(\"renamed\")\n"
+                + "    public String annotated;\n"
+                + "    public String getComputed() { return \"computed\"; }\n"
+                + "}\n"));
+
+        Assertions.assertEquals(2, result.errors.size(), result.errors.toString());
+        Assertions.assertTrue(result.errors.get(0).contains("must not use Jackson annotations"), result.errors.get(0));
+        Assertions.assertTrue(result.errors.get(1).contains("getComputed of property computed without a field"), result.errors.get(1));
+    }
+
+    private static JavaFileObject source(final String packageName, final String className, final String source) {
+        final URI uri = URI.create("string:///" + packageName.replace('.', '/') + "/" + className + ".java");
+        return new SimpleJavaFileObject(uri, JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(final boolean ignoreEncodingErrors) {
+                return source;
+            }
+        };
+    }
+
+    private static Result compile(final List<String> options, final JavaFileObject... sources) throws IOException {
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        final File outputDir = Files.createTempDirectory("iwf-processor-test").toFile();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, null)) {
+            fileManager.setLocation(StandardLocation.CLASS_OUTPUT, Collections.singletonList(outputDir));
+            fileManager.setLocation(StandardLocation.SOURCE_OUTPUT, Collections.singletonList(outputDir));
+            final List<String> allOptions = new ArrayList<>(options);
+            allOptions.addAll(Arrays.asList("-classpath", System.getProperty("java.class.path")));
+            final JavaCompiler.CompilationTask task = compiler.getTask(
+                    null, fileManager, diagnostics, allOptions, null, Arrays.asList(sources));
+            task.setProcessors(Collections.singletonList(new IwfDataTypeProcessor()));
+            task.call();
+        }
+        final List<String> errors = new ArrayList<>();
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+                errors.add(diagnostic.getMessage(null));
+            }
+        }
+        return new Result(outputDir, errors);
+    }
+
+    private static class Result {
+        final File outputDir;
+        final List<String> errors;
+
+        Result(final File outputDir, final List<String> errors) {
+            this.outputDir = outputDir;
+            this.errors = errors;
+        }
+    }
+}
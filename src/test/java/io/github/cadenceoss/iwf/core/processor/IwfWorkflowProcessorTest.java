@@ -0,0 +1,114 @@
+package io.github.cadenceoss.iwf.core.processor;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class IwfWorkflowProcessorTest {
+
+    @Test
+    public void testGenerateIntoCommonPackage() throws IOException {
+        final Result result = compile(Collections.emptyList(),
+                workflow("com.example.a", "WorkflowA"),
+                workflow("com.example.b", "WorkflowB"));
+
+        Assertions.assertTrue(result.errors.isEmpty(), result.errors.toString());
+        Assertions.assertTrue(new File(result.outputDir, "com/example/IwfGeneratedRegistry.java").exists());
+    }
+
+    @Test
+    public void testRejectWorkflowsWithoutCommonPackage() throws IOException {
+        final Result result = compile(Collections.emptyList(),
+                workflow("com.example", "WorkflowA"),
+                workflow("org.example", "WorkflowB"));
+
+        Assertions.assertEquals(1, result.errors.size(), result.errors.toString());
+        Assertions.assertTrue(result.errors.get(0).contains("-Aiwf.registryPackage"), result.errors.get(0));
+    }
+
+    @Test
+    public void testRegistryPackageOption() throws IOException {
+        final Result result = compile(Collections.singletonList("-Aiwf.registryPackage=com.example.registry"),
+                workflow("com.example", "WorkflowA"),
+                workflow("org.example", "WorkflowB"));
+
+        Assertions.assertTrue(result.errors.isEmpty(), result.errors.toString());
+        Assertions.assertTrue(new File(result.outputDir, "com/example/registry/IwfGeneratedRegistry.java").exists());
+    }
+
+    @Test
+    public void testRejectDuplicateWorkflowTypes() throws IOException {
+        final Result result = compile(Collections.emptyList(),
+                workflow("com.example.a", "SameWorkflow"),
+                workflow("com.example.b", "SameWorkflow"));
+
+        Assertions.assertEquals(1, result.errors.size(), result.errors.toString());
+        Assertions.assertTrue(result.errors.get(0).contains("already exists"), result.errors.get(0));
+    }
+
+    private static JavaFileObject workflow(final String packageName, final String className) {
+        final String source = "package " + packageName + ";\n"
+                + "@io.github.cadenceoss.iwf.core.IwfWorkflow\n"
+                + "public class " + className + " implements io.github.cadenceoss.iwf.core.Workflow {\n"
+                + "    public java.util.List<io.github.cadenceoss.iwf.core.StateDef> getStates() {\n"
+                + "        return java.util.Collections.emptyList();\n"
+                + "    }\n"
+                + "}\n";
+        final URI uri = URI.create("string:///" + packageName.replace('.', '/') + "/" + className + ".java");
+        return new SimpleJavaFileObject(uri, JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(final boolean ignoreEncodingErrors) {
+                return source;
+            }
+        };
+    }
+
+    private static Result compile(final List<String> options, final JavaFileObject... sources) throws IOException {
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        final File outputDir = Files.createTempDirectory("iwf-processor-test").toFile();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, null)) {
+            fileManager.setLocation(StandardLocation.CLASS_OUTPUT, Collections.singletonList(outputDir));
+            fileManager.setLocation(StandardLocation.SOURCE_OUTPUT, Collections.singletonList(outputDir));
+            final List<String> allOptions = new ArrayList<>(options);
+            allOptions.addAll(Arrays.asList("-classpath", System.getProperty("java.class.path"), "-proc:only"));
+            final JavaCompiler.CompilationTask task = compiler.getTask(
+                    null, fileManager, diagnostics, allOptions, null, Arrays.asList(sources));
+            task.setProcessors(Collections.singletonList(new IwfWorkflowProcessor()));
+            task.call();
+        }
+        final List<String> errors = new ArrayList<>();
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+                errors.add(diagnostic.getMessage(null));
+            }
+        }
+        return new Result(outputDir, errors);
+    }
+
+    private static class Result {
+        final File outputDir;
+        final List<String> errors;
+
+        Result(final File outputDir, final List<String> errors) {
+            this.outputDir = outputDir;
+            this.errors = errors;
+        }
+    }
+}
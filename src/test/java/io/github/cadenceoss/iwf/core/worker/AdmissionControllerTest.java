@@ -0,0 +1,65 @@
+package io.github.cadenceoss.iwf.core.worker;
+
+import io.github.cadenceoss.iwf.core.WorkerOverloadedException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class AdmissionControllerTest {
+
+    @Test
+    public void testRejectWhenBulkheadAndQueueAreFull() {
+        final AdmissionController controller = new AdmissionController(AdmissionControlOptions.builder()
+                .putWorkflowTypeLimits("wf", BulkheadLimits.of(1, 0))
+                .maxQueueWaitMillis(10)
+                .build());
+
+        final AdmissionController.Permit permit = controller.admit("wf", "S1", 0);
+        Assertions.assertThrows(WorkerOverloadedException.class, () -> controller.admit("wf", "S1", 0));
+        // other workflow types have their own bulkhead
+        controller.admit("other", "S1", 0).close();
+
+        BulkheadMetrics metrics = controller.getMetrics().getWorkflowTypeBulkheads().get("wf");
+        Assertions.assertEquals(1, metrics.getRunningExecutions());
+        Assertions.assertEquals(1, metrics.getRejectedCount());
+
+        permit.close();
+        controller.admit("wf", "S1", 0).close();
+        metrics = controller.getMetrics().getWorkflowTypeBulkheads().get("wf");
+        Assertions.assertEquals(0, metrics.getRunningExecutions());
+        Assertions.assertEquals(0, metrics.getQueuedExecutions());
+    }
+
+    @Test
+    public void testStateBulkheadsOfAmbiguousNamesAreSeparate() {
+        final AdmissionController controller = new AdmissionController(AdmissionControlOptions.builder()
+                .putStateLimits(AdmissionControlOptions.stateKey("a_b", "c"), BulkheadLimits.of(1, 0))
+                .putStateLimits(AdmissionControlOptions.stateKey("a", "b_c"), BulkheadLimits.of(1, 0))
+                .maxQueueWaitMillis(10)
+                .build());
+
+        final AdmissionController.Permit permit1 = controller.admit("a_b", "c", 0);
+        final AdmissionController.Permit permit2 = controller.admit("a", "b_c", 0);
+        Assertions.assertThrows(WorkerOverloadedException.class, () -> controller.admit("a", "b_c", 0));
+
+        final AdmissionControlMetrics metrics = controller.getMetrics();
+        Assertions.assertEquals(2, metrics.getStateBulkheads().size());
+        Assertions.assertEquals(0, metrics.getStateBulkheads().get(StateKey.of("a_b", "c")).getRejectedCount());
+        Assertions.assertEquals(1, metrics.getStateBulkheads().get(StateKey.of("a", "b_c")).getRejectedCount());
+        permit1.close();
+        permit2.close();
+    }
+
+    @Test
+    public void testStateRejectionReleasesWorkflowTypePermit() {
+        final AdmissionController controller = new AdmissionController(AdmissionControlOptions.builder()
+                .putWorkflowTypeLimits("wf", BulkheadLimits.of(2, 0))
+                .defaultStateLimits(BulkheadLimits.of(1, 0))
+                .maxQueueWaitMillis(10)
+                .build());
+
+        final AdmissionController.Permit permit = controller.admit("wf", "S1", 0);
+        Assertions.assertThrows(WorkerOverloadedException.class, () -> controller.admit("wf", "S1", 0));
+        Assertions.assertEquals(1, controller.getMetrics().getWorkflowTypeBulkheads().get("wf").getRunningExecutions());
+        permit.close();
+    }
+}
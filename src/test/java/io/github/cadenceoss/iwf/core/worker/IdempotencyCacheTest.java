@@ -0,0 +1,113 @@
+package io.github.cadenceoss.iwf.core.worker;
+
+import io.github.cadenceoss.iwf.core.WorkerOverloadedException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class IdempotencyCacheTest {
+
+    @Test
+    public void testRetryOfSameStateExecutionHits() {
+        final IdempotencyCache cache = new IdempotencyCache(IdempotencyCacheOptions.defaultOptions);
+        final AtomicInteger executions = new AtomicInteger();
+
+        final Integer first = cache.getOrExecute("wf", "run", "S1-1", IdempotencyCache.Phase.START, executions::incrementAndGet);
+        final Integer retried = cache.getOrExecute("wf", "run", "S1-1", IdempotencyCache.Phase.START, executions::incrementAndGet);
+
+        Assertions.assertEquals(1, first);
+        Assertions.assertEquals(1, retried);
+        Assertions.assertEquals(1, cache.getMetrics().getHitCount());
+        Assertions.assertEquals(1, cache.getMetrics().getMissCount());
+    }
+
+    @Test
+    public void testSameStateExecutionIdOfOtherWorkflowExecutionsMisses() {
+        final IdempotencyCache cache = new IdempotencyCache(IdempotencyCacheOptions.defaultOptions);
+        final AtomicInteger executions = new AtomicInteger();
+
+        cache.getOrExecute("wf1", "run1", "S1-1", IdempotencyCache.Phase.START, executions::incrementAndGet);
+        final Integer otherWorkflow = cache.getOrExecute("wf2", "run1", "S1-1", IdempotencyCache.Phase.START, executions::incrementAndGet);
+        final Integer otherRun = cache.getOrExecute("wf1", "run2", "S1-1", IdempotencyCache.Phase.START, executions::incrementAndGet);
+        final Integer otherPhase = cache.getOrExecute("wf1", "run1", "S1-1", IdempotencyCache.Phase.DECIDE, executions::incrementAndGet);
+
+        Assertions.assertEquals(2, otherWorkflow);
+        Assertions.assertEquals(3, otherRun);
+        Assertions.assertEquals(4, otherPhase);
+        Assertions.assertEquals(0, cache.getMetrics().getHitCount());
+    }
+
+    @Test
+    public void testFailedExecutionIsNotCached() {
+        final IdempotencyCache cache = new IdempotencyCache(IdempotencyCacheOptions.defaultOptions);
+
+        Assertions.assertThrows(IllegalStateException.class, () -> cache.getOrExecute("wf", "run", "S1-1",
+                IdempotencyCache.Phase.DECIDE, () -> {
+                    throw new IllegalStateException("failed");
+                }));
+        Assertions.assertEquals("ok", cache.getOrExecute("wf", "run", "S1-1", IdempotencyCache.Phase.DECIDE, () -> "ok"));
+        Assertions.assertEquals(0, cache.getMetrics().getHitCount());
+    }
+
+    @Test
+    public void testDuplicateWaitsForRunningExecution() throws InterruptedException {
+        final IdempotencyCache cache = new IdempotencyCache(IdempotencyCacheOptions.defaultOptions);
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch finish = new CountDownLatch(1);
+        final AtomicInteger executions = new AtomicInteger();
+
+        final Thread original = new Thread(() -> cache.getOrExecute("wf", "run", "S1-1", IdempotencyCache.Phase.START, () -> {
+            started.countDown();
+            try {
+                finish.await();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return executions.incrementAndGet();
+        }));
+        original.start();
+        started.await();
+
+        final Integer[] duplicate = new Integer[1];
+        final Thread retry = new Thread(() -> duplicate[0] = cache.getOrExecute(
+                "wf", "run", "S1-1", IdempotencyCache.Phase.START, executions::incrementAndGet));
+        retry.start();
+        // the hit is counted before waiting, so the retry is waiting for the original once it's blocked
+        while (cache.getMetrics().getHitCount() == 0 || retry.getState() != Thread.State.TIMED_WAITING) {
+            Thread.sleep(1);
+        }
+        finish.countDown();
+        original.join();
+        retry.join();
+
+        Assertions.assertEquals(1, duplicate[0]);
+        Assertions.assertEquals(1, executions.get());
+    }
+
+    @Test
+    public void testDuplicateTimesOutWaitingForRunningExecution() throws InterruptedException {
+        final IdempotencyCache cache = new IdempotencyCache(IdempotencyCacheOptions.builder().maxWaitMillis(10).build());
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch finish = new CountDownLatch(1);
+
+        final Thread original = new Thread(() -> cache.getOrExecute("wf", "run", "S1-1", IdempotencyCache.Phase.START, () -> {
+            started.countDown();
+            try {
+                finish.await();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return 1;
+        }));
+        original.start();
+        started.await();
+
+        Assertions.assertThrows(WorkerOverloadedException.class,
+                () -> cache.getOrExecute("wf", "run", "S1-1", IdempotencyCache.Phase.START, () -> 2));
+        finish.countDown();
+        original.join();
+        Assertions.assertEquals(1, cache.getOrExecute("wf", "run", "S1-1", IdempotencyCache.Phase.START, () -> 2));
+    }
+}
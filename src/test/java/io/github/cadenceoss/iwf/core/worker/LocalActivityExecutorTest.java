@@ -0,0 +1,158 @@
+package io.github.cadenceoss.iwf.core.worker;
+
+import io.github.cadenceoss.iwf.core.ClientOptions;
+import io.github.cadenceoss.iwf.core.Context;
+import io.github.cadenceoss.iwf.core.ImmutableContext;
+import io.github.cadenceoss.iwf.core.UntypedClient;
+import io.github.cadenceoss.iwf.core.WorkerOverloadedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class LocalActivityExecutorTest {
+
+    private static class RecordingClient extends UntypedClient {
+        final Map<String, Object> signals = new ConcurrentHashMap<>();
+        final CountDownLatch signaled = new CountDownLatch(1);
+
+        RecordingClient() {
+            super(ClientOptions.localDefault);
+        }
+
+        @Override
+        public void SignalWorkflow(final String workflowId, final String workflowRunId,
+                                   final String signalChannelName, final Object signalValue) {
+            signals.put(workflowId + "/" + signalChannelName, signalValue);
+            signaled.countDown();
+        }
+    }
+
+    private final Context context = ImmutableContext.builder()
+            .workflowStartTimestampSeconds(1L)
+            .stateExecutionId("S1-1")
+            .workflowRunId("run-id")
+            .workflowId("wf-id")
+            .build();
+
+    private final RecordingClient client = new RecordingClient();
+    private final LocalActivityExecutor executor = new LocalActivityExecutor(
+            LocalActivityExecutorOptions.builder().cpuThreads(1).maxConcurrentIoActivities(1).maxPendingActivities(1).build(),
+            client);
+
+    @AfterEach
+    public void shutdown() throws InterruptedException {
+        executor.shutdown(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testStartActivitiesAfterStateApiReturns() throws InterruptedException {
+        final AtomicBoolean stateApiReturning = new AtomicBoolean();
+        final String response = executor.executeStateApi(() -> {
+            executor.schedule(context, "output", stateApiReturning::get);
+            stateApiReturning.set(true);
+            return "response";
+        });
+
+        Assertions.assertEquals("response", response);
+        Assertions.assertTrue(client.signaled.await(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(true, client.signals.get("wf-id/output"));
+        Assertions.assertEquals(1, executor.getMetrics().getScheduledCount());
+    }
+
+    @Test
+    public void testDiscardActivitiesOfFailedStateApi() {
+        final AtomicInteger executed = new AtomicInteger();
+        Assertions.assertThrows(IllegalStateException.class, () -> executor.executeStateApi(() -> {
+            executor.schedule(context, "output", executed::incrementAndGet);
+            throw new IllegalStateException("failed");
+        }));
+
+        final LocalActivityMetrics metrics = executor.getMetrics();
+        Assertions.assertEquals(1, metrics.getDiscardedCount());
+        Assertions.assertEquals(0, metrics.getPendingCount());
+        Assertions.assertEquals(0, executed.get());
+    }
+
+    @Test
+    public void testScheduleActivitiesFromParallelScopeInRequest() throws InterruptedException {
+        final AtomicInteger executed = new AtomicInteger();
+        Assertions.assertThrows(IllegalStateException.class, () -> executor.executeStateApi(() -> {
+            try (ParallelScope scope = ParallelScope.open(0, ParallelScopeOptions.defaultOptions)) {
+                scope.fork("schedule", () -> {
+                    executor.schedule(context, "output", executed::incrementAndGet);
+                    return null;
+                });
+                scope.join();
+            }
+            throw new IllegalStateException("failed");
+        }));
+
+        Assertions.assertEquals(1, executor.getMetrics().getDiscardedCount());
+        Assertions.assertEquals(0, executed.get());
+
+        // a subtask outliving its state API cannot schedule anymore
+        final CountDownLatch returned = new CountDownLatch(1);
+        final ParallelScope scope = executor.executeStateApi(() -> {
+            final ParallelScope opened = ParallelScope.open(0, ParallelScopeOptions.defaultOptions);
+            opened.fork("late", () -> {
+                returned.await();
+                executor.schedule(context, "output", executed::incrementAndGet);
+                return null;
+            });
+            return opened;
+        });
+        returned.countDown();
+        final ParallelScopeException e = Assertions.assertThrows(ParallelScopeException.class, scope::join);
+        Assertions.assertTrue(e.getCause() instanceof IllegalStateException);
+        Assertions.assertEquals(2, executor.getMetrics().getDiscardedCount());
+        Assertions.assertEquals(0, executor.getMetrics().getPendingCount());
+        Assertions.assertEquals(0, executed.get());
+    }
+
+    @Test
+    public void testRejectWhenTooManyPending() {
+        Assertions.assertThrows(WorkerOverloadedException.class, () -> executor.executeStateApi(() -> {
+            executor.schedule(context, "output", () -> 1);
+            executor.schedule(context, "output", () -> 2);
+            return null;
+        }));
+
+        final LocalActivityMetrics metrics = executor.getMetrics();
+        Assertions.assertEquals(1, metrics.getRejectedCount());
+        // the first one is discarded with the failed state API, which releases the pool
+        Assertions.assertEquals(0, metrics.getPendingCount());
+        executor.executeStateApi(() -> {
+            executor.schedule(context, "output", () -> 3);
+            return null;
+        });
+    }
+
+    @Test
+    public void testSignalFailureAfterAllAttempts() throws InterruptedException {
+        final AtomicInteger attempts = new AtomicInteger();
+        executor.schedule(context, LocalActivityOptions.builder()
+                .signalChannelName("output")
+                .failureSignalChannelName("failure")
+                .pool(LocalActivityOptions.Pool.CPU)
+                .maxAttempts(2)
+                .retryBackoffMillis(1)
+                .build(), () -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException("always failing");
+        });
+
+        Assertions.assertTrue(client.signaled.await(5, TimeUnit.SECONDS));
+        Assertions.assertEquals("always failing", client.signals.get("wf-id/failure"));
+        Assertions.assertEquals(2, attempts.get());
+        final LocalActivityMetrics metrics = executor.getMetrics();
+        Assertions.assertEquals(1, metrics.getRetryCount());
+        Assertions.assertEquals(1, metrics.getFailedCount());
+    }
+}
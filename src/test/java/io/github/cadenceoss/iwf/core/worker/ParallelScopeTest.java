@@ -0,0 +1,105 @@
+package io.github.cadenceoss.iwf.core.worker;
+
+import io.github.cadenceoss.iwf.core.Context;
+import io.github.cadenceoss.iwf.core.ImmutableContext;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class ParallelScopeTest {
+
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch interrupted = new CountDownLatch(1);
+
+    private Integer sleepUntilInterrupted() {
+        started.countDown();
+        try {
+            Thread.sleep(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            interrupted.countDown();
+        }
+        return null;
+    }
+
+    @Test
+    public void testJoinSubtasks() {
+        final List<SubtaskMetrics> listened = new CopyOnWriteArrayList<>();
+        final ParallelScopeOptions options = ParallelScopeOptions.builder().subtaskListener(listened::add).build();
+        try (ParallelScope scope = ParallelScope.open(0, options)) {
+            final ParallelScope.Subtask<Integer> first = scope.fork("first", () -> 1);
+            final ParallelScope.Subtask<String> second = scope.fork("second", () -> "2");
+            scope.join();
+
+            Assertions.assertEquals(1, first.get());
+            Assertions.assertEquals("2", second.get());
+            final List<SubtaskMetrics> metrics = scope.getSubtaskMetrics();
+            Assertions.assertEquals("first", metrics.get(0).getName());
+            Assertions.assertEquals("second", metrics.get(1).getName());
+            for (SubtaskMetrics subtaskMetrics : metrics) {
+                Assertions.assertEquals(SubtaskMetrics.Status.SUCCEEDED, subtaskMetrics.getStatus());
+            }
+            Assertions.assertEquals(2, listened.size());
+        }
+    }
+
+    @Test
+    public void testCancelOtherSubtasksOnFailure() throws InterruptedException {
+        try (ParallelScope scope = ParallelScope.open(0, ParallelScopeOptions.defaultOptions)) {
+            final ParallelScope.Subtask<Integer> slow = scope.fork("slow", this::sleepUntilInterrupted);
+            scope.fork("failing", () -> {
+                started.await();
+                throw new IllegalStateException("failed");
+            });
+
+            final ParallelScopeException e = Assertions.assertThrows(ParallelScopeException.class, scope::join);
+            Assertions.assertEquals("failing", e.getSubtaskName());
+            Assertions.assertTrue(e.getCause() instanceof IllegalStateException);
+            Assertions.assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+            Assertions.assertThrows(IllegalStateException.class, slow::get);
+
+            final List<SubtaskMetrics> metrics = scope.getSubtaskMetrics();
+            Assertions.assertEquals(SubtaskMetrics.Status.CANCELLED, metrics.get(0).getStatus());
+            Assertions.assertEquals(SubtaskMetrics.Status.FAILED, metrics.get(1).getStatus());
+        }
+    }
+
+    @Test
+    public void testCancelSubtasksAtRequestDeadline() throws InterruptedException {
+        final ParallelScopeOptions options = ParallelScopeOptions.builder().deadlineMarginMillis(100).build();
+        try (ParallelScope scope = ParallelScope.open(System.currentTimeMillis() + 150, options)) {
+            scope.fork("slow", this::sleepUntilInterrupted);
+            Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            final long startMillis = System.currentTimeMillis();
+            final ParallelScopeException e = Assertions.assertThrows(ParallelScopeException.class, scope::join);
+            Assertions.assertNull(e.getSubtaskName());
+            Assertions.assertTrue(System.currentTimeMillis() - startMillis < TimeUnit.SECONDS.toMillis(5));
+            Assertions.assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void testDefaultTimeoutWhenContextHasNoDeadline() {
+        final Context context = ImmutableContext.of(1L, "S1-1", "run-id", "wf-id");
+        try (ParallelScope scope = context.openParallelScope(ParallelScopeOptions.builder().defaultTimeoutMillis(50).build())) {
+            scope.fork("slow", this::sleepUntilInterrupted);
+            Assertions.assertThrows(ParallelScopeException.class, scope::join);
+        }
+    }
+
+    @Test
+    public void testCancelUnfinishedSubtasksOnClose() throws InterruptedException {
+        final ParallelScope scope = ParallelScope.open(0, ParallelScopeOptions.defaultOptions);
+        final ParallelScope.Subtask<Integer> slow = scope.fork("slow", this::sleepUntilInterrupted);
+        Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+        scope.close();
+
+        Assertions.assertTrue(slow.isCancelled());
+        Assertions.assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(SubtaskMetrics.Status.CANCELLED, scope.getSubtaskMetrics().get(0).getStatus());
+    }
+}
@@ -0,0 +1,118 @@
+package io.github.cadenceoss.iwf.core.worker;
+
+import io.github.cadenceoss.iwf.core.CountingObjectEncoder;
+import io.github.cadenceoss.iwf.core.JacksonBinaryObjectEncoder;
+import io.github.cadenceoss.iwf.core.JacksonJsonObjectEncoder;
+import io.github.cadenceoss.iwf.core.ObjectEncoder;
+import io.github.cadenceoss.iwf.core.attributes.RecordEventEncoder;
+import io.github.cadenceoss.iwf.gen.models.EncodedObject;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.Map;
+
+public class RecordEventLimiterTest {
+
+    private final ObjectEncoder json = new JacksonJsonObjectEncoder();
+    private final String longText = String.join("", Collections.nCopies(20, "event "));
+
+    private static RecordEventLimiter limiter(final RecordEventPolicy policy) {
+        return new RecordEventLimiter(RecordEventOptions.builder()
+                .putWorkflowTypePolicies("limited", policy)
+                .build());
+    }
+
+    private static RecordEventPolicy maxLength(final int maxEventDataLength, final RecordEventPolicy.OversizedEventAction action) {
+        return RecordEventPolicy.builder().maxEventDataLength(maxEventDataLength).oversizedEventAction(action).build();
+    }
+
+    @Test
+    public void testApplyPolicyOfWorkflowType() {
+        final RecordEventLimiter limiter = limiter(RecordEventPolicy.builder().sampleRate(0).build());
+
+        Assertions.assertNull(limiter.encoderFor("limited", json).encode("key", "data"));
+        Assertions.assertNotNull(limiter.encoderFor("other", json).encode("key", "data"));
+
+        final RecordEventMetrics metrics = limiter.getMetrics();
+        Assertions.assertEquals(1, metrics.getSampledOutCount());
+        Assertions.assertEquals(1, metrics.getRecordedCount());
+    }
+
+    @Test
+    public void testLimitEventsPerRequest() {
+        final RecordEventLimiter limiter = limiter(RecordEventPolicy.builder().maxEventsPerRequest(1).build());
+
+        final RecordEventEncoder request = limiter.encoderFor("limited", json);
+        Assertions.assertNotNull(request.encode("first", "data"));
+        Assertions.assertNull(request.encode("second", "data"));
+        // the budget is per request
+        Assertions.assertNotNull(limiter.encoderFor("limited", json).encode("first", "data"));
+        Assertions.assertEquals(1, limiter.getMetrics().getOverBudgetCount());
+        Assertions.assertEquals(2, limiter.getMetrics().getRecordedCount());
+    }
+
+    @Test
+    public void testTruncateTextEncoding() {
+        final RecordEventLimiter limiter = limiter(maxLength(10, RecordEventPolicy.OversizedEventAction.TRUNCATE));
+
+        final EncodedObject encoded = limiter.encoderFor("limited", json).encode("key", longText);
+        Assertions.assertEquals(JacksonJsonObjectEncoder.DEFAULT_ENCODING_TYPE + "+truncated", encoded.getEncoding());
+        Assertions.assertEquals(json.encode(longText).getData().substring(0, 10), encoded.getData());
+        Assertions.assertNotNull(limiter.encoderFor("limited", json).encode("short", "data"));
+        Assertions.assertEquals(1, limiter.getMetrics().getTruncatedCount());
+    }
+
+    @Test
+    public void testTruncateBeforeSurrogatePair() {
+        final RecordEventLimiter limiter = limiter(maxLength(3, RecordEventPolicy.OversizedEventAction.TRUNCATE));
+
+        // the JSON data is "a followed by the two chars of the emoji
+        final EncodedObject encoded = limiter.encoderFor("limited", json).encode("key", "a\uD83D\uDE00" + longText);
+        Assertions.assertEquals("\"a", encoded.getData());
+    }
+
+    @Test
+    public void testSummarizeInsteadOfTruncatingOtherEncodings() {
+        final ObjectEncoder smile = new JacksonBinaryObjectEncoder(JacksonBinaryObjectEncoder.Format.SMILE);
+        final RecordEventLimiter limiter = limiter(maxLength(10, RecordEventPolicy.OversizedEventAction.TRUNCATE));
+
+        final EncodedObject encoded = limiter.encoderFor("limited", smile).encode("key", longText);
+        final Map<?, ?> summary = smile.decode(encoded, Map.class);
+        Assertions.assertEquals(String.class.getName(), summary.get("type"));
+        Assertions.assertEquals(smile.getEncodingType(), summary.get("encoding"));
+        Assertions.assertEquals(1, limiter.getMetrics().getSummarizedCount());
+        Assertions.assertEquals(0, limiter.getMetrics().getTruncatedCount());
+    }
+
+    @Test
+    public void testDropOversizedEvent() {
+        final RecordEventLimiter limiter = limiter(maxLength(10, RecordEventPolicy.OversizedEventAction.DROP));
+
+        Assertions.assertNull(limiter.encoderFor("limited", json).encode("key", longText));
+        Assertions.assertEquals(1, limiter.getMetrics().getOversizedDroppedCount());
+        Assertions.assertEquals(0, limiter.getMetrics().getRecordedCount());
+    }
+
+    @Test
+    public void testEncodeNullDataLikeWithoutPolicy() {
+        final CountingObjectEncoder encoder = new CountingObjectEncoder();
+        final RecordEventLimiter limiter = limiter(RecordEventPolicy.builder().sampleRate(0).build());
+
+        Assertions.assertNull(limiter.encoderFor("limited", encoder).encode("key", null));
+        Assertions.assertEquals(1, encoder.getEncodeCount());
+        Assertions.assertEquals(0, limiter.getMetrics().getSampledOutCount());
+        Assertions.assertEquals(1, limiter.getMetrics().getRecordedCount());
+    }
+
+    @Test
+    public void testCountNullDataAgainstBudgetOfRequest() {
+        final RecordEventLimiter limiter = limiter(RecordEventPolicy.builder().maxEventsPerRequest(1).build());
+
+        final RecordEventEncoder request = limiter.encoderFor("limited", json);
+        request.encode("first", null);
+        Assertions.assertNull(request.encode("second", "data"));
+        Assertions.assertEquals(1, limiter.getMetrics().getOverBudgetCount());
+        Assertions.assertEquals(1, limiter.getMetrics().getRecordedCount());
+    }
+}
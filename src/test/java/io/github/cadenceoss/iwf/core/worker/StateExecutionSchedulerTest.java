@@ -0,0 +1,102 @@
+package io.github.cadenceoss.iwf.core.worker;
+
+import io.github.cadenceoss.iwf.core.WorkerOverloadedException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class StateExecutionSchedulerTest {
+
+    private static final long HOUR_MILLIS = 3600_000;
+
+    @Test
+    public void testHigherPriorityThenEarlierDeadlineRunsFirst() throws InterruptedException {
+        final StateExecutionScheduler scheduler = new StateExecutionScheduler(SchedulerOptions.builder()
+                .maxConcurrentExecutions(1)
+                .agingIntervalMillis(HOUR_MILLIS)
+                .build());
+        final long now = System.currentTimeMillis();
+        final List<String> order = Collections.synchronizedList(new ArrayList<>());
+
+        final StateExecutionScheduler.Slot slot = scheduler.acquire(0, now + HOUR_MILLIS);
+        final List<Thread> threads = new ArrayList<>();
+        threads.add(startQueued(scheduler, order, "low", 0, now + HOUR_MILLIS));
+        threads.add(startQueued(scheduler, order, "high-late", 5, now + 2 * HOUR_MILLIS));
+        threads.add(startQueued(scheduler, order, "high-early", 5, now + HOUR_MILLIS));
+        slot.close();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Assertions.assertEquals(Arrays.asList("high-early", "high-late", "low"), order);
+        Assertions.assertEquals(0, scheduler.getRunningExecutions());
+    }
+
+    @Test
+    public void testWaitingExecutionAgesAheadOfNewerHigherPriority() throws InterruptedException {
+        final StateExecutionScheduler scheduler = new StateExecutionScheduler(SchedulerOptions.builder()
+                .maxConcurrentExecutions(1)
+                .agingIntervalMillis(20)
+                .build());
+        final long now = System.currentTimeMillis();
+        final List<String> order = Collections.synchronizedList(new ArrayList<>());
+
+        final StateExecutionScheduler.Slot slot = scheduler.acquire(0, now + HOUR_MILLIS);
+        final Thread old = startQueued(scheduler, order, "old-low", 0, now + HOUR_MILLIS);
+        // gains at least 10 priority levels
+        Thread.sleep(200);
+        final Thread young = startQueued(scheduler, order, "young-high", 2, now + HOUR_MILLIS);
+        slot.close();
+        old.join();
+        young.join();
+
+        Assertions.assertEquals(Arrays.asList("old-low", "young-high"), order);
+    }
+
+    @Test
+    public void testRejectAtDeadlineAndWhenQueueIsFull() {
+        final StateExecutionScheduler scheduler = new StateExecutionScheduler(SchedulerOptions.builder()
+                .maxConcurrentExecutions(1)
+                .maxQueuedExecutions(0)
+                .build());
+        final StateExecutionScheduler.Slot slot = scheduler.acquire(0, System.currentTimeMillis() + HOUR_MILLIS);
+        Assertions.assertThrows(WorkerOverloadedException.class,
+                () -> scheduler.acquire(0, System.currentTimeMillis() + HOUR_MILLIS));
+        slot.close();
+
+        final StateExecutionScheduler queueing = new StateExecutionScheduler(SchedulerOptions.builder()
+                .maxConcurrentExecutions(1)
+                .build());
+        final StateExecutionScheduler.Slot running = queueing.acquire(0, System.currentTimeMillis() + HOUR_MILLIS);
+        Assertions.assertThrows(WorkerOverloadedException.class,
+                () -> queueing.acquire(0, System.currentTimeMillis() + 50));
+        Assertions.assertEquals(0, queueing.getQueuedExecutions());
+        running.close();
+    }
+
+    @Test
+    public void testRejectNonPositiveAgingInterval() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> SchedulerOptions.builder().agingIntervalMillis(0).build());
+    }
+
+    private static Thread startQueued(final StateExecutionScheduler scheduler, final List<String> order,
+                                      final String name, final int priority, final long deadlineEpochMillis)
+            throws InterruptedException {
+        final int queued = scheduler.getQueuedExecutions();
+        final Thread thread = new Thread(() -> {
+            try (StateExecutionScheduler.Slot ignored = scheduler.acquire(priority, deadlineEpochMillis)) {
+                order.add(name);
+            }
+        });
+        thread.start();
+        while (scheduler.getQueuedExecutions() == queued) {
+            Thread.sleep(1);
+        }
+        return thread;
+    }
+}
@@ -0,0 +1,58 @@
+package io.github.cadenceoss.iwf.core.worker;
+
+import io.github.cadenceoss.iwf.gen.models.EncodedObject;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class StateInputCacheTest {
+
+    private static final EncodedObject INPUT = new EncodedObject().encoding("json").data("\"input\"");
+
+    @Test
+    public void testDecideReusesInputOfStart() {
+        final StateInputCache cache = new StateInputCache(StateInputCacheOptions.defaultOptions);
+        final Object decoded = new Object();
+
+        Assertions.assertSame(decoded, cache.decodeForStart("wf", "run", "S1-1", INPUT, Object.class, () -> decoded));
+        Assertions.assertSame(decoded, cache.decodeForDecide("wf", "run", "S1-1", INPUT, Object.class, Object::new));
+        Assertions.assertEquals(1, cache.getMetrics().getHitCount());
+        // decide is the last use of the input
+        Assertions.assertEquals(0, cache.getMetrics().getSize());
+    }
+
+    @Test
+    public void testSameStateExecutionIdOfOtherWorkflowExecutionIsNotShared() {
+        final StateInputCache cache = new StateInputCache(StateInputCacheOptions.defaultOptions);
+        final Object decoded1 = new Object();
+        final Object decoded2 = new Object();
+        cache.decodeForStart("wf1", "run", "S1-1", INPUT, Object.class, () -> decoded1);
+        cache.decodeForStart("wf2", "run", "S1-1", INPUT, Object.class, () -> decoded2);
+
+        final Object otherRun = new Object();
+        Assertions.assertSame(otherRun, cache.decodeForDecide("wf1", "run2", "S1-1", INPUT, Object.class, () -> otherRun));
+        Assertions.assertEquals(2, cache.getMetrics().getSize());
+        Assertions.assertSame(decoded2, cache.decodeForDecide("wf2", "run", "S1-1", INPUT, Object.class, Object::new));
+        Assertions.assertSame(decoded1, cache.decodeForDecide("wf1", "run", "S1-1", INPUT, Object.class, Object::new));
+    }
+
+    @Test
+    public void testChangedInputOrTypeIsDecodedAgain() {
+        final StateInputCache cache = new StateInputCache(StateInputCacheOptions.defaultOptions);
+        cache.decodeForStart("wf", "run", "S1-1", INPUT, Object.class, Object::new);
+        final Object changed = new Object();
+        Assertions.assertSame(changed, cache.decodeForDecide("wf", "run", "S1-1",
+                new EncodedObject().encoding("json").data("\"changed\""), Object.class, () -> changed));
+
+        cache.decodeForStart("wf", "run", "S1-2", INPUT, Object.class, Object::new);
+        Assertions.assertEquals("decoded", cache.decodeForDecide("wf", "run", "S1-2", INPUT, String.class, () -> "decoded"));
+        Assertions.assertEquals(0, cache.getMetrics().getHitCount());
+        Assertions.assertEquals(2, cache.getMetrics().getMissCount());
+    }
+
+    @Test
+    public void testContentHashKeepsBoundaryOfEncodingAndData() {
+        Assertions.assertNotEquals(
+                ContentHashes.hash(new EncodedObject().encoding("ab").data("c")),
+                ContentHashes.hash(new EncodedObject().encoding("a").data("bc")));
+    }
+}
@@ -0,0 +1,88 @@
+package io.github.cadenceoss.iwf.core.worker;
+
+import io.github.cadenceoss.iwf.core.JacksonJsonObjectEncoder;
+import io.github.cadenceoss.iwf.core.ObjectEncoder;
+import io.github.cadenceoss.iwf.core.attributes.AttributeDecoder;
+import io.github.cadenceoss.iwf.gen.models.EncodedObject;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class WorkflowAttributeCacheTest {
+
+    private final ObjectEncoder encoder = new JacksonJsonObjectEncoder();
+
+    @Test
+    public void testUnchangedAttributeIsDecodedOnce() {
+        final WorkflowAttributeCache cache = new WorkflowAttributeCache(WorkflowAttributeCacheOptions.defaultOptions);
+        final EncodedObject value = encoder.encode(Arrays.asList(1, 2, 3));
+
+        final Object first = decoderFor(cache, "wf", "run").decode("key", value, List.class);
+        final Object second = decoderFor(cache, "wf", "run").decode("key", encoder.encode(Arrays.asList(1, 2, 3)), List.class);
+
+        Assertions.assertSame(first, second);
+        Assertions.assertEquals(1, cache.getMetrics().getHitCount());
+        Assertions.assertEquals(1, cache.getMetrics().getMissCount());
+    }
+
+    @Test
+    public void testChangedValueOrTypeIsDecodedAgain() {
+        final WorkflowAttributeCache cache = new WorkflowAttributeCache(WorkflowAttributeCacheOptions.defaultOptions);
+        final AttributeDecoder decoder = decoderFor(cache, "wf", "run");
+
+        decoder.decode("key", encoder.encode(1), Integer.class);
+        Assertions.assertEquals(2, decoder.decode("key", encoder.encode(2), Integer.class));
+        Assertions.assertEquals(2L, decoder.decode("key", encoder.encode(2), Long.class));
+        Assertions.assertEquals(0, cache.getMetrics().getHitCount());
+    }
+
+    @Test
+    public void testWorkflowExecutionsAndAttributeTypesAreSeparate() {
+        final WorkflowAttributeCache cache = new WorkflowAttributeCache(WorkflowAttributeCacheOptions.defaultOptions);
+        final EncodedObject value = encoder.encode("value");
+
+        decoderFor(cache, "a/b", "c").decode("key", value, String.class);
+        decoderFor(cache, "a", "b/c").decode("key", value, String.class);
+        cache.decoderFor("a", "b/c", WorkflowAttributeCache.AttributeType.STATE_LOCAL, encoder)
+                .decode("key", value, String.class);
+
+        Assertions.assertEquals(0, cache.getMetrics().getHitCount());
+        Assertions.assertEquals(2, cache.getMetrics().getSize());
+    }
+
+    @Test
+    public void testEvict() {
+        final WorkflowAttributeCache cache = new WorkflowAttributeCache(WorkflowAttributeCacheOptions.defaultOptions);
+        final EncodedObject value = encoder.encode("value");
+        decoderFor(cache, "wf", "run").decode("key", value, String.class);
+
+        cache.evict("wf", "run");
+        decoderFor(cache, "wf", "run").decode("key", value, String.class);
+
+        Assertions.assertEquals(0, cache.getMetrics().getHitCount());
+        Assertions.assertEquals(2, cache.getMetrics().getMissCount());
+    }
+
+    @Test
+    public void testMaxAttributesPerWorkflowExecution() {
+        final WorkflowAttributeCache cache = new WorkflowAttributeCache(WorkflowAttributeCacheOptions.builder()
+                .maxAttributesPerWorkflowExecution(1)
+                .build());
+        final AttributeDecoder decoder = decoderFor(cache, "wf", "run");
+        final EncodedObject value = encoder.encode("value");
+
+        decoder.decode("key1", value, String.class);
+        decoder.decode("key2", value, String.class);
+        decoder.decode("key1", value, String.class);
+        decoder.decode("key2", value, String.class);
+
+        Assertions.assertEquals(1, cache.getMetrics().getHitCount());
+        Assertions.assertEquals(3, cache.getMetrics().getMissCount());
+    }
+
+    private AttributeDecoder decoderFor(final WorkflowAttributeCache cache, final String workflowId, final String runId) {
+        return cache.decoderFor(workflowId, runId, WorkflowAttributeCache.AttributeType.QUERY_ATTRIBUTE, encoder);
+    }
+}
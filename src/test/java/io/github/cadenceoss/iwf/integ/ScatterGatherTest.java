@@ -0,0 +1,40 @@
+package io.github.cadenceoss.iwf.integ;
+
+import io.github.cadenceoss.iwf.core.Client;
+import io.github.cadenceoss.iwf.core.ClientOptions;
+import io.github.cadenceoss.iwf.core.WorkflowStartOptions;
+import io.github.cadenceoss.iwf.core.scattergather.ScatterGatherWorkflow;
+import io.github.cadenceoss.iwf.integ.scattergather.SumOfSquaresWorkflow;
+import io.github.cadenceoss.iwf.spring.TestSingletonWorkerService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+public class ScatterGatherTest {
+
+    @BeforeEach
+    public void setup() throws ExecutionException, InterruptedException {
+        TestSingletonWorkerService.startWorkerIfNotUp();
+    }
+
+    @Test
+    public void testScatterGatherWorkflow() throws InterruptedException {
+        final Client client = new Client(WorkflowRegistry.registry, ClientOptions.localDefault);
+        final String wfId = "scatter-gather-test-id" + System.currentTimeMillis() / 1000;
+        final WorkflowStartOptions startOptions = WorkflowStartOptions.minimum(20);
+        final Integer input = 10;
+        final String runId = client.StartWorkflow(
+                SumOfSquaresWorkflow.class, ScatterGatherWorkflow.SCATTER_STATE_ID, input, wfId, startOptions);
+        final Long output = client.GetSimpleWorkflowResultWithWait(Long.class, wfId);
+        Assertions.assertEquals(385L, output);
+
+        final Map<String, Object> progress = client.GetWorkflowQueryAttributes(SumOfSquaresWorkflow.class, wfId, runId,
+                Arrays.asList(ScatterGatherWorkflow.COMPLETED_COUNT_KEY, ScatterGatherWorkflow.PARTITION_COUNT_KEY));
+        Assertions.assertEquals(10, progress.get(ScatterGatherWorkflow.COMPLETED_COUNT_KEY));
+        Assertions.assertEquals(10, progress.get(ScatterGatherWorkflow.PARTITION_COUNT_KEY));
+    }
+}
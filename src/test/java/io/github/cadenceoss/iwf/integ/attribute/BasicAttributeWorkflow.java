@@ -1,5 +1,6 @@
 package io.github.cadenceoss.iwf.integ.attribute;
 
+import io.github.cadenceoss.iwf.core.IwfWorkflow;
 import io.github.cadenceoss.iwf.core.StateDef;
 import io.github.cadenceoss.iwf.core.Workflow;
 import io.github.cadenceoss.iwf.core.attributes.QueryAttributeDef;
@@ -9,6 +10,7 @@ import io.github.cadenceoss.iwf.core.attributes.SearchAttributeType;
 import java.util.Arrays;
 import java.util.List;
 
+@IwfWorkflow
 public class BasicAttributeWorkflow implements Workflow {
     public static final String TEST_QUERY_ATTRIBUTE_KEY = "query-attr-1";
 
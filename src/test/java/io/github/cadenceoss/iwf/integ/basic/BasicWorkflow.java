@@ -1,11 +1,13 @@
 package io.github.cadenceoss.iwf.integ.basic;
 
+import io.github.cadenceoss.iwf.core.IwfWorkflow;
 import io.github.cadenceoss.iwf.core.StateDef;
 import io.github.cadenceoss.iwf.core.Workflow;
 
 import java.util.Arrays;
 import java.util.List;
 
+@IwfWorkflow
 public class BasicWorkflow implements Workflow {
     @Override
     public List<StateDef> getStates() {
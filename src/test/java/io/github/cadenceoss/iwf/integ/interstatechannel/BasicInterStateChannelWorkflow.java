@@ -1,5 +1,6 @@
 package io.github.cadenceoss.iwf.integ.interstatechannel;
 
+import io.github.cadenceoss.iwf.core.IwfWorkflow;
 import io.github.cadenceoss.iwf.core.StateDef;
 import io.github.cadenceoss.iwf.core.Workflow;
 import io.github.cadenceoss.iwf.core.command.InterStateChannelDef;
@@ -7,6 +8,7 @@ import io.github.cadenceoss.iwf.core.command.InterStateChannelDef;
 import java.util.Arrays;
 import java.util.List;
 
+@IwfWorkflow
 public class BasicInterStateChannelWorkflow implements Workflow {
 
     public static final String INTER_STATE_CHANNEL_NAME_1 = "test-inter-state-channel-1";
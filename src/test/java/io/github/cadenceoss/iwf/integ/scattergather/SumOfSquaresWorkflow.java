@@ -0,0 +1,55 @@
+package io.github.cadenceoss.iwf.integ.scattergather;
+
+import io.github.cadenceoss.iwf.core.Context;
+import io.github.cadenceoss.iwf.core.IwfWorkflow;
+import io.github.cadenceoss.iwf.core.scattergather.ScatterGatherWorkflow;
+
+/**
+ * Sums the squares of 1..input, one partition per number
+ */
+@IwfWorkflow
+public class SumOfSquaresWorkflow extends ScatterGatherWorkflow<Integer, Long, Long> {
+
+    public static final int PARALLELISM = 3;
+
+    @Override
+    public Class<Integer> getInputType() {
+        return Integer.class;
+    }
+
+    @Override
+    public Class<Long> getResultType() {
+        return Long.class;
+    }
+
+    @Override
+    public Class<Long> getAccumulatorType() {
+        return Long.class;
+    }
+
+    @Override
+    protected int getPartitionCount(final Integer input) {
+        return input;
+    }
+
+    @Override
+    protected Long processPartition(final Context context, final Integer input, final int partition) {
+        final long number = partition + 1;
+        return number * number;
+    }
+
+    @Override
+    protected Long initialAccumulator(final Integer input) {
+        return 0L;
+    }
+
+    @Override
+    protected Long reduce(final Long accumulator, final Long result) {
+        return accumulator + result;
+    }
+
+    @Override
+    protected int getParallelism() {
+        return PARALLELISM;
+    }
+}
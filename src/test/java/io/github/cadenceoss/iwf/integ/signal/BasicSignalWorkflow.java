@@ -1,5 +1,6 @@
 package io.github.cadenceoss.iwf.integ.signal;
 
+import io.github.cadenceoss.iwf.core.IwfWorkflow;
 import io.github.cadenceoss.iwf.core.StateDef;
 import io.github.cadenceoss.iwf.core.Workflow;
 import io.github.cadenceoss.iwf.core.command.SignalChannelDef;
@@ -7,6 +8,7 @@ import io.github.cadenceoss.iwf.core.command.SignalChannelDef;
 import java.util.Arrays;
 import java.util.List;
 
+@IwfWorkflow
 public class BasicSignalWorkflow implements Workflow {
     @Override
     public List<SignalChannelDef> getSignalChannels() {
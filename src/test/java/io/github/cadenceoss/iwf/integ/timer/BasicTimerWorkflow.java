@@ -1,11 +1,13 @@
 package io.github.cadenceoss.iwf.integ.timer;
 
+import io.github.cadenceoss.iwf.core.IwfWorkflow;
 import io.github.cadenceoss.iwf.core.StateDef;
 import io.github.cadenceoss.iwf.core.Workflow;
 
 import java.util.Arrays;
 import java.util.List;
 
+@IwfWorkflow
 public class BasicTimerWorkflow implements Workflow {
     @Override
     public List<StateDef> getStates() {
@@ -1,14 +1,18 @@
 package io.github.cadenceoss.iwf.spring.controller;
 
 import io.github.cadenceoss.iwf.core.WorkerOptions;
+import io.github.cadenceoss.iwf.core.WorkerOverloadedException;
 import io.github.cadenceoss.iwf.core.WorkerService;
 import io.github.cadenceoss.iwf.gen.models.WorkflowStateDecideRequest;
 import io.github.cadenceoss.iwf.gen.models.WorkflowStateDecideResponse;
 import io.github.cadenceoss.iwf.gen.models.WorkflowStateStartRequest;
 import io.github.cadenceoss.iwf.gen.models.WorkflowStateStartResponse;
 import io.github.cadenceoss.iwf.integ.WorkflowRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -41,4 +45,12 @@ public class ApiController {
         return ResponseEntity.ok(workerService.handleWorkflowStateDecide(request));
     }
 
+    // tell iwf-server to retry later when the worker is shedding load
+    @ExceptionHandler(WorkerOverloadedException.class)
+    public ResponseEntity<String> handleWorkerOverloaded(final WorkerOverloadedException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, e.getRetryAfterMillis() / 1000)))
+                .body(e.getMessage());
+    }
+
 }
\ No newline at end of file